@@ -0,0 +1,67 @@
+package benchmarks;
+
+import entities.Evenement;
+import services.EvenementColonnes;
+
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mémoire retenue par événement pour les champs que couvre {@link EvenementColonnes} (id, début, type) :
+ * objets {@link Evenement} tels que lus en base (un String par ligne et par colonne) contre colonnes.
+ * <p>
+ * Usage : {@code mvn -Pjmh test-compile exec:exec -Djmh.main=benchmarks.ColonnesHeap -Djmh.args="100000"}
+ */
+public class ColonnesHeap {
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Evenement> sample = EmbeddedDb.sample(n, 42);
+
+        long base = used();
+        List<Evenement> objets = new ArrayList<>(n);
+        for (Evenement s : sample) {
+            // new String : comme un ResultSet, chaque ligne a ses propres instances
+            Evenement e = new Evenement(null, null, new String(s.getType()),
+                    lue(s.getDateDebut()), null, null);
+            e.setIdEvent(s.getIdEvent());
+            objets.add(e);
+        }
+        long parObjet = (used() - base) / n;
+
+        base = used();
+        EvenementColonnes colonnes = EvenementColonnes.of(objets);
+        long parLigne = (used() - base) / n;
+
+        System.out.printf("%d événements%n", n);
+        System.out.printf("  objets   : %5d octets / événement (mesuré)%n", parObjet);
+        System.out.printf("  colonnes : %5d octets / événement (mesuré), %d (tableaux)%n",
+                parLigne, colonnes.octets() / n);
+        System.out.printf("  gain     : x%.1f%n", (double) parObjet / Math.max(1, parLigne));
+        // vivants jusqu'ici : sinon le GC d'une mesure récupère ce qu'une autre a compté
+        Reference.reachabilityFence(sample);
+        Reference.reachabilityFence(objets);
+        Reference.reachabilityFence(colonnes);
+    }
+
+    // comme Timestamp.toLocalDateTime() : nouvelle date par ligne
+    private static LocalDateTime lue(LocalDateTime d) {
+        return d == null ? null : LocalDateTime.of(d.getYear(), d.getMonthValue(), d.getDayOfMonth(),
+                d.getHour(), d.getMinute(), d.getSecond(), d.getNano());
+    }
+
+    private static long used() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import entities.Evenement;
+import entities.Programme;
+import org.openjdk.jmh.annotations.*;
+import services.EvenementService;
+import services.ProgrammeService;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allers-retours CRUD complets (pool + statements + mapping) sur la base embarquée
+ * ({@link EmbeddedDb}) ou sur MySQL avec {@code -Ddb.url=...}. Le catalogue de départ contient
+ * {@link #CATALOGUE} événements avec deux programmes chacun.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrudBench {
+
+    static final int CATALOGUE = 1000;
+
+    private EvenementService se;
+    private ProgrammeService sp;
+    private Evenement modele;
+    private int someId;
+
+    @Setup
+    public void setup() throws SQLException {
+        EmbeddedDb.start();
+        se = new EvenementService();
+        sp = new ProgrammeService();
+
+        List<Evenement> existing = se.getPage(0, 1);
+        if (existing.isEmpty()) {
+            Map<Evenement, List<Programme>> catalogue = new LinkedHashMap<>();
+            for (Evenement e : EmbeddedDb.sample(CATALOGUE, 7)) {
+                e.setLieu(e.getLieu() + " salle " + e.getIdEvent()); // un lieu par événement : pas de conflit de lieu
+                catalogue.put(e, List.of(
+                        new Programme(0, "Accueil", e.getDateDebut(), e.getDateDebut().plusHours(1)),
+                        new Programme(0, "Clôture", e.getDateDebut().plusHours(1), e.getDateDebut().plusHours(2))));
+            }
+            se.addAllAvecProgrammes(catalogue);
+            existing = se.getPage(0, 1);
+        }
+        someId = existing.get(0).getIdEvent();
+        modele = EmbeddedDb.sample(1, 99).get(0);
+    }
+
+    /** add + getOneById + update + delete. */
+    @Benchmark
+    public Evenement roundTrip() throws SQLException {
+        Evenement e = new Evenement(modele.getTitre(), modele.getDescription(), modele.getType(),
+                modele.getDateDebut(), modele.getDateFin(), modele.getLieu());
+        se.add(e);
+        Evenement lu = se.getOneById(e.getIdEvent());
+        lu.setTitre(lu.getTitre() + " (modifié)");
+        se.update(lu);
+        se.delete(lu.getIdEvent());
+        return lu;
+    }
+
+    @Benchmark
+    public Evenement getOneById() throws SQLException {
+        return se.getOneById(someId);
+    }
+
+    @Benchmark
+    public List<Programme> getByEventId() throws SQLException {
+        return sp.getByEventId(someId);
+    }
+
+    @Benchmark
+    public List<Evenement> getAll() throws SQLException {
+        return se.getAll();
+    }
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import entities.Evenement;
+import entities.TypeEvenement;
+import utils.DbConfig;
+import utils.MyDataBase;
+import utils.SchemaMigrator;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Base embarquée en mémoire (db.mode=embedded, schéma créé par les migrations) qui remplace
+ * MySQL pour les benchmarks. {@link #start()} doit précéder le premier
+ * {@link MyDataBase#getInstance()} de la JVM (la configuration est lue à sa création).
+ * Une URL passée explicitement ({@code -Ddb.url=...}) est respectée : le même benchmark tourne alors sur MySQL.
+ */
+public final class EmbeddedDb {
+
+    public static final String URL = "jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final String[] LIEUX = {"Tunis", "Hammamet", "Sousse", "Tozeur", "Ain Draham", "Djerba"};
+    private static final String[] MOTS = {"festival", "nuit", "rando", "désert", "plage", "concert", "montagne"};
+
+    private EmbeddedDb() {}
+
+    public static synchronized void start() throws SQLException {
+        if (System.getProperty("db.url") == null) {
+            System.setProperty("db.mode", "embedded");
+            System.setProperty("db.url", URL);
+        }
+        DbConfig config = MyDataBase.getInstance().getConfig();
+        if (!config.bootstrap()) {
+            // base fournie par -Ddb.url : schéma migré ici, pas au démarrage
+            try (Connection cnx = MyDataBase.getInstance().getConnection()) {
+                SchemaMigrator.migrate(cnx);
+            }
+        }
+    }
+
+    /** Événements synthétiques reproductibles (même graine = même catalogue). */
+    public static List<Evenement> sample(int n, long seed) {
+        Random r = new Random(seed);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+        List<Evenement> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String type = TypeEvenement.values()[r.nextInt(TypeEvenement.values().length)].name();
+            LocalDateTime debut = base.plusHours(r.nextInt(24 * 365));
+            LocalDateTime fin = r.nextInt(4) == 0 ? null : debut.plusHours(2 + r.nextInt(72));
+            String mot = MOTS[r.nextInt(MOTS.length)];
+            Evenement e = new Evenement(
+                    mot + " " + type.toLowerCase() + " #" + i,
+                    "Édition " + i + " : " + MOTS[r.nextInt(MOTS.length)] + " et " + mot,
+                    type, debut, fin,
+                    LIEUX[r.nextInt(LIEUX.length)]);
+            e.setIdEvent(i + 1);
+            list.add(e);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,83 @@
+package benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compare deux résultats JMH ({@code -rf json}) et échoue (code 1) si un benchmark régresse
+ * de plus de {@code seuil} % : temps moyen plus long (avgt/sample/ss) ou débit plus faible (thrpt).
+ * <p>
+ * Usage : {@code RegressionGate reference.json courant.json [seuil=10]}
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="-rf json -rff target/jmh-result.json"
+ * mvn -Pjmh exec:exec -Djmh.main=benchmarks.RegressionGate -Djmh.args="jmh-reference.json target/jmh-result.json 10"
+ * </pre>
+ */
+public class RegressionGate {
+
+    private record Score(String mode, double value, String unit) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage : RegressionGate reference.json courant.json [seuil %]");
+            System.exit(2);
+        }
+        Map<String, Score> ref = read(Path.of(args[0]));
+        Map<String, Score> cur = read(Path.of(args[1]));
+        double seuil = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> en : cur.entrySet()) {
+            Score before = ref.get(en.getKey());
+            Score after = en.getValue();
+            if (before == null || !before.unit().equals(after.unit()) || before.value() == 0) {
+                System.out.printf("   %-70s %12.3f %s (nouveau)%n", en.getKey(), after.value(), after.unit());
+                continue;
+            }
+
+            // écart en % dans le sens "pire" : + = plus lent
+            double delta = (after.value() - before.value()) / before.value() * 100;
+            if (after.mode().equals("thrpt")) delta = -delta;
+
+            boolean ko = delta > seuil;
+            if (ko) regressions++;
+            System.out.printf("%s %-70s %12.3f -> %12.3f %s (%+.1f %%)%n",
+                    ko ? "❌" : "✅", en.getKey(), before.value(), after.value(), after.unit(), delta);
+        }
+
+        System.out.println(regressions == 0
+                ? "✅ Aucune régression au-delà de " + seuil + " %"
+                : "❌ " + regressions + " régression(s) au-delà de " + seuil + " %");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    // clé : nom du benchmark + paramètres triés
+    private static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> out = new TreeMap<>();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonArray runs = JsonParser.parseReader(r).getAsJsonArray();
+            for (JsonElement el : runs) {
+                JsonObject run = el.getAsJsonObject();
+                StringBuilder key = new StringBuilder(run.get("benchmark").getAsString());
+                if (run.has("params")) {
+                    new TreeMap<>(run.getAsJsonObject("params").asMap())
+                            .forEach((k, v) -> key.append(' ').append(k).append('=').append(v.getAsString()));
+                }
+                JsonObject metric = run.getAsJsonObject("primaryMetric");
+                out.put(key.toString(), new Score(run.get("mode").getAsString(),
+                        metric.get("score").getAsDouble(), metric.get("scoreUnit").getAsString()));
+            }
+        }
+        return out;
+    }
+}
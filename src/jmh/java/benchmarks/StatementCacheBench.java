@@ -0,0 +1,95 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import utils.ConnectionPool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'un appel de service typique (emprunt + prepareStatement + requête + close), avec et sans
+ * le registre de PreparedStatement du pool ({@code statementCache} = 0 : avant, 64 : après).
+ * <p>
+ * Base : {@code -Ddb.url / -Ddb.user / -Ddb.password}, base embarquée ({@link EmbeddedDb}) par défaut, ex :
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="StatementCacheBench -jvmArgsAppend -Ddb.url=jdbc:mysql://..."
+ * </pre>
+ * Pour mesurer aussi l'effet du cache driver, comparer avec une URL sans cachePrepStmts/useServerPrepStmts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementCacheBench {
+
+    private static final String BY_ID = "SELECT * FROM evenement WHERE id_event = ?";
+    private static final String BY_EVENT = "SELECT * FROM programme WHERE event_id = ? ORDER BY date_debut";
+
+    @Param({"0", "64"})
+    public int statementCache;
+
+    private ConnectionPool pool;
+
+    @Setup
+    public void setup() throws SQLException {
+        EmbeddedDb.start();
+        pool = new ConnectionPool(
+                System.getProperty("db.url"),
+                System.getProperty("db.user"),
+                System.getProperty("db.password"),
+                2, 10_000, 5 * 60_000, 30 * 60_000, statementCache);
+    }
+
+    @TearDown
+    public void tearDown() {
+        ConnectionPool.Stats s = pool.getStats();
+        System.out.println("\nstatements : " + s.statementHits() + " réutilisés, " + s.statementMisses() + " préparés");
+        pool.close();
+    }
+
+    /** Surcoût pur : préparer puis fermer, sans exécuter. */
+    @Benchmark
+    public void prepare() throws SQLException {
+        try (Connection cnx = pool.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(BY_ID)) {
+            ps.setInt(1, 1);
+        }
+    }
+
+    /** Équivalent de EvenementService.getOneById. */
+    @Benchmark
+    public void getOneById(Blackhole bh) throws SQLException {
+        try (Connection cnx = pool.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(BY_ID)) {
+            ps.setInt(1, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) bh.consume(rs.getString("titre"));
+            }
+        }
+    }
+
+    /** Deux requêtes sur la même connexion, comme un écran de détails. */
+    @Benchmark
+    public void evenementEtProgrammes(Blackhole bh) throws SQLException {
+        try (Connection cnx = pool.getConnection()) {
+            try (PreparedStatement ps = cnx.prepareStatement(BY_ID)) {
+                ps.setInt(1, 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) bh.consume(rs.getString("titre"));
+                }
+            }
+            try (PreparedStatement ps = cnx.prepareStatement(BY_EVENT)) {
+                ps.setInt(1, 1);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) bh.consume(rs.getString("titre"));
+                }
+            }
+        }
+    }
+}
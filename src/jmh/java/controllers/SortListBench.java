@@ -0,0 +1,50 @@
+package controllers;
+
+import benchmarks.EmbeddedDb;
+import entities.Evenement;
+import org.openjdk.jmh.annotations.*;
+import services.EvenementCriteria;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Changement de tri de la liste affichée ({@link EventListModel#setComparator}, appelé par onTrier) :
+ * tri de la source + écart appliqué à la vue. Une opération = aller vers le tri choisi puis retour
+ * à l'ordre par défaut (récent d'abord), soit deux retris complets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SortListBench {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"TITRE_ASC", "TITRE_DESC", "DATE_ASC", "DATE_DESC"})
+    public EvenementCriteria.Tri tri;
+
+    private EventListModel model;
+    private Comparator<Evenement> choisi;
+    private Comparator<Evenement> recent;
+
+    @Setup
+    public void setup() {
+        List<Evenement> events = EmbeddedDb.sample(size, 42);
+        choisi = new EvenementCriteria().tri(tri).comparator();
+        recent = new EvenementCriteria().comparator();
+        model = new EventListModel();
+        model.setAll(events, null, recent);
+    }
+
+    @Benchmark
+    public int setComparator() {
+        model.setComparator(choisi);
+        model.setComparator(recent);
+        return model.size();
+    }
+}
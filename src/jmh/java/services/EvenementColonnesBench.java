@@ -0,0 +1,79 @@
+package services;
+
+import benchmarks.EmbeddedDb;
+import entities.Evenement;
+import entities.TypeEvenement;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtres type / période et tri par date : objets {@link Evenement} (comme le cache avant
+ * {@link EvenementColonnes}) contre colonnes primitives. Taille mémoire : {@code benchmarks.ColonnesHeap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvenementColonnesBench {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private static final LocalDate FROM = LocalDate.of(2025, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 5, 31);
+
+    private List<Evenement> events;
+    private EvenementColonnes colonnes;
+    private EvenementCriteria type;
+    private EvenementCriteria periode;
+    private EvenementCriteria parDate;
+
+    @Setup
+    public void setup() {
+        events = EmbeddedDb.sample(size, 42);
+        colonnes = EvenementColonnes.of(events);
+        type = new EvenementCriteria().type("CAMPING");
+        periode = new EvenementCriteria().between(FROM, TO);
+        parDate = new EvenementCriteria().tri(EvenementCriteria.Tri.DATE_ASC);
+    }
+
+    @Benchmark
+    public List<Evenement> typeObjets() {
+        return events.stream().filter(type::matchesFilters).toList();
+    }
+
+    @Benchmark
+    public int[] typeColonnes() {
+        return colonnes.deType(null, TypeEvenement.CAMPING);
+    }
+
+    @Benchmark
+    public List<Evenement> periodeObjets() {
+        return events.stream().filter(periode::matchesFilters).toList();
+    }
+
+    @Benchmark
+    public int[] periodeColonnes() {
+        return colonnes.debutEntre(null, FROM, TO);
+    }
+
+    @Benchmark
+    public List<Evenement> triDateObjets() {
+        return events.stream().sorted(parDate.comparator()).toList();
+    }
+
+    @Benchmark
+    public int[] triDateColonnes() {
+        return colonnes.trierParDebut(null, true);
+    }
+
+    @Benchmark
+    public EvenementColonnes construction() {
+        return EvenementColonnes.of(events);
+    }
+}
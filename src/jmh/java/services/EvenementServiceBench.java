@@ -0,0 +1,91 @@
+package services;
+
+import benchmarks.EmbeddedDb;
+import entities.Evenement;
+import org.h2.tools.SimpleResultSet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parties "CPU" d'{@link EvenementService} : mapping ResultSet -> Evenement et helpers Streams
+ * (recherche, filtres, tris) sur un catalogue en mémoire de {@code size} événements.
+ * <p>
+ * Le ResultSet est un {@link SimpleResultSet} en mémoire : seul le coût de {@code map} est mesuré,
+ * pas le réseau ni le driver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvenementServiceBench {
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    private EvenementService service;
+    private List<Evenement> events;
+    private SimpleResultSet rows;
+
+    @Setup
+    public void setup() throws SQLException {
+        EmbeddedDb.start();
+        service = new EvenementService();
+        events = EmbeddedDb.sample(size, 42);
+
+        rows = new SimpleResultSet();
+        rows.setAutoClose(false); // relu à chaque invocation (beforeFirst)
+        rows.addColumn("id_event", Types.INTEGER, 10, 0);
+        rows.addColumn("titre", Types.VARCHAR, 255, 0);
+        rows.addColumn("description", Types.VARCHAR, 65535, 0);
+        rows.addColumn("type", Types.VARCHAR, 30, 0);
+        rows.addColumn("date_debut", Types.TIMESTAMP, 19, 0);
+        rows.addColumn("date_fin", Types.TIMESTAMP, 19, 0);
+        rows.addColumn("lieu", Types.VARCHAR, 255, 0);
+        rows.addColumn("image", Types.VARCHAR, 500, 0);
+        for (Evenement e : events) {
+            rows.addRow(e.getIdEvent(), e.getTitre(), e.getDescription(), e.getType(),
+                    Timestamp.valueOf(e.getDateDebut()),
+                    e.getDateFin() == null ? null : Timestamp.valueOf(e.getDateFin()),
+                    e.getLieu(), null);
+        }
+    }
+
+    @Benchmark
+    public void map(Blackhole bh) throws SQLException {
+        rows.beforeFirst();
+        while (rows.next()) bh.consume(EvenementService.map(rows));
+    }
+
+    @Benchmark
+    public List<Evenement> rechercher() {
+        return service.rechercher(events, "festival");
+    }
+
+    @Benchmark
+    public List<Evenement> filtrerParType() {
+        return service.filtrerParType(events, "CAMPING");
+    }
+
+    @Benchmark
+    public List<Evenement> filtrerParLieu() {
+        return service.filtrerParLieu(events, "hamma");
+    }
+
+    @Benchmark
+    public List<Evenement> trierParDateAsc() {
+        return service.trierParDateAsc(events);
+    }
+
+    @Benchmark
+    public List<Evenement> trierParDateDesc() {
+        return service.trierParDateDesc(events);
+    }
+}
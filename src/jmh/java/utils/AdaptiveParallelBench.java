@@ -0,0 +1,62 @@
+package utils;
+
+import benchmarks.EmbeddedDb;
+import entities.Evenement;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point de bascule séquentiel / parallèle d'{@link AdaptiveParallel} : même filtre et même tri
+ * avec {@code threads = 1} (toujours séquentiel) puis découpés sur N threads (seuil 0), pour
+ * chaque taille. Le seuil par défaut ({@code -Dparallel.threshold}) se règle sur la plus petite
+ * taille où la version parallèle passe devant. {@code triComparateur} : tri d'avant (clé
+ * recalculée à chaque comparaison), pour mesurer le gain des clés précalculées.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="AdaptiveParallelBench -p threads=1,4"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdaptiveParallelBench {
+
+    @Param({"1000", "10000", "100000", "500000"})
+    public int size;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private List<Evenement> events;
+    private AdaptiveParallel par;
+
+    @Setup
+    public void setup() {
+        events = EmbeddedDb.sample(size, 42);
+        par = threads == 1 ? new AdaptiveParallel(Integer.MAX_VALUE, 1) : new AdaptiveParallel(0, threads);
+    }
+
+    @Benchmark
+    public List<Evenement> filtre() {
+        return par.filter(events, e -> e.getLieu().toLowerCase(Locale.ROOT).contains("hamma")
+                || e.getDescription().toLowerCase(Locale.ROOT).contains("festival"));
+    }
+
+    @Benchmark
+    public List<Evenement> triCle() {
+        return par.sortByKey(events, e -> e.getTitre().toLowerCase(), Comparator.<String>naturalOrder(), null);
+    }
+
+    @Benchmark
+    public List<Evenement> triComparateur() {
+        return events.stream()
+                .sorted(Comparator.comparing(e -> e.getTitre().toLowerCase()))
+                .toList();
+    }
+}
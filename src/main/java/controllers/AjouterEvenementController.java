@@ -1,10 +1,15 @@
 package controllers;
 
 import entities.Evenement;
+import entities.TypeEvenement;
+import interfaces.IEvenementService;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import services.EvenementService;
+import services.EvenementCacheService;
+import services.EvenementValidator;
+import services.VenueConflictException;
+import utils.Async;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -15,7 +20,7 @@ public class AjouterEvenementController {
 
     @FXML private TextField txtTitre;
     @FXML private TextArea txtDescription;
-    @FXML private ChoiceBox<String> cbType;
+    @FXML private ChoiceBox<TypeEvenement> cbType;
 
     // Date début
     @FXML private DatePicker dpDebut;
@@ -30,14 +35,14 @@ public class AjouterEvenementController {
     @FXML private TextField txtLieu;
     @FXML private Label lblMessage;
 
-    private EvenementService service;
+    private IEvenementService service;
 
     @FXML
     public void initialize() {
 
         // Types
-        cbType.getItems().setAll("SOIREE", "RANDONNEE", "CAMPING", "SEJOUR");
-        cbType.setValue("SOIREE");
+        cbType.getItems().setAll(TypeEvenement.values());
+        cbType.setValue(TypeEvenement.SOIREE);
 
         // Spinners
         spDebutH.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0, 23, 20));
@@ -56,7 +61,7 @@ public class AjouterEvenementController {
 
         // DB
         try {
-            service = new EvenementService();
+            service = EvenementCacheService.getInstance();
         } catch (SQLException e) {
             showError("❌ Erreur connexion DB");
             e.printStackTrace();
@@ -64,8 +69,7 @@ public class AjouterEvenementController {
 
         // Activer/désactiver date fin selon type
         cbType.getSelectionModel().selectedItemProperty().addListener((obs, oldV, newV) -> {
-            boolean besoinFin = "CAMPING".equals(newV) || "SEJOUR".equals(newV);
-            setFinEnabled(besoinFin);
+            setFinEnabled(newV != null && newV.dateFinRequise());
         });
 
         // Etat initial : SOIREE => pas besoin fin
@@ -96,77 +100,73 @@ public class AjouterEvenementController {
             String titre = safe(txtTitre.getText());
             String desc  = safe(txtDescription.getText());
             String lieu  = safe(txtLieu.getText());
-            String type  = cbType.getValue();
+            TypeEvenement type = cbType.getValue();
 
-            // Validations
-            if (titre.isEmpty() || desc.isEmpty() || lieu.isEmpty()) {
-                showError("❌ Remplis Titre / Description / Lieu.");
-                return;
-            }
-
-            if (dpDebut.getValue() == null) {
-                showError("❌ Choisis une date début.");
-                return;
+            LocalDateTime debut = null;
+            if (dpDebut.getValue() != null) {
+                debut = LocalDateTime.of(
+                        dpDebut.getValue(),
+                        LocalTime.of(spDebutH.getValue(), spDebutM.getValue())
+                );
             }
 
-            LocalDateTime debut = LocalDateTime.of(
-                    dpDebut.getValue(),
-                    LocalTime.of(spDebutH.getValue(), spDebutM.getValue())
-            );
-
             LocalDateTime fin = null;
-            boolean needFin = "CAMPING".equals(type) || "SEJOUR".equals(type);
-
-            if (needFin) {
-                if (dpFin.getValue() == null) {
-                    showError("❌ Date fin obligatoire pour CAMPING / SEJOUR.");
-                    return;
-                }
-
+            if (type != null && type.dateFinRequise() && dpFin.getValue() != null) {
                 fin = LocalDateTime.of(
                         dpFin.getValue(),
                         LocalTime.of(spFinH.getValue(), spFinM.getValue())
                 );
-
-                if (!fin.isAfter(debut)) {
-                    showError("❌ Date fin doit être après date début.");
-                    return;
-                }
             }
 
-            // Insert DB
-            Evenement e = new Evenement(titre, desc, type, debut, fin, lieu);
-            service.add(e);
-
-            showSuccess("✅ Événement ajouté ! ID = " + e.getIdEvent());
-
-            // Alert Oui/Non
-            Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-            alert.setTitle("Ajouter Programme");
-            alert.setHeaderText("Événement ajouté avec succès !");
-            alert.setContentText("Voulez-vous ajouter un programme pour cet événement ?");
-
-            ButtonType btnOui = new ButtonType("Oui");
-            ButtonType btnNon = new ButtonType("Non", ButtonBar.ButtonData.CANCEL_CLOSE);
-            alert.getButtonTypes().setAll(btnOui, btnNon);
+            // Validations (mêmes règles que l'import en masse)
+            Evenement e = new Evenement(titre, desc, type == null ? null : type.name(), debut, fin, lieu);
+            String erreur = EvenementValidator.verifier(e);
+            if (erreur != null) {
+                showError("❌ " + erreur);
+                return;
+            }
 
-            alert.showAndWait().ifPresent(response -> {
-                if (response == btnOui) {
-                    SceneUtil.switchToWithData("/AjouterProgramme.fxml", "Ajouter Programme", e.getIdEvent());
-                } else {
-                    SceneUtil.switchTo("/ListeEvenements.fxml", "Liste des Événements");
-                }
-            });
+            // Insert DB (hors thread FX)
+            Async.runOnFx(() -> service.add(e),
+                    () -> {
+                        showSuccess("✅ Événement ajouté ! ID = " + e.getIdEvent());
+                        proposerProgramme(e);
+                    },
+                    ex -> {
+                        if (ex instanceof VenueConflictException) {
+                            showError("❌ " + ex.getMessage());
+                            return;
+                        }
+                        showError("❌ Erreur DB (insert)");
+                        ex.printStackTrace();
+                    });
 
-        } catch (SQLException ex) {
-            showError("❌ Erreur DB (insert)");
-            ex.printStackTrace();
         } catch (Exception ex) {
             showError("❌ Erreur: " + ex.getMessage());
             ex.printStackTrace();
         }
     }
 
+    private void proposerProgramme(Evenement e) {
+        // Alert Oui/Non
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Ajouter Programme");
+        alert.setHeaderText("Événement ajouté avec succès !");
+        alert.setContentText("Voulez-vous ajouter un programme pour cet événement ?");
+
+        ButtonType btnOui = new ButtonType("Oui");
+        ButtonType btnNon = new ButtonType("Non", ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(btnOui, btnNon);
+
+        alert.showAndWait().ifPresent(response -> {
+            if (response == btnOui) {
+                SceneUtil.switchToWithData("/AjouterProgramme.fxml", "Ajouter Programme", e.getIdEvent());
+            } else {
+                SceneUtil.switchTo("/ListeEvenements.fxml", "Liste des Événements");
+            }
+        });
+    }
+
     @FXML
     private void onRetour() {
         SceneUtil.switchTo("/ListeEvenements.fxml", "Liste des Événements");
@@ -3,12 +3,16 @@ import interfaces.DataReceiver;
 
 import entities.Evenement;
 import entities.Programme;
+import interfaces.IEvenementService;
 import interfaces.DataReceiver;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import services.EvenementService;
-import services.ProgrammeService;
+import services.EvenementCacheService;
+import services.EvenementValidator;
+import services.ProgrammeConflictException;
+import services.ProgrammePlanning;
+import utils.Async;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -31,10 +35,11 @@ public class AjouterProgrammeController implements DataReceiver<Integer> {
 
     @FXML private Label lblMessage;
 
-    private ProgrammeService programmeService;
-    private EvenementService evenementService;
+    private ProgrammePlanning planning;
+    private IEvenementService evenementService;
 
     private int idEvent; // ✅ reçu depuis SceneUtil
+    private Evenement evenement; // bornes pour la vérification du créneau
 
     @Override
     public void setData(Integer data) {
@@ -59,8 +64,8 @@ public class AjouterProgrammeController implements DataReceiver<Integer> {
         dpFin.setValue(LocalDate.now());
 
         try {
-            programmeService = new ProgrammeService();
-            evenementService = new EvenementService();
+            planning = ProgrammePlanning.getInstance();
+            evenementService = EvenementCacheService.getInstance();
         } catch (SQLException e) {
             showError("❌ Erreur connexion DB");
             e.printStackTrace();
@@ -70,63 +75,65 @@ public class AjouterProgrammeController implements DataReceiver<Integer> {
     }
 
     private void chargerInfosEvenement() {
-        try {
-            Evenement e = evenementService.getOneById(idEvent);
-            if (e != null) {
-                lblEventInfo.setText("Event #" + e.getIdEvent() + " : " + e.getTitre() + " (" + e.getType() + ")");
-            } else {
-                lblEventInfo.setText("⚠️ Événement introuvable (id=" + idEvent + ")");
-            }
-        } catch (SQLException ex) {
-            lblEventInfo.setText("❌ Erreur chargement événement");
-            ex.printStackTrace();
-        }
+        Async.onFx(() -> evenementService.getOneById(idEvent),
+                e -> {
+                    evenement = e;
+                    if (e != null) {
+                        lblEventInfo.setText("Event #" + e.getIdEvent() + " : " + e.getTitre() + " (" + e.getType() + ")");
+                    } else {
+                        lblEventInfo.setText("⚠️ Événement introuvable (id=" + idEvent + ")");
+                    }
+                },
+                ex -> {
+                    lblEventInfo.setText("❌ Erreur chargement événement");
+                    ex.printStackTrace();
+                });
     }
 
     @FXML
     private void onAjouterProgramme(ActionEvent event) {
         lblMessage.setText("");
 
-        try {
-            String titre = safe(txtTitre.getText());
-            if (titre.isEmpty()) {
-                showError("❌ Titre programme obligatoire.");
-                return;
-            }
-
-            if (dpDebut.getValue() == null || dpFin.getValue() == null) {
-                showError("❌ Choisis date début et date fin.");
-                return;
-            }
-
-            LocalDateTime debut = LocalDateTime.of(
-                    dpDebut.getValue(),
-                    LocalTime.of(spDebutH.getValue(), spDebutM.getValue())
-            );
-
-            LocalDateTime fin = LocalDateTime.of(
-                    dpFin.getValue(),
-                    LocalTime.of(spFinH.getValue(), spFinM.getValue())
-            );
-
-            if (!fin.isAfter(debut)) {
-                showError("❌ Fin doit être après début.");
-                return;
-            }
-
-            Programme p = new Programme(idEvent, titre, debut, fin);
-            programmeService.add(p);
-
-            showSuccess("✅ Programme ajouté ! ID=" + p.getIdProg());
-
-            txtTitre.clear();
-            dpDebut.setValue(LocalDate.now());
-            dpFin.setValue(LocalDate.now());
-
-        } catch (SQLException ex) {
-            showError("❌ Erreur DB (insert programme)");
-            ex.printStackTrace();
+        String titre = safe(txtTitre.getText());
+
+        LocalDateTime debut = dpDebut.getValue() == null ? null : LocalDateTime.of(
+                dpDebut.getValue(),
+                LocalTime.of(spDebutH.getValue(), spDebutM.getValue())
+        );
+
+        LocalDateTime fin = dpFin.getValue() == null ? null : LocalDateTime.of(
+                dpFin.getValue(),
+                LocalTime.of(spFinH.getValue(), spFinM.getValue())
+        );
+
+        Programme p = new Programme(idEvent, titre, debut, fin);
+        String erreur = EvenementValidator.verifier(p);
+        if (erreur != null) {
+            showError("❌ " + erreur);
+            return;
         }
+        if (evenement == null) {
+            showError("❌ Événement introuvable");
+            return;
+        }
+
+        // ✅ bornes de l'événement + chevauchements vérifiés sur l'index du planning avant l'insert
+        Async.runOnFx(() -> planning.ajouter(evenement, p),
+                () -> {
+                    showSuccess("✅ Programme ajouté ! ID=" + p.getIdProg());
+
+                    txtTitre.clear();
+                    dpDebut.setValue(LocalDate.now());
+                    dpFin.setValue(LocalDate.now());
+                },
+                ex -> {
+                    if (ex instanceof ProgrammeConflictException) {
+                        showError("❌ " + ex.getMessage());
+                        return;
+                    }
+                    showError("❌ Erreur DB (insert programme)");
+                    ex.printStackTrace();
+                });
     }
 
     @FXML
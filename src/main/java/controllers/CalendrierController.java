@@ -0,0 +1,272 @@
+package controllers;
+
+import entities.Evenement;
+import interfaces.IEvenementService;
+import javafx.fxml.FXML;
+import javafx.geometry.HPos;
+import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.VBox;
+import services.ChangeBus;
+import services.EvenementCacheService;
+import utils.Async;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Calendrier mois / semaine. Chaque page ne demande au service que les jours visibles
+ * ({@link IEvenementService#calendrier}, servi par l'index des jours du cache) ; les 42 cellules
+ * de jour sont créées une fois puis ré-associées à d'autres dates en changeant de page.
+ */
+public class CalendrierController {
+
+    private static final Locale FR = Locale.FRENCH;
+    private static final DateTimeFormatter MOIS = DateTimeFormatter.ofPattern("MMMM yyyy", FR);
+    private static final DateTimeFormatter JOUR = DateTimeFormatter.ofPattern("d MMM yyyy", FR);
+    private static final DateTimeFormatter HEURE = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final int SEMAINES = 6;
+    private static final int MAX_LIGNES_MOIS = 3;
+    private static final int MAX_LIGNES_SEMAINE = 12;
+
+    private enum Vue { MOIS, SEMAINE }
+
+    @FXML private GridPane grid;
+    @FXML private Label lblPeriode;
+    @FXML private Label lblMsg;
+    @FXML private ToggleButton tgMois;
+    @FXML private ToggleButton tgSemaine;
+
+    private IEvenementService service;
+
+    // ✅ une page remplace la requête de la précédente (navigation rapide)
+    private final Async.Latest<Map<LocalDate, List<Evenement>>> query = new Async.Latest<>();
+
+    private final DayCell[] cells = new DayCell[SEMAINES * 7];
+    private Vue vue = Vue.MOIS;
+    private LocalDate ancre = LocalDate.now();
+
+    @FXML
+    public void initialize() {
+        ToggleGroup g = new ToggleGroup();
+        tgMois.setToggleGroup(g);
+        tgSemaine.setToggleGroup(g);
+
+        initGrid();
+        try {
+            service = EvenementCacheService.getInstance(); // ✅ cache partagé entre écrans
+            // ✅ un événement écrit (ici ou ailleurs) : la période affichée est relue depuis le cache
+            new ChangeQueue(grid, changes -> {
+                if (changes.stream().anyMatch(c -> c.entite() == ChangeBus.Entite.EVENEMENT)) afficher();
+            });
+            afficher();
+        } catch (SQLException e) {
+            lblMsg.setText("❌ Erreur connexion DB");
+            e.printStackTrace();
+        }
+    }
+
+    private void initGrid() {
+        for (int c = 0; c < 7; c++) {
+            ColumnConstraints cc = new ColumnConstraints();
+            cc.setPercentWidth(100.0 / 7);
+            cc.setHalignment(HPos.CENTER);
+            grid.getColumnConstraints().add(cc);
+
+            Label head = new Label(DayOfWeek.of(c + 1).getDisplayName(TextStyle.SHORT, FR));
+            head.getStyleClass().add("cal-head");
+            grid.add(head, c, 0);
+        }
+        grid.getRowConstraints().add(new RowConstraints());
+
+        for (int r = 0; r < SEMAINES; r++) {
+            RowConstraints rc = new RowConstraints();
+            rc.setVgrow(Priority.ALWAYS);
+            grid.getRowConstraints().add(rc);
+            for (int c = 0; c < 7; c++) {
+                DayCell cell = new DayCell();
+                cells[r * 7 + c] = cell;
+                grid.add(cell, c, r + 1);
+            }
+        }
+    }
+
+    // ===== navigation =====
+
+    @FXML
+    private void onPrecedent() {
+        ancre = (vue == Vue.MOIS) ? ancre.minusMonths(1) : ancre.minusWeeks(1);
+        afficher();
+    }
+
+    @FXML
+    private void onSuivant() {
+        ancre = (vue == Vue.MOIS) ? ancre.plusMonths(1) : ancre.plusWeeks(1);
+        afficher();
+    }
+
+    @FXML
+    private void onAujourdhui() {
+        ancre = LocalDate.now();
+        afficher();
+    }
+
+    @FXML
+    private void onMois() {
+        tgMois.setSelected(true);
+        vue = Vue.MOIS;
+        afficher();
+    }
+
+    @FXML
+    private void onSemaine() {
+        tgSemaine.setSelected(true);
+        vue = Vue.SEMAINE;
+        afficher();
+    }
+
+    @FXML
+    private void onRetour() {
+        SceneUtil.switchTo("/ListeEvenements.fxml", "Liste des Événements");
+    }
+
+    // ===== rendu =====
+
+    /** Positionne les cellules sur la période puis charge ses seuls jours. */
+    private void afficher() {
+        LocalDate debut;
+        int semaines;
+        if (vue == Vue.MOIS) {
+            debut = ancre.withDayOfMonth(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            semaines = SEMAINES;
+            lblPeriode.setText(ancre.format(MOIS));
+        } else {
+            debut = ancre.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            semaines = 1;
+            lblPeriode.setText(debut.format(JOUR) + " – " + debut.plusDays(6).format(JOUR));
+        }
+        LocalDate fin = debut.plusDays(semaines * 7L - 1);
+        int maxLignes = (vue == Vue.MOIS) ? MAX_LIGNES_MOIS : MAX_LIGNES_SEMAINE;
+        LocalDate today = LocalDate.now();
+
+        // dates affichées tout de suite, événements à l'arrivée de la réponse
+        for (int i = 0; i < cells.length; i++) {
+            boolean visible = i < semaines * 7;
+            cells[i].setVisible(visible);
+            cells[i].setManaged(visible);
+            if (visible) {
+                LocalDate d = debut.plusDays(i);
+                boolean horsMois = vue == Vue.MOIS && d.getMonth() != ancre.getMonth();
+                cells[i].setJour(d, horsMois, d.equals(today), maxLignes);
+            }
+        }
+
+        query.submit(() -> service.calendrier(debut, fin),
+                jours -> {
+                    int n = 0;
+                    for (int i = 0; i < semaines * 7; i++) {
+                        List<Evenement> l = jours.getOrDefault(cells[i].jour, List.of());
+                        cells[i].setEvenements(l);
+                        n += l.size();
+                    }
+                    lblMsg.setText(n == 0 ? "Aucun événement sur la période" : "✅ " + jours.size() + " jour(s) occupé(s)");
+                },
+                err -> {
+                    lblMsg.setText("❌ Erreur chargement calendrier");
+                    err.printStackTrace();
+                });
+    }
+
+    private static void ouvrir(Evenement e) {
+        SceneUtil.switchToWithData("/DetailsEvenement.fxml", "Détails Événement", e.getIdEvent());
+    }
+
+    /** Cellule d'un jour : numéro + lignes d'événements (nœuds recyclés) + "+N". */
+    private static final class DayCell extends VBox {
+
+        private final Label numero = new Label();
+        private final Label[] lignes = new Label[MAX_LIGNES_SEMAINE];
+        private final Evenement[] events = new Evenement[MAX_LIGNES_SEMAINE];
+        private final Label plus = new Label();
+
+        private LocalDate jour;
+        private int maxLignes = MAX_LIGNES_MOIS;
+
+        DayCell() {
+            super(2);
+            getStyleClass().add("cal-day");
+            setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+            numero.getStyleClass().add("cal-num");
+            plus.getStyleClass().add("cal-more");
+            getChildren().add(numero);
+
+            for (int i = 0; i < lignes.length; i++) {
+                int k = i;
+                Label l = new Label();
+                l.getStyleClass().add("cal-event");
+                l.setMaxWidth(Double.MAX_VALUE);
+                l.setOnMouseClicked(ev -> {
+                    if (events[k] != null) ouvrir(events[k]);
+                });
+                lignes[i] = l;
+                getChildren().add(l);
+            }
+            getChildren().add(plus);
+        }
+
+        void setJour(LocalDate d, boolean horsMois, boolean aujourdhui, int max) {
+            jour = d;
+            maxLignes = max;
+            numero.setText(String.valueOf(d.getDayOfMonth()));
+            toggle("cal-day-out", horsMois);
+            toggle("cal-today", aujourdhui);
+            setEvenements(List.of());
+        }
+
+        void setEvenements(List<Evenement> list) {
+            int shown = Math.min(list.size(), maxLignes);
+            for (int i = 0; i < lignes.length; i++) {
+                Label l = lignes[i];
+                boolean used = i < shown;
+                events[i] = used ? list.get(i) : null;
+                l.setVisible(used);
+                l.setManaged(used);
+                if (used) l.setText(libelle(list.get(i)));
+            }
+            int reste = list.size() - shown;
+            plus.setText(reste > 0 ? "+" + reste + " autre(s)" : "");
+            plus.setVisible(reste > 0);
+            plus.setManaged(reste > 0);
+        }
+
+        // heure si l'événement commence ce jour, sinon suite d'un séjour
+        private String libelle(Evenement e) {
+            String titre = e.getTitre() == null ? "" : e.getTitre();
+            if (e.getDateDebut().toLocalDate().equals(jour)) {
+                return e.getDateDebut().format(HEURE) + " " + titre;
+            }
+            return "↔ " + titre;
+        }
+
+        private void toggle(String styleClass, boolean on) {
+            if (on) {
+                if (!getStyleClass().contains(styleClass)) getStyleClass().add(styleClass);
+            } else {
+                getStyleClass().remove(styleClass);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package controllers;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import services.ChangeBus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Abonnement d'un écran au {@link ChangeBus} : les changements arrivent sur n'importe quel
+ * thread et sont livrés par paquets sur le thread FX (un seul runLater par rafale).
+ * Désabonné automatiquement quand l'écran est quitté (la scène de {@code anchor} perd sa fenêtre).
+ */
+final class ChangeQueue {
+
+    private final Consumer<List<ChangeBus.Change>> onChanges;
+    private final ChangeBus.Subscription subscription;
+
+    private final List<ChangeBus.Change> pending = new ArrayList<>();
+    private boolean scheduled;
+    private volatile boolean closed;
+
+    ChangeQueue(Node anchor, Consumer<List<ChangeBus.Change>> onChanges) {
+        this.onChanges = onChanges;
+        this.subscription = ChangeBus.getInstance().subscribe(this::offer);
+
+        // SceneUtil remplace la scène du stage : l'ancienne n'a plus de fenêtre
+        anchor.sceneProperty().addListener((obs, oldScene, scene) -> {
+            if (scene == null) return;
+            scene.windowProperty().addListener((o, oldWindow, window) -> {
+                if (oldWindow != null && window == null) close();
+            });
+        });
+    }
+
+    private void offer(ChangeBus.Change c) {
+        if (closed) return;
+        synchronized (pending) {
+            pending.add(c);
+            if (scheduled) return;
+            scheduled = true;
+        }
+        Platform.runLater(this::drain);
+    }
+
+    private void drain() {
+        List<ChangeBus.Change> batch;
+        synchronized (pending) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            scheduled = false;
+        }
+        if (!closed && !batch.isEmpty()) onChanges.accept(batch);
+    }
+
+    void close() {
+        closed = true;
+        subscription.close();
+    }
+}
@@ -2,19 +2,27 @@ package controllers;
 
 import entities.Evenement;
 import entities.Programme;
+import interfaces.IEvenementService;
 import interfaces.DataReceiver;
+import interfaces.IProgrammeService;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
 import javafx.scene.layout.*;
-import services.EvenementService;
+import services.ChangeBus;
+import services.EvenementCacheService;
+import services.EvenementGraphLoader;
+import services.JournalStore;
+import services.ProgrammePlanning;
 import services.ProgrammeService;
+import utils.Async;
 
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -34,17 +42,25 @@ public class DetailsEvenementController implements DataReceiver<Integer> {
     // ✅ conteneur planning (VBox dans ScrollPane)
     @FXML private VBox progContainer;
 
-    private EvenementService evenementService;
-    private ProgrammeService programmeService;
+    private IEvenementService evenementService;
+    private IProgrammeService programmeService;
+    private EvenementGraphLoader graphLoader;
 
     private int eventId;
     private Evenement event;
 
+    // ✅ programmes affichés, dans l'ordre des lignes de progContainer (mises à jour ligne par ligne)
+    private final List<Programme> affiches = new ArrayList<>();
+    private static final Comparator<Programme> PAR_DEBUT = Comparator.comparing(
+            p -> p.getDebut() == null ? LocalDateTime.MAX : p.getDebut());
+
     @FXML
     public void initialize() {
         try {
-            evenementService = new EvenementService();
-            programmeService = new ProgrammeService();
+            evenementService = EvenementCacheService.getInstance();
+            programmeService = JournalStore.wrap(new ProgrammeService());
+            graphLoader = new EvenementGraphLoader(evenementService, programmeService);
+            new ChangeQueue(progContainer, this::onChanges);
         } catch (SQLException e) {
             showError("Erreur connexion DB");
             e.printStackTrace();
@@ -61,59 +77,124 @@ public class DetailsEvenementController implements DataReceiver<Integer> {
         this.eventId = id;
 
         loadDetails();
-        loadProgrammes();
     }
 
     private void loadDetails() {
-        try {
-            event = evenementService.getOneById(eventId);
+        // ✅ événement + planning en une tâche (événement servi par le cache)
+        Async.onFx(() -> graphLoader.getOne(eventId),
+                g -> {
+                    if (g == null || g.evenement() == null) {
+                        showError("Événement introuvable");
+                        return;
+                    }
+
+                    showEvenement(g.evenement());
+                    showProgrammes(parDebut(g.programmes()));
+                },
+                err -> {
+                    showError("Erreur chargement détails");
+                    err.printStackTrace();
+                });
+    }
 
-            if (event == null) {
-                showError("Événement introuvable");
-                return;
-            }
+    private void showEvenement(Evenement e) {
+        event = e;
+        lblTitre.setText(nullSafe(e.getTitre()));
+        lblType.setText(nullSafe(e.getType()));
+        lblLieu.setText(nullSafe(e.getLieu()));
+        lblDebut.setText(e.getDateDebut() == null ? "" : e.getDateDebut().format(F));
+        lblFin.setText(e.getDateFin() == null ? "—" : e.getDateFin().format(F));
+        lblDescription.setText(nullSafe(e.getDescription()));
+    }
 
-            lblTitre.setText(nullSafe(event.getTitre()));
-            lblType.setText(nullSafe(event.getType()));
-            lblLieu.setText(nullSafe(event.getLieu()));
-            lblDebut.setText(event.getDateDebut() == null ? "" : event.getDateDebut().format(F));
-            lblFin.setText(event.getDateFin() == null ? "—" : event.getDateFin().format(F));
-            lblDescription.setText(nullSafe(event.getDescription()));
+    private static List<Programme> parDebut(List<Programme> list) {
+        return list.stream().sorted(PAR_DEBUT).toList();
+    }
 
-        } catch (SQLException e) {
-            showError("Erreur chargement détails");
-            e.printStackTrace();
+    private void showProgrammes(List<Programme> list) {
+        affiches.clear();
+        affiches.addAll(list);
+        progContainer.getChildren().clear();
+        for (Programme p : list) {
+            progContainer.getChildren().add(createProgrammeRow(p));
         }
+        showCount();
     }
 
-    private void loadProgrammes() {
-        try {
-            List<Programme> list = programmeService.getByEventId(eventId);
-
-            // ✅ tri chrono (planning)
-            list = list.stream()
-                    .sorted(Comparator.comparing(
-                            p -> p.getDebut() == null ? LocalDateTime.MAX : p.getDebut()
-                    ))
-                    .toList();
+    private void showCount() {
+        if (affiches.isEmpty()) lblMsg.setText("ℹ️ Aucun programme pour cet événement");
+        else lblMsg.setText("✅ " + affiches.size() + " programme(s)");
+    }
 
-            progContainer.getChildren().clear();
+    // ===== changements (cet écran, autre écran, autre instance) : ligne par ligne =====
 
-            if (list.isEmpty()) {
-                lblMsg.setText("ℹ️ Aucun programme pour cet événement");
-                return;
+    private void onChanges(List<ChangeBus.Change> changes) {
+        for (ChangeBus.Change c : changes) {
+            if (c.entite() == ChangeBus.Entite.EVENEMENT) {
+                if (c.id() == eventId) onEvenementChange(c);
+                continue;
             }
-
-            for (Programme p : list) {
-                progContainer.getChildren().add(createProgrammeRow(p));
+            if (c.eventId() != eventId && indexOf(c.id()) < 0) continue;
+
+            if (c.op() == ChangeBus.Op.SUPPRESSION) {
+                retirerProgramme(c.id());
+            } else if (c.programme() != null) {
+                placerProgramme(c.id(), c.programme());
+            } else {
+                Async.onFx(() -> programmeService.getOneById(c.id()),
+                        p -> placerProgramme(c.id(), p),
+                        Throwable::printStackTrace);
             }
+        }
+    }
 
-            lblMsg.setText("✅ " + list.size() + " programme(s)");
+    private void onEvenementChange(ChangeBus.Change c) {
+        if (c.evenement() != null) {
+            showEvenement(c.evenement());
+            return;
+        }
+        // relu : suppression, changement distant, ou id provisoire (journal local) devenu définitif
+        Async.onFx(() -> evenementService.getOneById(eventId),
+                e -> {
+                    if (e == null) {
+                        event = null;
+                        showProgrammes(List.of());
+                        showError("Événement supprimé");
+                        return;
+                    }
+                    eventId = e.getIdEvent();
+                    showEvenement(e);
+                },
+                Throwable::printStackTrace);
+    }
 
-        } catch (SQLException e) {
-            showError("Erreur chargement programmes");
-            e.printStackTrace();
+    private void placerProgramme(int id, Programme p) {
+        retirerProgramme(id);
+        if (p == null || p.getEventId() != eventId) {
+            showCount();
+            return;
+        }
+
+        int at = 0;
+        while (at < affiches.size() && PAR_DEBUT.compare(affiches.get(at), p) <= 0) at++;
+        affiches.add(at, p);
+        progContainer.getChildren().add(at, createProgrammeRow(p));
+        showCount();
+    }
+
+    private void retirerProgramme(int id) {
+        int at = indexOf(id);
+        if (at < 0) return;
+        affiches.remove(at);
+        progContainer.getChildren().remove(at);
+        showCount();
+    }
+
+    private int indexOf(int idProg) {
+        for (int i = 0; i < affiches.size(); i++) {
+            if (affiches.get(i).getIdProg() == idProg) return i;
         }
+        return -1;
     }
 
     /** ✅ Une ligne planning : [heure] | [carte avec barre colorée] */
@@ -177,14 +258,13 @@ public class DetailsEvenementController implements DataReceiver<Integer> {
 
         a.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    programmeService.delete(p.getIdProg());
-                    lblMsg.setText("✅ Programme supprimé");
-                    loadProgrammes();
-                } catch (SQLException e) {
-                    showError("Erreur suppression");
-                    e.printStackTrace();
-                }
+                // la ligne est retirée par la notification de suppression (onChanges)
+                Async.runOnFx(() -> ProgrammePlanning.getInstance().supprimer(p),
+                        () -> lblMsg.setText("✅ Programme supprimé"),
+                        err -> {
+                            showError("Erreur suppression");
+                            err.printStackTrace();
+                        });
             }
         });
     }
@@ -0,0 +1,313 @@
+package controllers;
+
+import entities.Evenement;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Grille de cartes virtualisée : un ListView dont chaque ligne contient {@code columns} cartes.
+ * <p>
+ * Seules les lignes visibles ont des cellules ; en scrollant, les cellules (et leurs cartes)
+ * sont recyclées et simplement ré-associées à un autre événement. Le nombre de nœuds reste
+ * donc constant quelle que soit la taille de la liste.
+ * <p>
+ * La grille suit une liste observable ({@link EventListModel#view()}) : un changement ne reconstruit
+ * que les lignes à partir du premier indice touché, et une carte reste attachée à son événement
+ * (par idEvent) quand il change de ligne (tri, insertion) : pas de nouveau nœud ni d'image rechargée.
+ */
+public class EventGrid {
+
+    public static final double CARD_WIDTH = 220;
+    public static final double HGAP = 20;
+
+    private final ListView<List<Evenement>> view;
+
+    private ObservableList<Evenement> items = FXCollections.emptyObservableList();
+    private final ListChangeListener<Evenement> itemsListener = this::onItemsChanged;
+    private int columns = 1;
+
+    private BiConsumer<ImageView, Evenement> imageLoader = (img, e) -> { };
+    private Consumer<Evenement> onSelect = e -> { };
+    private Consumer<Evenement> onOpen = e -> { };
+
+    // ✅ sélection (par id : la carte sélectionnée peut être recyclée)
+    private Evenement selected;
+    private Card selectedCard;
+
+    // ✅ cartes liées par idEvent ; une carte retirée d'une ligne peut être reprise par une autre
+    // dans la même passe, sinon elle retourne au stock (libres)
+    private final Map<Integer, Card> cardsById = new HashMap<>();
+    private final Deque<Card> libres = new ArrayDeque<>();
+    private final Set<Card> orphelines = new LinkedHashSet<>();
+    private boolean nettoyagePrevu;
+
+    public EventGrid(ListView<List<Evenement>> view) {
+        this.view = view;
+        view.getStyleClass().add("event-grid");
+        view.setFocusTraversable(false);
+        view.setCellFactory(lv -> new RowCell());
+
+        view.widthProperty().addListener((obs, oldW, newW) -> {
+            int c = columnsFor(newW.doubleValue());
+            if (c != columns) {
+                columns = c;
+                rechunk();
+            }
+        });
+    }
+
+    public void setImageLoader(BiConsumer<ImageView, Evenement> imageLoader) {
+        this.imageLoader = Objects.requireNonNull(imageLoader);
+    }
+
+    public void setOnSelect(Consumer<Evenement> onSelect) {
+        this.onSelect = Objects.requireNonNull(onSelect);
+    }
+
+    public void setOnOpen(Consumer<Evenement> onOpen) {
+        this.onOpen = Objects.requireNonNull(onOpen);
+    }
+
+    /** Liste affichée ; ses changements sont suivis jusqu'au prochain appel. */
+    public void setItems(ObservableList<Evenement> list) {
+        items.removeListener(itemsListener);
+        items = (list == null) ? FXCollections.emptyObservableList() : list;
+        items.addListener(itemsListener);
+        rechunk();
+    }
+
+    public List<Evenement> getItems() {
+        return items;
+    }
+
+    public void scrollToTop() {
+        if (!view.getItems().isEmpty()) view.scrollTo(0);
+    }
+
+    public Evenement getSelected() {
+        return selected;
+    }
+
+    public void clearSelection() {
+        selected = null;
+        if (selectedCard != null) {
+            selectedCard.setSelected(false);
+            selectedCard = null;
+        }
+    }
+
+    private int columnsFor(double width) {
+        Insets in = view.getInsets();
+        double usable = width - in.getLeft() - in.getRight() - 30; // marge scrollbar + padding cellule
+        return Math.max(1, (int) ((usable + HGAP) / (CARD_WIDTH + HGAP)));
+    }
+
+    /** Découpe toute la liste en lignes. */
+    private void rechunk() {
+        rebuildFrom(0);
+    }
+
+    /**
+     * Changement de la liste : mises à jour seules -> lignes concernées remplacées ;
+     * ajout / retrait / permutation -> lignes reconstruites à partir du premier indice touché.
+     */
+    private void onItemsChanged(ListChangeListener.Change<? extends Evenement> c) {
+        int from = Integer.MAX_VALUE;
+        int to = 0;
+        boolean enPlace = true;
+        while (c.next()) {
+            from = Math.min(from, c.getFrom());
+            to = Math.max(to, c.getTo());
+            if (c.wasPermutated() || c.getAddedSize() != c.getRemovedSize()) enPlace = false;
+        }
+        if (from == Integer.MAX_VALUE) return;
+
+        if (enPlace) {
+            ObservableList<List<Evenement>> rows = view.getItems();
+            for (int r = from / columns; r <= (Math.max(to, from + 1) - 1) / columns && r < rows.size(); r++) {
+                rows.set(r, row(r));
+            }
+        } else {
+            rebuildFrom(from);
+        }
+
+        // l'événement sélectionné a disparu (filtre, suppression)
+        if (selected != null && items.stream().noneMatch(e -> e.getIdEvent() == selected.getIdEvent())) {
+            clearSelection();
+        }
+    }
+
+    /** Lignes à partir de l'indice {@code from} ; les précédentes ne bougent pas. */
+    private void rebuildFrom(int from) {
+        ObservableList<List<Evenement>> rows = view.getItems();
+        int fromRow = Math.min(from / columns, rows.size());
+        int rowCount = (items.size() + columns - 1) / columns;
+
+        List<List<Evenement>> tail = new ArrayList<>(Math.max(0, rowCount - fromRow));
+        for (int r = fromRow; r < rowCount; r++) tail.add(row(r));
+
+        if (fromRow == 0) {
+            rows.setAll(tail);
+        } else {
+            if (fromRow < rows.size()) rows.remove(fromRow, rows.size());
+            rows.addAll(tail);
+        }
+    }
+
+    // copie (quelques cartes) : la ligne ne dépend pas des modifications suivantes de la liste
+    private List<Evenement> row(int r) {
+        return List.copyOf(items.subList(r * columns, Math.min((r + 1) * columns, items.size())));
+    }
+
+    private void select(Card card) {
+        if (selectedCard != null) selectedCard.setSelected(false);
+        selectedCard = card;
+        selected = card.event;
+        card.setSelected(true);
+        onSelect.accept(card.event);
+    }
+
+    // ===== cartes par événement =====
+
+    private Card carte(Evenement e) {
+        Card c = cardsById.get(e.getIdEvent());
+        if (c == null) c = libre();
+        orphelines.remove(c);
+        c.bind(e);
+        return c;
+    }
+
+    // stock, sinon une orpheline déjà détachée (son événement a quitté l'écran), sinon une nouvelle carte
+    private Card libre() {
+        if (!libres.isEmpty()) return libres.pop();
+        for (Iterator<Card> it = orphelines.iterator(); it.hasNext(); ) {
+            Card o = it.next();
+            if (o.getParent() != null) continue;
+            it.remove();
+            o.unbind();
+            return o;
+        }
+        return new Card();
+    }
+
+    /** Carte retirée d'une ligne : libérée après la passe si aucune autre ligne ne l'a reprise. */
+    private void orpheline(Card c) {
+        orphelines.add(c);
+        if (nettoyagePrevu) return;
+        nettoyagePrevu = true;
+        Platform.runLater(() -> {
+            nettoyagePrevu = false;
+            for (Card o : orphelines) {
+                if (o.getParent() != null) continue;
+                o.unbind();
+                libres.push(o);
+            }
+            orphelines.clear();
+        });
+    }
+
+    // ===== cellules recyclées =====
+
+    private final class RowCell extends ListCell<List<Evenement>> {
+        private final HBox row = new HBox(HGAP);
+
+        RowCell() {
+            row.setPadding(new Insets(10, 10, 10, 10));
+            setText(null);
+        }
+
+        @Override
+        protected void updateItem(List<Evenement> rowItems, boolean empty) {
+            super.updateItem(rowItems, empty);
+
+            List<Card> next = new ArrayList<>();
+            if (!empty && rowItems != null) {
+                for (Evenement e : rowItems) next.add(carte(e));
+            }
+            for (Node n : row.getChildren()) {
+                if (n instanceof Card c && !next.contains(c)) orpheline(c);
+            }
+            // une carte encore dans une autre ligne en est retirée par JavaFX (un seul parent)
+            row.getChildren().setAll(next);
+            setGraphic(next.isEmpty() ? null : row);
+        }
+    }
+
+    private final class Card extends VBox {
+        private final ImageView img = new ImageView();
+        private final Label title = new Label();
+        private Evenement event;
+
+        Card() {
+            super(10);
+            img.setFitWidth(200);
+            img.setFitHeight(150);
+            img.setPreserveRatio(true);
+            title.getStyleClass().add("subtitle");
+
+            getChildren().addAll(img, title);
+            getStyleClass().add("event-card");
+            setPrefWidth(CARD_WIDTH);
+            setMinWidth(CARD_WIDTH);
+
+            // ✅ un seul handler click, lit l'événement courant de la carte
+            setOnMouseClicked(ev -> {
+                if (event == null) return;
+                if (ev.getClickCount() == 2) onOpen.accept(event);
+                else select(this);
+            });
+        }
+
+        void bind(Evenement e) {
+            if (event != null && event.getIdEvent() != e.getIdEvent()) cardsById.remove(event.getIdEvent(), this);
+            boolean sameImage = event != null && Objects.equals(event.getImage(), e.getImage())
+                    && img.getImage() != null;
+            event = e;
+            cardsById.put(e.getIdEvent(), this);
+            title.setText(e.getTitre() == null ? "" : e.getTitre());
+            if (!sameImage) imageLoader.accept(img, e);
+
+            boolean isSelected = selected != null && selected.getIdEvent() == e.getIdEvent();
+            setSelected(isSelected);
+            if (isSelected) {
+                selectedCard = this;
+                selected = e; // version à jour (changement notifié)
+            } else if (selectedCard == this) selectedCard = null;
+        }
+
+        void unbind() {
+            if (event != null) cardsById.remove(event.getIdEvent(), this);
+            if (selectedCard == this) selectedCard = null;
+            setSelected(false);
+            event = null;
+        }
+
+        void setSelected(boolean on) {
+            getStyleClass().remove("event-card-selected");
+            if (on) getStyleClass().add("event-card-selected");
+        }
+    }
+}
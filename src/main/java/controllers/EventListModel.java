@@ -0,0 +1,230 @@
+package controllers;
+
+import entities.Evenement;
+import javafx.collections.FXCollections;
+import javafx.collections.ModifiableObservableListBase;
+import javafx.collections.ObservableList;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Liste d'événements affichée par {@link EventGrid} : une source (résultat de la dernière requête),
+ * un filtre et un tri. La vue ({@link #view()}) n'est jamais remplacée : chaque changement de source,
+ * de filtre ou de tri calcule l'écart avec la vue courante (par idEvent) et ne lui applique que les
+ * retraits, insertions et mises à jour nécessaires, en un seul changement. La grille ne touche donc
+ * qu'aux cartes concernées ; les autres restent liées à leur événement.
+ * <p>
+ * Tri null : ordre de la source (pertinence d'une recherche), les nouveaux événements à la fin.
+ */
+final class EventListModel {
+
+    private List<Evenement> source = new ArrayList<>();
+    private Predicate<Evenement> visible = e -> true;
+    private Comparator<Evenement> ordre;
+
+    private final Vue vue = new Vue();
+    private final ObservableList<Evenement> lectureSeule = FXCollections.unmodifiableObservableList(vue);
+
+    ObservableList<Evenement> view() {
+        return lectureSeule;
+    }
+
+    int size() {
+        return vue.size();
+    }
+
+    /** Nouvelle source, avec son filtre et son tri (null = ordre de la source). */
+    void setAll(List<Evenement> list, Predicate<Evenement> visible, Comparator<Evenement> ordre) {
+        this.source = new ArrayList<>(list);
+        this.visible = (visible == null) ? e -> true : visible;
+        this.ordre = ordre;
+        appliquer();
+    }
+
+    // ✅ affinage sur la même source (ex. saisie qui prolonge la recherche) : pas de requête
+    void setPredicate(Predicate<Evenement> visible) {
+        this.visible = (visible == null) ? e -> true : visible;
+        appliquer();
+    }
+
+    void setComparator(Comparator<Evenement> ordre) {
+        this.ordre = ordre;
+        appliquer();
+    }
+
+    /** Ajout ou mise à jour d'un événement (changement notifié) : retiré de la vue s'il n'est plus visible. */
+    void put(Evenement e) {
+        int s = indexOf(source, e.getIdEvent());
+        if (s >= 0) source.set(s, e);
+        else source.add(e);
+
+        int i = indexOf(vue, e.getIdEvent());
+        if (!visible.test(e)) {
+            if (i >= 0) vue.remove(i);
+            return;
+        }
+        if (i >= 0 && (ordre == null || aSaPlace(i, e))) {
+            if (!memeContenu(vue.get(i), e)) vue.set(i, e);
+            return;
+        }
+        vue.batch(() -> {
+            if (i >= 0) vue.remove(i);
+            vue.add(ordre == null ? vue.size() : insertionPoint(e), e);
+        });
+    }
+
+    boolean remove(int id) {
+        int s = indexOf(source, id);
+        if (s >= 0) source.remove(s);
+        int i = indexOf(vue, id);
+        if (i < 0) return false;
+        vue.remove(i);
+        return true;
+    }
+
+    // ===================== écart vue courante -> cible =====================
+
+    private void appliquer() {
+        List<Evenement> cible = new ArrayList<>(source.size());
+        for (Evenement e : source) if (visible.test(e)) cible.add(e);
+        if (ordre != null) cible.sort(ordre);
+        vue.batch(() -> diff(cible));
+    }
+
+    /**
+     * Retire ce qui n'est plus dans la cible, puis ce qui a changé de position relative (hors plus
+     * longue sous-suite déjà dans le bon ordre), et réinsère / met à jour en un parcours.
+     */
+    private void diff(List<Evenement> cible) {
+        Map<Integer, Integer> rang = new HashMap<>(cible.size() * 2);
+        for (int k = 0; k < cible.size(); k++) rang.put(cible.get(k).getIdEvent(), k);
+
+        // 1) absents de la cible (par plages, de la fin vers le début)
+        for (int i = vue.size() - 1; i >= 0; ) {
+            if (rang.containsKey(vue.get(i).getIdEvent())) {
+                i--;
+                continue;
+            }
+            int fin = i + 1;
+            while (i >= 0 && !rang.containsKey(vue.get(i).getIdEvent())) i--;
+            vue.remove(i + 1, fin);
+        }
+
+        // 2) déplacés : ceux hors de la plus longue sous-suite croissante des rangs
+        int n = vue.size();
+        int[] rangs = new int[n];
+        for (int i = 0; i < n; i++) rangs[i] = rang.get(vue.get(i).getIdEvent());
+        boolean[] garde = plusLongueSousSuite(rangs);
+        for (int i = n - 1; i >= 0; i--) {
+            if (!garde[i]) vue.remove(i);
+        }
+
+        // 3) fusion : vue (sous-suite ordonnée de la cible) + insertions + mises à jour
+        int j = 0;
+        for (Evenement e : cible) {
+            if (j < vue.size() && vue.get(j).getIdEvent() == e.getIdEvent()) {
+                if (!memeContenu(vue.get(j), e)) vue.set(j, e);
+            } else {
+                vue.add(j, e);
+            }
+            j++;
+        }
+    }
+
+    /** Marque une plus longue sous-suite strictement croissante (patience sorting, O(n log n)). */
+    static boolean[] plusLongueSousSuite(int[] a) {
+        int n = a.length;
+        int[] tetes = new int[n];   // indice de la fin de la meilleure sous-suite de longueur k+1
+        int[] precedent = new int[n];
+        int longueur = 0;
+        for (int i = 0; i < n; i++) {
+            int lo = 0, hi = longueur;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[tetes[mid]] < a[i]) lo = mid + 1;
+                else hi = mid;
+            }
+            precedent[i] = lo > 0 ? tetes[lo - 1] : -1;
+            tetes[lo] = i;
+            if (lo == longueur) longueur++;
+        }
+        boolean[] garde = new boolean[n];
+        for (int i = longueur > 0 ? tetes[longueur - 1] : -1; i >= 0; i = precedent[i]) garde[i] = true;
+        return garde;
+    }
+
+    private boolean aSaPlace(int i, Evenement e) {
+        return (i == 0 || ordre.compare(vue.get(i - 1), e) <= 0)
+                && (i == vue.size() - 1 || ordre.compare(e, vue.get(i + 1)) <= 0);
+    }
+
+    // après les égaux : un événement modifié ne passe pas devant ses ex æquo
+    private int insertionPoint(Evenement e) {
+        int lo = 0, hi = vue.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ordre.compare(vue.get(mid), e) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int indexOf(List<Evenement> list, int id) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getIdEvent() == id) return i;
+        }
+        return -1;
+    }
+
+    // champs affichés ou utilisés par le filtre / tri : sinon la carte garde l'objet courant
+    static boolean memeContenu(Evenement a, Evenement b) {
+        return a == b || (a.getIdEvent() == b.getIdEvent()
+                && Objects.equals(a.getTitre(), b.getTitre())
+                && Objects.equals(a.getDescription(), b.getDescription())
+                && Objects.equals(a.getType(), b.getType())
+                && Objects.equals(a.getDateDebut(), b.getDateDebut())
+                && Objects.equals(a.getDateFin(), b.getDateFin())
+                && Objects.equals(a.getLieu(), b.getLieu())
+                && Objects.equals(a.getImage(), b.getImage()));
+    }
+
+    /** Liste observable dont une série de modifications produit un seul changement. */
+    private static final class Vue extends ModifiableObservableListBase<Evenement> {
+        private final ArrayList<Evenement> data = new ArrayList<>();
+
+        void batch(Runnable edits) {
+            beginChange();
+            try {
+                edits.run();
+            } finally {
+                endChange();
+            }
+        }
+
+        @Override
+        public Evenement get(int index) {
+            return data.get(index);
+        }
+
+        @Override
+        public int size() {
+            return data.size();
+        }
+
+        @Override
+        protected void doAdd(int index, Evenement element) {
+            data.add(index, element);
+        }
+
+        @Override
+        protected Evenement doSet(int index, Evenement element) {
+            return data.set(index, element);
+        }
+
+        @Override
+        protected Evenement doRemove(int index) {
+            return data.remove(index);
+        }
+    }
+}
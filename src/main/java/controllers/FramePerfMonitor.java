@@ -0,0 +1,64 @@
+package controllers;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+import java.util.function.Supplier;
+
+/**
+ * Mesure légère : temps de frame (moyen / max) et nombre de nœuds sous une racine.
+ * Activé avec {@code -Dui.perf=true} ; affiche une ligne dans la console toutes les 2 s.
+ */
+public class FramePerfMonitor extends AnimationTimer {
+
+    private static final long REPORT_EVERY_NS = 2_000_000_000L;
+
+    private final Node root;
+    private final Supplier<String> context;
+
+    private long last;
+    private long windowStart;
+    private long frames;
+    private long sumNs;
+    private long maxNs;
+
+    public FramePerfMonitor(Node root, Supplier<String> context) {
+        this.root = root;
+        this.context = context;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("ui.perf");
+    }
+
+    @Override
+    public void handle(long now) {
+        if (last != 0) {
+            long dt = now - last;
+            frames++;
+            sumNs += dt;
+            maxNs = Math.max(maxNs, dt);
+        } else {
+            windowStart = now;
+        }
+        last = now;
+
+        if (now - windowStart >= REPORT_EVERY_NS && frames > 0) {
+            System.out.printf("🎞️ frame moy=%.2f ms max=%.2f ms | nœuds=%d | %s%n",
+                    sumNs / (double) frames / 1e6, maxNs / 1e6, countNodes(root), context.get());
+            windowStart = now;
+            frames = 0;
+            sumNs = 0;
+            maxNs = 0;
+        }
+    }
+
+    public static int countNodes(Node n) {
+        int count = 1;
+        if (n instanceof Parent p) {
+            for (Node child : p.getChildrenUnmodifiable()) count += countNodes(child);
+        }
+        return count;
+    }
+}
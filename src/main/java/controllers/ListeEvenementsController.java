@@ -1,43 +1,66 @@
 package controllers;
 
 import entities.Evenement;
+import entities.TypeEvenement;
+import interfaces.IEvenementService;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.FlowPane;
-import javafx.scene.layout.VBox;
-import services.EvenementService;
+import javafx.util.Duration;
+import services.ChangeBus;
+import services.EvenementCriteria;
+import services.EvenementSearchIndex;
+import services.EvenementCacheService;
+import utils.Async;
+import utils.EventImageLoader;
+import utils.TextNormalizer;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
+import java.util.function.Predicate;
 
 public class ListeEvenementsController {
 
     @FXML private TextField txtSearch;
     @FXML private Label lblMsg;
 
-    @FXML private FlowPane flowEvents;
+    // ✅ grille virtualisée (seules les lignes visibles sont construites)
+    @FXML private ListView<List<Evenement>> lvEvents;
+    private EventGrid grid;
 
-    @FXML private ComboBox<String> cbType;
+    // ✅ liste affichée : filtre / tri / changements appliqués par écart, cartes gardées par idEvent
+    private final EventListModel model = new EventListModel();
+
+    @FXML private ComboBox<TypeEvenement> cbType;
     @FXML private DatePicker dpFrom;
     @FXML private DatePicker dpTo;
     @FXML private ComboBox<String> cbSort;
 
-    private EvenementService service;
+    private IEvenementService service;
+
+    // ✅ requêtes DB hors thread FX : une nouvelle requête remplace la précédente
+    private final Async.Latest<List<Evenement>> query = new Async.Latest<>();
+
+    // ✅ recherche pendant la frappe : délai réglable avec -Dsearch.debounceMs
+    private static final long DEBOUNCE_MS = Long.getLong("search.debounceMs", 150);
+    private final PauseTransition searchDebounce = new PauseTransition(Duration.millis(DEBOUNCE_MS));
+    private String lastQuery; // recherche dont les résultats sont la source du modèle (affinage)
 
-    // ✅ sélection
-    private Evenement selectedEvent;
-    private VBox selectedCard;
+    // ✅ changements (cet écran, autre écran, autre instance) appliqués carte par carte
+    private static final int MAX_DIFF = 200; // au-delà (import en masse) : la vue est relue
+    private Runnable vueCourante = this::loadAll;
 
     @FXML
     public void initialize() {
+        initGrid();
         try {
-            service = new EvenementService();
+            service = EvenementCacheService.getInstance(); // ✅ cache partagé entre écrans
             initFiltresEtTri();
+            initLiveSearch();
+            new ChangeQueue(lvEvents, this::onChanges);
             loadAll();
         } catch (SQLException e) {
             lblMsg.setText("❌ Erreur connexion DB");
@@ -45,8 +68,21 @@ public class ListeEvenementsController {
         }
     }
 
+    private void initGrid() {
+        grid = new EventGrid(lvEvents);
+        grid.setItems(model.view());
+        grid.setImageLoader(this::loadEventImage);
+        grid.setOnSelect(this::selectEvent);
+        grid.setOnOpen(e ->
+                SceneUtil.switchToWithData("/DetailsEvenement.fxml", "Détails Événement", e.getIdEvent()));
+
+        if (FramePerfMonitor.enabled()) {
+            new FramePerfMonitor(lvEvents, () -> model.size() + " événement(s)").start();
+        }
+    }
+
     private void initFiltresEtTri() {
-        cbType.getItems().setAll("SOIREE", "RANDONNEE", "CAMPING", "SEJOUR");
+        cbType.getItems().setAll(TypeEvenement.values());
 
         cbSort.getItems().setAll(
                 "Titre (A→Z)",
@@ -61,77 +97,76 @@ public class ListeEvenementsController {
         cbSort.setValue(null);
     }
 
-    private void loadAll() {
-        try {
-            List<Evenement> list = service.getAll();
-            render(list);
-            lblMsg.setText("✅ " + list.size() + " événement(s)");
-        } catch (SQLException e) {
-            lblMsg.setText("❌ Erreur chargement événements");
-            e.printStackTrace();
-        }
+    private void initLiveSearch() {
+        searchDebounce.setOnFinished(ev -> onSearch());
+        txtSearch.textProperty().addListener((obs, oldV, newV) -> onSearchTextChanged(newV));
     }
 
-    private void render(List<Evenement> list) {
-        if (flowEvents == null) return;
-
-        flowEvents.getChildren().clear();
-        selectedEvent = null;
-
-        if (selectedCard != null) {
-            selectedCard.getStyleClass().remove("event-card-selected");
-            selectedCard = null;
+    /**
+     * Si la nouvelle saisie prolonge la précédente ("cam" -> "camp"), les résultats ne peuvent
+     * que se réduire : on filtre ceux de la dernière requête, sans requête (seules les cartes qui
+     * ne correspondent plus sont retirées). Sinon on attend la fin de la frappe (debounce) avant
+     * d'interroger le service.
+     */
+    private void onSearchTextChanged(String text) {
+        String q = text == null ? "" : text.trim();
+
+        if (lastQuery != null && !lastQuery.isEmpty()
+                && TextNormalizer.fold(q).startsWith(TextNormalizer.fold(lastQuery))) {
+            searchDebounce.stop();
+            query.cancel();
+            model.setPredicate(EvenementSearchIndex.matcher(q));
+            lastQuery = q;
+            lblMsg.setText("🔎 " + model.size() + " résultat(s)");
+            return;
         }
 
-        for (Evenement e : list) {
-            VBox card = createEventCard(e);
-            flowEvents.getChildren().add(card);
-        }
+        searchDebounce.playFromStart();
     }
 
-    private VBox createEventCard(Evenement e) {
-        ImageView img = new ImageView();
-        img.setFitWidth(200);
-        img.setFitHeight(150);
-        img.setPreserveRatio(true);
-
-        // ✅ charger l'image de l'event si existe
-        loadEventImage(img, e);
-
-        Label title = new Label(e.getTitre() == null ? "" : e.getTitre());
-        title.getStyleClass().add("subtitle");
-
-        VBox card = new VBox(10, img, title);
-        card.getStyleClass().add("event-card");
-        card.setPrefWidth(220);
-
-        // ✅ un seul handler click
-        card.setOnMouseClicked(ev -> {
-            if (ev.getClickCount() == 2) {
-                SceneUtil.switchToWithData("/DetailsEvenement.fxml", "Détails Événement", e.getIdEvent());
-            } else {
-                selectCard(card, e);
-            }
-        });
-
-        return card;
+    // ordre de pertinence (tri null) : une carte ajoutée ensuite va en fin
+    private void showSearchResults(String q, List<Evenement> list) {
+        render(list, EvenementSearchIndex.matcher(q), null, this::onSearch);
+        lastQuery = q;
+        lblMsg.setText("🔎 " + list.size() + " résultat(s)");
     }
 
-    private void selectCard(VBox card, Evenement e) {
-        selectedEvent = e;
-
-        if (selectedCard != null) {
-            selectedCard.getStyleClass().remove("event-card-selected");
-        }
+    private void loadAll() {
+        lblMsg.setText("⏳ Chargement...");
+        query.submit(service::getAll,
+                list -> {
+                    render(list, e -> true, new EvenementCriteria().comparator(), this::loadAll);
+                    lblMsg.setText("✅ " + list.size() + " événement(s)");
+                },
+                err -> {
+                    lblMsg.setText("❌ Erreur chargement événements");
+                    err.printStackTrace();
+                });
+    }
 
-        selectedCard = card;
-        selectedCard.getStyleClass().add("event-card-selected");
+    /**
+     * Nouvelle source pour la grille : seules les cartes qui entrent, sortent ou changent sont
+     * touchées. {@code visible} et {@code ordre} servent aussi aux changements notifiés ensuite ;
+     * {@code recharger} relit la vue quand ils sont trop nombreux.
+     */
+    private void render(List<Evenement> list, Predicate<Evenement> visible,
+                        Comparator<Evenement> ordre, Runnable recharger) {
+        if (grid == null) return;
+        model.setAll(list, visible, ordre);
+        grid.scrollToTop();
+        vueCourante = recharger;
+
+        // base d'affinage invalidée ; showSearchResults la repositionne juste après
+        lastQuery = null;
+    }
 
+    private void selectEvent(Evenement e) {
         lblMsg.setText("✅ Sélectionné: " + (e.getTitre() == null ? "" : e.getTitre()));
     }
 
     @FXML
     private void onSearch() {
+        searchDebounce.stop();
         String q = txtSearch.getText() == null ? "" : txtSearch.getText().trim();
 
         if (q.isEmpty()) {
@@ -139,83 +174,100 @@ public class ListeEvenementsController {
             return;
         }
 
-        try {
-            List<Evenement> list = service.search(q);
-            render(list);
-            lblMsg.setText("🔎 " + list.size() + " résultat(s)");
-        } catch (SQLException e) {
-            lblMsg.setText("❌ Erreur recherche");
-            e.printStackTrace();
-        }
+        query.submit(() -> service.search(q),
+                list -> showSearchResults(q, list),
+                err -> {
+                    lblMsg.setText("❌ Erreur recherche");
+                    err.printStackTrace();
+                });
     }
 
     @FXML
     private void onFiltrer() {
         String q = txtSearch.getText() == null ? "" : txtSearch.getText().trim();
-        String type = cbType.getValue();
+        TypeEvenement type = cbType.getValue();
         LocalDate from = dpFrom.getValue();
         LocalDate to = dpTo.getValue();
 
-        try {
-            List<Evenement> all = service.getAll();
-
-            List<Evenement> filtered = all.stream()
-                    .filter(e -> q.isEmpty()
-                            || containsIgnoreCase(e.getTitre(), q)
-                            || containsIgnoreCase(e.getDescription(), q)
-                            || containsIgnoreCase(e.getLieu(), q))
-                    .filter(e -> type == null || type.isBlank()
-                            || (e.getType() != null && e.getType().trim().equalsIgnoreCase(type.trim())))
-                    .filter(e -> {
-                        if (from == null && to == null) return true;
-                        if (e.getDateDebut() == null) return false;
-
-                        LocalDate d = e.getDateDebut().toLocalDate();
-                        boolean okFrom = (from == null) || !d.isBefore(from);
-                        boolean okTo = (to == null) || !d.isAfter(to);
-                        return okFrom && okTo;
-                    })
-                    .toList();
-
-            String choice = cbSort.getValue();
-            if (choice != null) {
-                filtered = sortList(filtered, choice);
-            }
-
-            render(filtered);
-            lblMsg.setText("🔎 " + filtered.size() + " résultat(s)");
-
-        } catch (SQLException ex) {
-            lblMsg.setText("❌ Erreur filtre");
-            ex.printStackTrace();
-        }
+        EvenementCriteria criteria = new EvenementCriteria()
+                .keyword(q)
+                .type(type)
+                .between(from, to)
+                .tri(triFor(cbSort.getValue()));
+
+        // ✅ filtre + tri faits par MySQL : seules les lignes retenues transitent
+        query.submit(() -> service.find(criteria),
+                filtered -> {
+                    // changements suivants : même règle que find (mot-clé par l'index de recherche)
+                    render(filtered, EvenementSearchIndex.matcher(q).and(criteria::matchesFilters),
+                            criteria.comparator(), this::onFiltrer);
+                    lblMsg.setText("🔎 " + filtered.size() + " résultat(s)");
+                },
+                err -> {
+                    lblMsg.setText("❌ Erreur filtre");
+                    err.printStackTrace();
+                });
     }
 
+    // ✅ changer le tri ne refait pas de requête : on retrie la liste affichée
+    // (les cartes déjà dans le bon ordre relatif ne bougent pas)
     @FXML
     private void onTrier() {
-        onFiltrer();
+        String choice = cbSort.getValue();
+        if (choice == null || model.size() == 0) return;
+        model.setComparator(new EvenementCriteria().tri(triFor(choice)).comparator());
+        grid.scrollToTop();
     }
 
-    private List<Evenement> sortList(List<Evenement> list, String choice) {
-        Comparator<Evenement> byTitre = Comparator.comparing(
-                e -> e.getTitre() == null ? "" : e.getTitre().toLowerCase()
-        );
+    // ✅ un paquet de changements : insertion / mise à jour / retrait de cartes, sans recharger la liste
+    private void onChanges(List<ChangeBus.Change> changes) {
+        List<ChangeBus.Change> evts = changes.stream()
+                .filter(c -> c.entite() == ChangeBus.Entite.EVENEMENT)
+                .toList();
+        if (evts.isEmpty()) return;
+        if (evts.size() > MAX_DIFF) {
+            vueCourante.run();
+            return;
+        }
 
-        Comparator<Evenement> byDateDebut = Comparator.comparing(
-                e -> e.getDateDebut() == null ? LocalDateTime.MIN : e.getDateDebut()
-        );
+        for (ChangeBus.Change c : evts) {
+            if (c.op() == ChangeBus.Op.SUPPRESSION) {
+                retirer(c.id());
+            } else if (c.evenement() != null) {
+                placer(c.id(), c.evenement());
+            } else {
+                // changement distant : l'événement est relu (cache déjà à jour)
+                Async.onFx(() -> service.getOneById(c.id()),
+                        e -> placer(c.id(), e),
+                        Throwable::printStackTrace);
+            }
+        }
+    }
+
+    // filtre et tri de la vue appliqués par le modèle ; la sélection suit (EventGrid)
+    private void placer(int id, Evenement e) {
+        if (e == null) model.remove(id);
+        else model.put(e);
+    }
+
+    private void retirer(int id) {
+        model.remove(id);
+    }
 
+    private EvenementCriteria.Tri triFor(String choice) {
+        if (choice == null) return EvenementCriteria.Tri.RECENT;
         return switch (choice) {
-            case "Titre (A→Z)" -> list.stream().sorted(byTitre).toList();
-            case "Titre (Z→A)" -> list.stream().sorted(byTitre.reversed()).toList();
-            case "Date début (↑)" -> list.stream().sorted(byDateDebut).toList();
-            case "Date début (↓)" -> list.stream().sorted(byDateDebut.reversed()).toList();
-            default -> list;
+            case "Titre (A→Z)" -> EvenementCriteria.Tri.TITRE_ASC;
+            case "Titre (Z→A)" -> EvenementCriteria.Tri.TITRE_DESC;
+            case "Date début (↑)" -> EvenementCriteria.Tri.DATE_ASC;
+            case "Date début (↓)" -> EvenementCriteria.Tri.DATE_DESC;
+            default -> EvenementCriteria.Tri.RECENT;
         };
     }
 
     @FXML
     private void onSupprimer() {
+        Evenement selectedEvent = grid.getSelected();
         if (selectedEvent == null) {
             lblMsg.setText("❌ Sélectionne un événement à supprimer (clic sur une carte)");
             return;
@@ -228,14 +280,14 @@ public class ListeEvenementsController {
 
         a.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    service.delete(selectedEvent.getIdEvent());
-                    lblMsg.setText("✅ Événement supprimé");
-                    loadAll();
-                } catch (SQLException e) {
-                    lblMsg.setText("❌ Erreur suppression");
-                    e.printStackTrace();
-                }
+                int id = selectedEvent.getIdEvent();
+                // la carte est retirée par la notification de suppression (onChanges)
+                Async.runOnFx(() -> service.delete(id),
+                        () -> lblMsg.setText("✅ Événement supprimé"),
+                        err -> {
+                            lblMsg.setText("❌ Erreur suppression");
+                            err.printStackTrace();
+                        });
             }
         });
     }
@@ -243,6 +295,7 @@ public class ListeEvenementsController {
     @FXML
     private void onReset() {
         txtSearch.clear();
+        searchDebounce.stop();
         initFiltresEtTri();
         loadAll();
     }
@@ -252,46 +305,20 @@ public class ListeEvenementsController {
         SceneUtil.switchTo("/AjouterEvenement.fxml", "Ajouter Événement");
     }
 
+    @FXML
+    private void onGoCalendrier() {
+        SceneUtil.switchTo("/Calendrier.fxml", "Calendrier");
+    }
+
     @FXML
     private void onRetour() {
         SceneUtil.switchTo("/Home.fxml", "Home");
     }
 
     // ===== helpers =====
-    private boolean containsIgnoreCase(String src, String q) {
-        if (src == null || q == null) return false;
-        return src.toLowerCase().contains(q.toLowerCase());
-    }
-
-    // ✅ charge image depuis DB (resources / http / file)
+    // ✅ image de l'event (resources / http / file) : asynchrone, réduite et mise en cache
     private void loadEventImage(ImageView img, Evenement e) {
-        try {
-            String path = (e == null) ? null : e.getImage();
-
-            // fallback
-            if (path == null || path.isBlank()) {
-                img.setImage(new Image(getClass().getResourceAsStream("/images/logo.png")));
-                return;
-            }
-
-            // resource path ex: "images/events/fabrika.png"
-            if (!path.startsWith("http") && !path.matches("^[A-Za-z]:.*")) {
-                if (!path.startsWith("/")) path = "/" + path;
-                img.setImage(new Image(getClass().getResourceAsStream(path)));
-                return;
-            }
-
-            // http url
-            if (path.startsWith("http")) {
-                img.setImage(new Image(path, true));
-                return;
-            }
-
-            // local file Windows
-            img.setImage(new Image("file:" + path));
-
-        } catch (Exception ex) {
-            img.setImage(new Image(getClass().getResourceAsStream("/images/logo.png")));
-        }
+        EventImageLoader.getInstance().load(img, e == null ? null : e.getImage(),
+                img.getFitWidth(), img.getFitHeight());
     }
-}
\ No newline at end of file
+}
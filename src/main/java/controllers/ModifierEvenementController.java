@@ -1,10 +1,14 @@
 package controllers;
 
 import entities.Evenement;
+import entities.TypeEvenement;
+import interfaces.IEvenementService;
 import interfaces.DataReceiver;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import services.EvenementService;
+import services.EvenementCacheService;
+import services.VenueConflictException;
+import utils.Async;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
@@ -16,7 +20,7 @@ public class ModifierEvenementController implements DataReceiver<Integer> {
     @FXML private Label lblMsg;
 
     @FXML private TextField txtTitre;
-    @FXML private ComboBox<String> cbType;
+    @FXML private ComboBox<TypeEvenement> cbType;
     @FXML private TextField txtLieu;
 
     @FXML private DatePicker dpDebut;
@@ -27,22 +31,22 @@ public class ModifierEvenementController implements DataReceiver<Integer> {
 
     @FXML private TextArea txtDescription;
 
-    private EvenementService service;
+    private IEvenementService service;
     private int eventId;
     private Evenement event;
 
     @FXML
     public void initialize() {
         try {
-            service = new EvenementService();
+            service = EvenementCacheService.getInstance();
         } catch (SQLException e) {
             lblMsg.setText("❌ Erreur connexion DB");
             e.printStackTrace();
             return;
         }
 
-        // Types (mets exactement ceux de ta DB)
-        cbType.getItems().setAll("SOIREE", "RANDONNEE", "CAMPING", "SEJOUR");
+        // Types
+        cbType.getItems().setAll(TypeEvenement.values());
     }
 
     @Override
@@ -56,36 +60,37 @@ public class ModifierEvenementController implements DataReceiver<Integer> {
     }
 
     private void loadEvent() {
-        try {
-            event = service.getOneById(eventId);
-            if (event == null) {
-                lblMsg.setText("❌ Événement introuvable");
-                return;
-            }
-
-            txtTitre.setText(event.getTitre());
-            cbType.setValue(event.getType());
-            txtLieu.setText(event.getLieu());
-            txtDescription.setText(event.getDescription());
-
-            if (event.getDateDebut() != null) {
-                dpDebut.setValue(event.getDateDebut().toLocalDate());
-                txtHeureDebut.setText(event.getDateDebut().toLocalTime().toString().substring(0,5));
-            }
-
-            if (event.getDateFin() != null) {
-                dpFin.setValue(event.getDateFin().toLocalDate());
-                txtHeureFin.setText(event.getDateFin().toLocalTime().toString().substring(0,5));
-            } else {
-                txtHeureFin.setText("");
-            }
-
-            lblMsg.setText("✏️ Modification: " + event.getTitre());
-
-        } catch (SQLException e) {
-            lblMsg.setText("❌ Erreur chargement événement");
-            e.printStackTrace();
-        }
+        Async.onFx(() -> service.getOneById(eventId),
+                e -> {
+                    event = e;
+                    if (event == null) {
+                        lblMsg.setText("❌ Événement introuvable");
+                        return;
+                    }
+
+                    txtTitre.setText(event.getTitre());
+                    cbType.setValue(event.getTypeEvenement());
+                    txtLieu.setText(event.getLieu());
+                    txtDescription.setText(event.getDescription());
+
+                    if (event.getDateDebut() != null) {
+                        dpDebut.setValue(event.getDateDebut().toLocalDate());
+                        txtHeureDebut.setText(event.getDateDebut().toLocalTime().toString().substring(0,5));
+                    }
+
+                    if (event.getDateFin() != null) {
+                        dpFin.setValue(event.getDateFin().toLocalDate());
+                        txtHeureFin.setText(event.getDateFin().toLocalTime().toString().substring(0,5));
+                    } else {
+                        txtHeureFin.setText("");
+                    }
+
+                    lblMsg.setText("✏️ Modification: " + event.getTitre());
+                },
+                err -> {
+                    lblMsg.setText("❌ Erreur chargement événement");
+                    err.printStackTrace();
+                });
     }
 
     @FXML
@@ -96,11 +101,11 @@ public class ModifierEvenementController implements DataReceiver<Integer> {
         }
 
         String titre = txtTitre.getText() == null ? "" : txtTitre.getText().trim();
-        String type = cbType.getValue();
+        TypeEvenement type = cbType.getValue();
         String lieu = txtLieu.getText() == null ? "" : txtLieu.getText().trim();
         String desc = txtDescription.getText() == null ? "" : txtDescription.getText().trim();
 
-        if (titre.isEmpty() || type == null || type.isBlank() || lieu.isEmpty()) {
+        if (titre.isEmpty() || type == null || lieu.isEmpty()) {
             lblMsg.setText("❌ Titre, Type et Lieu sont obligatoires");
             return;
         }
@@ -139,23 +144,27 @@ public class ModifierEvenementController implements DataReceiver<Integer> {
 
         // Mettre à jour l'objet
         event.setTitre(titre);
-        event.setType(type);
+        event.setType(type.name());
         event.setLieu(lieu);
         event.setDescription(desc);
         event.setDateDebut(debut);
         event.setDateFin(fin);
 
-        try {
-            service.update(event); // ✅ à ajouter dans EvenementService
-            lblMsg.setText("✅ Événement mis à jour");
-
-            // Retour vers details (pour voir la mise à jour)
-            SceneUtil.switchToWithData("/DetailsEvenement.fxml", "Détails Événement", eventId);
-
-        } catch (SQLException e) {
-            lblMsg.setText("❌ Erreur mise à jour");
-            e.printStackTrace();
-        }
+        Async.runOnFx(() -> service.update(event),
+                () -> {
+                    lblMsg.setText("✅ Événement mis à jour");
+
+                    // Retour vers details (pour voir la mise à jour)
+                    SceneUtil.switchToWithData("/DetailsEvenement.fxml", "Détails Événement", eventId);
+                },
+                e -> {
+                    if (e instanceof VenueConflictException) {
+                        lblMsg.setText("❌ " + e.getMessage());
+                        return;
+                    }
+                    lblMsg.setText("❌ Erreur mise à jour");
+                    e.printStackTrace();
+                });
     }
 
     @FXML
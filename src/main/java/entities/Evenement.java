@@ -6,7 +6,8 @@ public class Evenement {
     private int idEvent;
     private String titre;
     private String description;
-    private String type; // SOIREE/RANDONNEE/CAMPING/SEJOUR
+    private String type; // nom d'un TypeEvenement
+    private transient TypeEvenement typeEvenement; // type lu, à chaque affectation de type
     private LocalDateTime dateDebut;
     private LocalDateTime dateFin; // nullable
     private String lieu;
@@ -17,7 +18,7 @@ public class Evenement {
                      LocalDateTime dateDebut, LocalDateTime dateFin, String lieu) {
         this.titre = titre;
         this.description = description;
-        this.type = type;
+        setType(type);
         this.dateDebut = dateDebut;
         this.dateFin = dateFin;
         this.lieu = lieu;
@@ -33,7 +34,13 @@ public class Evenement {
     public void setDescription(String description) { this.description = description; }
 
     public String getType() { return type; }
-    public void setType(String type) { this.type = type; }
+    public void setType(String type) {
+        this.type = type;
+        this.typeEvenement = TypeEvenement.parse(type);
+    }
+
+    /** Type lu (casse / espaces ignorés), null s'il est absent ou inconnu ; lu une fois par setType. */
+    public TypeEvenement getTypeEvenement() { return typeEvenement; }
 
     public LocalDateTime getDateDebut() { return dateDebut; }
     public void setDateDebut(LocalDateTime dateDebut) { this.dateDebut = dateDebut; }
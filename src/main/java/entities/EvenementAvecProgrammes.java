@@ -0,0 +1,7 @@
+package entities;
+
+import java.util.List;
+
+/** Un événement et son planning (programmes triés par date de début). */
+public record EvenementAvecProgrammes(Evenement evenement, List<Programme> programmes) {
+}
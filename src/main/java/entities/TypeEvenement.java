@@ -0,0 +1,53 @@
+package entities;
+
+/**
+ * Types d'événement (colonne {@code evenement.type}, stockée sous le nom de la constante).
+ * Chaque type porte ses règles : un CAMPING / SEJOUR dure plusieurs jours, sa date fin est obligatoire.
+ */
+public enum TypeEvenement {
+    SOIREE(false),
+    RANDONNEE(false),
+    CAMPING(true),
+    SEJOUR(true);
+
+    private static final TypeEvenement[] VALUES = values();
+
+    private final boolean dateFinRequise;
+
+    TypeEvenement(boolean dateFinRequise) {
+        this.dateFinRequise = dateFinRequise;
+    }
+
+    public boolean dateFinRequise() {
+        return dateFinRequise;
+    }
+
+    /** Nom exact (valeur stockée), ou null. */
+    public static TypeEvenement of(String name) {
+        if (name == null) return null;
+        for (TypeEvenement t : VALUES) {
+            if (t.name().equals(name)) return t;
+        }
+        return null;
+    }
+
+    /** Saisie libre (casse et espaces autour ignorés), ou null ; sans créer de chaîne si rien n'est à retirer. */
+    public static TypeEvenement parse(String text) {
+        if (text == null) return null;
+        String s = text.strip();
+        for (TypeEvenement t : VALUES) {
+            if (t.name().equalsIgnoreCase(s)) return t;
+        }
+        return null;
+    }
+
+    /** "SOIREE/RANDONNEE/CAMPING/SEJOUR", pour les invites de saisie. */
+    public static String noms() {
+        StringBuilder sb = new StringBuilder();
+        for (TypeEvenement t : VALUES) {
+            if (sb.length() > 0) sb.append('/');
+            sb.append(t.name());
+        }
+        return sb.toString();
+    }
+}
@@ -1,12 +1,40 @@
 package interfaces;
 
 import entities.Evenement;
+import entities.Programme;
+import services.EvenementCriteria;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.stream.Stream;
 
 public interface IEvenementService extends IService<Evenement> {
 
+    // Événement + ses programmes en une seule transaction (ids générés reportés sur les objets)
+    void addAvecProgrammes(Evenement e, List<Programme> programmes) throws SQLException;
+
+    // Idem pour un lot d'événements (import en masse), dans l'ordre d'itération de la map
+    void addAllAvecProgrammes(Map<Evenement, List<Programme>> events) throws SQLException;
+
+    // Recherche mot-clé (titre / description / lieu) : chaque mot, sans accents, début d'un mot du texte
+    List<Evenement> search(String keyword) throws SQLException;
+
+    // Filtre/tri/limite côté SQL
+    List<Evenement> find(EvenementCriteria criteria) throws SQLException;
+
+    // Pagination keyset (id_event décroissant) : afterId <= 0 => première page ; limit <= 0 => liste vide
+    List<Evenement> getPage(int afterId, int limit) throws SQLException;
+    List<Evenement> searchPage(String keyword, int afterId, int limit) throws SQLException;
+
+    // Calendrier : jours de [from, to] -> événements qui couvrent ce jour (séjours sur plusieurs jours inclus)
+    NavigableMap<LocalDate, List<Evenement>> calendrier(LocalDate from, LocalDate to) throws SQLException;
+
+    // Lecture en flux (curseur serveur) : à fermer après usage
+    Stream<Evenement> stream() throws SQLException;
+
     // Streams (recherche/filtre/tri) sur une liste
     List<Evenement> rechercher(List<Evenement> events, String keyword);
     List<Evenement> filtrerParType(List<Evenement> events, String type);
@@ -3,8 +3,14 @@ package interfaces;
 import entities.Programme;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface IProgrammeService extends IService<Programme> {
     List<Programme> getByEventId(int eventId) throws SQLException;
+
+    // Programmes de plusieurs événements en requêtes IN (...) groupées : event_id -> programmes
+    // (triés par date début, liste vide si aucun)
+    Map<Integer, List<Programme>> getByEventIds(Collection<Integer> eventIds) throws SQLException;
 }
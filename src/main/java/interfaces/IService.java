@@ -5,6 +5,7 @@ import java.util.List;
 
 public interface IService<T> {
     void add(T t) throws SQLException;
+    void addAll(List<T> list) throws SQLException;
     void update(T t) throws SQLException;
     void delete(int id) throws SQLException;
     List<T> getAll() throws SQLException;
@@ -0,0 +1,97 @@
+package services;
+
+import entities.Evenement;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Index par jour pour le calendrier : un événement est rangé dans chaque jour qu'il couvre
+ * (du jour de début au jour de fin ; un seul jour sans date fin). Une requête sur [from, to]
+ * parcourt les seuls jours demandés : O(jours + résultats), pas O(événements).
+ * <p>
+ * Les séjours très longs (plus de {@link #MAX_SPAN_DAYS} jours) ne sont pas éclatés jour par
+ * jour : ils sont gardés à part et testés à chaque requête (ils sont rares).
+ * Non thread-safe : tenu par {@link EvenementCacheService}, qui synchronise.
+ */
+public class CalendrierIndex {
+
+    static final int MAX_SPAN_DAYS = 62;
+
+    private static final Comparator<Evenement> PAR_DEBUT = Comparator
+            .comparing(Evenement::getDateDebut)
+            .thenComparingInt(Evenement::getIdEvent);
+
+    private final NavigableMap<LocalDate, Map<Integer, Evenement>> parJour = new TreeMap<>();
+    private final Map<Integer, Evenement> longs = new HashMap<>();
+
+    public void put(Evenement e) {
+        if (e.getDateDebut() == null) return;
+        LocalDate d = premierJour(e);
+        LocalDate f = dernierJour(e);
+
+        if (ChronoUnit.DAYS.between(d, f) >= MAX_SPAN_DAYS) {
+            longs.put(e.getIdEvent(), e);
+            return;
+        }
+        for (LocalDate j = d; !j.isAfter(f); j = j.plusDays(1)) {
+            parJour.computeIfAbsent(j, k -> new HashMap<>()).put(e.getIdEvent(), e);
+        }
+    }
+
+    /** {@code e} = version indexée (mêmes dates que lors du put). */
+    public void remove(Evenement e) {
+        if (e.getDateDebut() == null) return;
+        if (longs.remove(e.getIdEvent()) != null) return;
+
+        LocalDate f = dernierJour(e);
+        for (LocalDate j = premierJour(e); !j.isAfter(f); j = j.plusDays(1)) {
+            Map<Integer, Evenement> b = parJour.get(j);
+            if (b != null && b.remove(e.getIdEvent()) != null && b.isEmpty()) parJour.remove(j);
+        }
+    }
+
+    public void clear() {
+        parJour.clear();
+        longs.clear();
+    }
+
+    /** Jours de [from, to] ayant au moins un événement, chacun trié par heure de début. */
+    public NavigableMap<LocalDate, List<Evenement>> range(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<Evenement>> out = new TreeMap<>();
+        for (Map.Entry<LocalDate, Map<Integer, Evenement>> en : parJour.subMap(from, true, to, true).entrySet()) {
+            out.put(en.getKey(), new ArrayList<>(en.getValue().values()));
+        }
+
+        for (Evenement e : longs.values()) {
+            LocalDate d = max(premierJour(e), from);
+            LocalDate f = min(dernierJour(e), to);
+            for (LocalDate j = d; !j.isAfter(f); j = j.plusDays(1)) {
+                out.computeIfAbsent(j, k -> new ArrayList<>()).add(e);
+            }
+        }
+
+        for (List<Evenement> l : out.values()) l.sort(PAR_DEBUT);
+        return out;
+    }
+
+    static LocalDate premierJour(Evenement e) {
+        return e.getDateDebut().toLocalDate();
+    }
+
+    static LocalDate dernierJour(Evenement e) {
+        LocalDate d = premierJour(e);
+        if (e.getDateFin() == null) return d;
+        LocalDate f = e.getDateFin().toLocalDate();
+        return f.isBefore(d) ? d : f;
+    }
+
+    private static LocalDate max(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,86 @@
+package services;
+
+import entities.Evenement;
+import entities.Programme;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Notifications de changement du catalogue, pour que les écrans ouverts se mettent à jour
+ * ligne par ligne au lieu de tout recharger.
+ * <p>
+ * Alimenté par les écritures des services ({@link EvenementService}, {@link ProgrammeService},
+ * journal local) après commit, et par {@link ChangeLog} pour les écritures faites par une autre
+ * instance ({@link Change#distant()}). Les abonnés sont appelés sur le thread de l'écriture, dans
+ * l'ordre d'abonnement : le cache partagé s'abonne avant les écrans et se met à jour en premier.
+ */
+public final class ChangeBus {
+
+    public enum Entite { EVENEMENT, PROGRAMME }
+
+    public enum Op { AJOUT, MODIF, SUPPRESSION }
+
+    /**
+     * @param id        id de la ligne (provisoire &lt; 0 avec le journal local)
+     * @param eventId   événement concerné : l'id lui-même pour un événement, le parent pour un programme (0 = inconnu)
+     * @param evenement copie de l'événement écrit (null pour une suppression ou un changement distant)
+     * @param programme copie du programme écrit (idem)
+     */
+    public record Change(Entite entite, Op op, int id, int eventId,
+                         Evenement evenement, Programme programme, boolean distant) {}
+
+    /** Désabonnement. */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final ChangeBus INSTANCE = new ChangeBus();
+
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+
+    private ChangeBus() {}
+
+    public static ChangeBus getInstance() {
+        return INSTANCE;
+    }
+
+    public Subscription subscribe(Consumer<Change> listener) {
+        listeners.add(listener);
+        return () -> listeners.remove(listener);
+    }
+
+    public void publish(Change c) {
+        for (Consumer<Change> l : listeners) {
+            try {
+                l.accept(c);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void publishAll(List<Change> changes) {
+        for (Change c : changes) publish(c);
+    }
+
+    // ===== fabriques (copies : l'appelant peut modifier ses objets ensuite) =====
+
+    static Change evenement(Op op, Evenement e) {
+        return new Change(Entite.EVENEMENT, op, e.getIdEvent(), e.getIdEvent(), JournalStore.copy(e), null, false);
+    }
+
+    static Change evenementSupprime(int id) {
+        return new Change(Entite.EVENEMENT, Op.SUPPRESSION, id, id, null, null, false);
+    }
+
+    static Change programme(Op op, Programme p) {
+        return new Change(Entite.PROGRAMME, op, p.getIdProg(), p.getEventId(), null, JournalStore.copy(p), false);
+    }
+
+    static Change programmeSupprime(int id, int eventId) {
+        return new Change(Entite.PROGRAMME, Op.SUPPRESSION, id, eventId, null, null, false);
+    }
+}
@@ -0,0 +1,186 @@
+package services;
+
+import utils.MyDataBase;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Changements vus par les autres instances : chaque écriture ajoute une ligne à {@code change_log}
+ * ({@link #noter}, même transaction que l'écriture) ; un thread relève les lignes de version
+ * supérieure à la dernière lue et les publie sur le {@link ChangeBus} comme changements distants.
+ * Les lignes écrites par cette instance sont ignorées (déjà publiées localement).
+ * <p>
+ * Une version absente alors que des suivantes sont lues peut être une transaction pas encore
+ * validée : elle est attendue {@link #GAP_POLLS} relevés avant d'être considérée comme annulée.
+ * Intervalle : {@code -Dchanges.pollMs} (0 = pas de relève). Lignes de plus de 24 h purgées.
+ */
+public final class ChangeLog {
+
+    /** Identifiant de cette instance dans {@code change_log.origine}. */
+    static final String ORIGINE = UUID.randomUUID().toString();
+
+    private static final long POLL_MS = Long.getLong("changes.pollMs", 2_000);
+    private static final int PAGE = 500;
+    private static final int GAP_POLLS = 5;
+    private static final long RETENTION_MS = 24 * 3600_000L;
+    private static final int PRUNE_EVERY = 1_800; // relevés (≈ 1 h à 2 s)
+
+    private static volatile boolean disponible;
+    private static volatile boolean absenceSignalee;
+    private static ChangeLog instance;
+
+    private final MyDataBase db;
+    private final ChangeBus bus;
+
+    // état du thread de relève uniquement
+    private long last = -1;
+    private final Set<Long> dejaVus = new HashSet<>();
+    private long trou = -1;   // première version manquante attendue
+    private int trouPolls;
+    private int polls;
+    private String derniereErreur;
+
+    private ChangeLog(MyDataBase db, ChangeBus bus) {
+        this.db = db;
+        this.bus = bus;
+    }
+
+    /** Démarre la relève (une fois par processus). */
+    public static synchronized void start() {
+        if (instance != null || POLL_MS <= 0) return;
+        instance = new ChangeLog(MyDataBase.getInstance(), ChangeBus.getInstance());
+
+        Thread t = new Thread(instance::run, "change-log");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Note les changements dans la transaction en cours de {@code cnx} (sans effet si la table n'existe pas). */
+    static void noter(Connection cnx, List<ChangeBus.Change> changes) throws SQLException {
+        if (changes.isEmpty() || !disponible(cnx)) return;
+
+        String sql = "INSERT INTO change_log (entite, op, id, event_id, origine) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+            for (int i = 0; i < changes.size(); i++) {
+                ChangeBus.Change c = changes.get(i);
+                ps.setString(1, c.entite().name());
+                ps.setString(2, c.op().name());
+                ps.setInt(3, c.id());
+                ps.setInt(4, c.eventId());
+                ps.setString(5, ORIGINE);
+                ps.addBatch();
+                if ((i + 1) % ProgrammeService.BATCH_SIZE == 0) ps.executeBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // seule la présence est mémorisée : après un échec (table absente ou erreur passagère),
+    // la sonde est refaite à l'écriture ou au relevé suivant
+    private static boolean disponible(Connection cnx) {
+        if (disponible) return true;
+        try (Statement st = cnx.createStatement()) {
+            st.executeQuery("SELECT 1 FROM change_log WHERE 1=0");
+            disponible = true;
+        } catch (SQLException e) {
+            // base MySQL pas encore migrée (V4) : écritures normales, sans notification inter-instances
+            if (!absenceSignalee) {
+                System.out.println("⚠️ Table change_log indisponible : pas de mise à jour entre instances ("
+                        + e.getMessage() + ")");
+                absenceSignalee = true;
+            }
+        }
+        return disponible;
+    }
+
+    // ===================== relève =====================
+
+    private void run() {
+        while (true) {
+            try {
+                poll(); // premier relevé immédiat : fixe le point de départ
+                derniereErreur = null;
+            } catch (SQLException e) {
+                // base injoignable : on réessaie au prochain relevé, sans inonder la console
+                if (!Objects.equals(derniereErreur, e.getMessage())) {
+                    System.out.println("⚠️ Relève change_log : " + e.getMessage());
+                    derniereErreur = e.getMessage();
+                }
+            }
+            try {
+                Thread.sleep(POLL_MS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void poll() throws SQLException {
+        List<ChangeBus.Change> distants = new ArrayList<>();
+        try (Connection cnx = db.getConnection()) {
+            if (!disponible(cnx)) return;
+
+            if (last < 0) {
+                // on part de maintenant : l'écran a chargé l'état courant
+                try (Statement st = cnx.createStatement();
+                     ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM change_log")) {
+                    rs.next();
+                    last = rs.getLong(1);
+                }
+                return;
+            }
+
+            String sql = "SELECT version, entite, op, id, event_id, origine FROM change_log " +
+                    "WHERE version > ? ORDER BY version LIMIT ?";
+            try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+                ps.setLong(1, last);
+                ps.setInt(2, PAGE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        long v = rs.getLong(1);
+                        if (!dejaVus.add(v) || ORIGINE.equals(rs.getString(6))) continue;
+                        distants.add(new ChangeBus.Change(
+                                ChangeBus.Entite.valueOf(rs.getString(2)),
+                                ChangeBus.Op.valueOf(rs.getString(3)),
+                                rs.getInt(4), rs.getInt(5), null, null, true));
+                    }
+                }
+            }
+
+            if (++polls % PRUNE_EVERY == 0) {
+                try (PreparedStatement ps = cnx.prepareStatement("DELETE FROM change_log WHERE changed_at < ?")) {
+                    ps.setTimestamp(1, new Timestamp(System.currentTimeMillis() - RETENTION_MS));
+                    ps.executeUpdate();
+                }
+            }
+        }
+
+        avancer();
+        bus.publishAll(distants);
+    }
+
+    /** Avance {@code last} sur les versions contiguës lues ; un trou bloque jusqu'à {@link #GAP_POLLS} relevés. */
+    private void avancer() {
+        while (true) {
+            long next = last + 1;
+            if (dejaVus.remove(next)) {
+                last = next;
+                continue;
+            }
+            if (dejaVus.isEmpty()) {
+                trou = -1; // rien lu au-delà : pas de trou
+                return;
+            }
+            if (trou != next) {
+                trou = next;
+                trouPolls = 0;
+            }
+            if (++trouPolls < GAP_POLLS) return;
+
+            // transaction annulée (ou auto_increment_increment > 1) : on saute tout le trou
+            last = Collections.min(dejaVus) - 1;
+            trou = -1;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package services;
+
+import entities.Evenement;
+import entities.Programme;
+import entities.TypeEvenement;
+import interfaces.IEvenementService;
+import utils.AdaptiveParallel;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cache en mémoire du catalogue d'événements (read-through / write-through).
+ * <p>
+ * Partagé par tous les écrans ({@link #getInstance()}) : passer de la liste aux détails
+ * puis revenir ne coûte aucune requête tant que rien n'a changé. Les écritures passent
+ * par MySQL puis mettent à jour l'index par id, les jours couverts pour le calendrier ({@link CalendrierIndex})
+ * et l'index plein texte ({@link EvenementSearchIndex}) ; type et période sont filtrés sur un instantané
+ * en colonnes ({@link EvenementColonnes}), refait à la première recherche après une écriture.
+ * add/update/addAvecProgrammes refusent un lieu déjà occupé sur la période ({@link VenueScheduler},
+ * {@link VenueConflictException}) avant d'écrire, sur l'index en mémoire : c'est la seule vérification
+ * à la saisie quand le journal local diffère l'écriture. La vérification qui fait foi est celle de
+ * {@link EvenementService}, dans la transaction (import en masse compris) ; {@link #auditLieux()}
+ * reste utile pour les lignes antérieures à cette règle.
+ * Les objets rendus sont des copies : un écran peut les modifier sans corrompre le cache.
+ * Avec le journal local ({@link JournalStore}), un ajout porte un id provisoire négatif jusqu'à sa
+ * synchronisation ({@link #synchronise}) ; l'ancien id reste accepté ensuite.
+ * Les écritures d'une autre instance ({@link ChangeLog}) remplacent l'entrée concernée.
+ */
+public class EvenementCacheService implements IEvenementService {
+
+    private static EvenementCacheService instance;
+
+    private final IEvenementService delegate;
+
+    // index principal (id décroissant = ordre de getAll) + index secondaires
+    private final NavigableMap<Integer, Evenement> byId = new TreeMap<>(Comparator.reverseOrder());
+    private EvenementColonnes colonnes; // null = à refaire (écriture depuis la dernière recherche)
+    private final CalendrierIndex jours = new CalendrierIndex();
+    private final EvenementSearchIndex searchIndex = new EvenementSearchIndex();
+    private final VenueScheduler venues = new VenueScheduler();
+    // vérification du lieu + écriture sans qu'une autre écriture s'intercale
+    private final Object writeLock = new Object();
+    private boolean fullyLoaded;
+    // id provisoire (journal local) -> id en base, pour les écrans qui ont gardé l'ancien
+    private final Map<Integer, Integer> alias = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public record Stats(long hits, long misses, long evictions, int size) {}
+
+    public EvenementCacheService(IEvenementService delegate) {
+        this.delegate = delegate;
+    }
+
+    public static synchronized EvenementCacheService getInstance() throws SQLException {
+        if (instance == null) {
+            instance = new EvenementCacheService(JournalStore.wrap(new EvenementService()));
+            JournalStore journal = JournalStore.getInstance();
+            if (journal != null) journal.addListener(instance::synchronise);
+            // abonné avant les écrans : le cache est à jour quand ils relisent
+            ChangeBus.getInstance().subscribe(instance::appliquerDistant);
+            ChangeLog.start();
+        }
+        return instance;
+    }
+
+    // ===== CRUD =====
+
+    @Override
+    public void add(Evenement e) throws SQLException {
+        synchronized (writeLock) {
+            verifierLieu(e);
+            delegate.add(e);
+            synchronized (this) {
+                index(copy(e));
+            }
+        }
+    }
+
+    @Override
+    public void addAll(List<Evenement> events) throws SQLException {
+        delegate.addAll(events);
+        synchronized (this) {
+            for (Evenement e : events) index(copy(e));
+        }
+    }
+
+    @Override
+    public void addAvecProgrammes(Evenement e, List<Programme> programmes) throws SQLException {
+        synchronized (writeLock) {
+            verifierLieu(e);
+            delegate.addAvecProgrammes(e, programmes);
+            synchronized (this) {
+                index(copy(e));
+            }
+        }
+    }
+
+    @Override
+    public void addAllAvecProgrammes(Map<Evenement, List<Programme>> events) throws SQLException {
+        delegate.addAllAvecProgrammes(events);
+        synchronized (this) {
+            for (Evenement e : events.keySet()) index(copy(e));
+        }
+    }
+
+    @Override
+    public void update(Evenement e) throws SQLException {
+        synchronized (writeLock) {
+            e.setIdEvent(reel(e.getIdEvent()));
+            verifierLieu(e);
+            delegate.update(e);
+            synchronized (this) {
+                unindex(e.getIdEvent());
+                index(copy(e));
+            }
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        delegate.delete(id);
+        synchronized (this) {
+            unindex(reel(id));
+        }
+    }
+
+    @Override
+    public synchronized List<Evenement> getAll() throws SQLException {
+        ensureLoaded();
+        return copies(byId.values());
+    }
+
+    @Override
+    public synchronized Evenement getOneById(int id) throws SQLException {
+        id = alias.getOrDefault(id, id);
+        Evenement e = byId.get(id);
+        if (e != null) {
+            hits.incrementAndGet();
+            return copy(e);
+        }
+        misses.incrementAndGet();
+        if (fullyLoaded) return null; // catalogue complet en mémoire : l'id n'existe pas
+
+        e = delegate.getOneById(id);
+        if (e != null) index(copy(e));
+        return e;
+    }
+
+    // ===== requêtes servies par les index =====
+
+    @Override
+    public synchronized List<Evenement> find(EvenementCriteria criteria) throws SQLException {
+        ensureLoaded();
+
+        // ✅ type, période et tri par date sur les colonnes primitives (lignes dans l'ordre de byId)
+        EvenementColonnes col = colonnes();
+        int[] rows = null;
+        if (criteria.getType() != null) rows = col.deType(rows, TypeEvenement.parse(criteria.getType()));
+        if (criteria.getFrom() != null || criteria.getTo() != null) {
+            rows = col.debutEntre(rows, criteria.getFrom(), criteria.getTo());
+        }
+        EvenementCriteria.Tri tri = criteria.getTri();
+        boolean parDate = tri == EvenementCriteria.Tri.DATE_ASC || tri == EvenementCriteria.Tri.DATE_DESC;
+        // stable : à date égale, id décroissant comme le comparateur
+        if (parDate) rows = col.trierParDebut(rows, tri == EvenementCriteria.Tri.DATE_ASC);
+
+        Set<Integer> motCle = criteria.getKeyword() == null
+                ? null
+                : new HashSet<>(searchIndex.search(criteria.getKeyword()));
+
+        int n = rows == null ? col.size() : rows.length;
+        List<Evenement> found = new ArrayList<>();
+        for (int j = 0; j < n; j++) {
+            int id = col.id(rows == null ? j : rows[j]);
+            if (motCle == null || motCle.contains(id)) found.add(byId.get(id));
+        }
+
+        // les colonnes ignorent les espaces autour du type, pas le SQL : recontrôle des lignes retenues
+        found = AdaptiveParallel.getInstance().filter(found, criteria::matchesFilters);
+        if (!parDate && tri != EvenementCriteria.Tri.RECENT) found = criteria.trier(found);
+
+        Stream<Evenement> result = found.stream();
+        if (criteria.getLimit() > 0) result = result.limit(criteria.getLimit());
+        return result.map(EvenementCacheService::copy).toList();
+    }
+
+    /** Calendrier servi par l'index des jours : coût proportionnel aux jours demandés, pas au catalogue. */
+    @Override
+    public synchronized NavigableMap<LocalDate, List<Evenement>> calendrier(LocalDate from, LocalDate to) throws SQLException {
+        ensureLoaded();
+        NavigableMap<LocalDate, List<Evenement>> out = jours.range(from, to);
+        // un séjour apparaît sur plusieurs jours : une seule copie par événement
+        Map<Integer, Evenement> copies = new HashMap<>();
+        out.replaceAll((jour, events) -> events.stream()
+                .map(e -> copies.computeIfAbsent(e.getIdEvent(), id -> copy(e)))
+                .toList());
+        return out;
+    }
+
+    /** Recherche plein texte (sans accents, par préfixe), résultats triés par pertinence. */
+    @Override
+    public synchronized List<Evenement> search(String keyword) throws SQLException {
+        ensureLoaded();
+        if (keyword == null || keyword.isBlank()) return copies(byId.values());
+
+        List<Evenement> list = new ArrayList<>();
+        for (int id : searchIndex.search(keyword)) list.add(copy(byId.get(id)));
+        return list;
+    }
+
+    // ===== lectures volumineuses : pas de cache (streaming / pagination) =====
+
+    @Override
+    public List<Evenement> getPage(int afterId, int limit) throws SQLException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public List<Evenement> searchPage(String keyword, int afterId, int limit) throws SQLException {
+        return delegate.searchPage(keyword, afterId, limit);
+    }
+
+    @Override
+    public Stream<Evenement> stream() throws SQLException {
+        return delegate.stream();
+    }
+
+    // ===== Streams (listes fournies par l'appelant) =====
+
+    @Override
+    public List<Evenement> rechercher(List<Evenement> events, String keyword) {
+        return delegate.rechercher(events, keyword);
+    }
+
+    @Override
+    public List<Evenement> filtrerParType(List<Evenement> events, String type) {
+        return delegate.filtrerParType(events, type);
+    }
+
+    @Override
+    public List<Evenement> filtrerParLieu(List<Evenement> events, String keyword) {
+        return delegate.filtrerParLieu(events, keyword);
+    }
+
+    @Override
+    public List<Evenement> trierParDateAsc(List<Evenement> events) {
+        return delegate.trierParDateAsc(events);
+    }
+
+    @Override
+    public List<Evenement> trierParDateDesc(List<Evenement> events) {
+        return delegate.trierParDateDesc(events);
+    }
+
+    // ===== gestion du cache =====
+
+    /** Vide le cache (ex : modification faite par une autre instance). */
+    public synchronized void invalidateAll() {
+        evictions.addAndGet(byId.size());
+        byId.clear();
+        colonnes = null;
+        jours.clear();
+        searchIndex.clear();
+        venues.clear();
+        fullyLoaded = false;
+    }
+
+    /**
+     * Résultat du journal local : un ajout prend son id définitif, un ajout écarté disparaît ;
+     * une modification ou suppression écartée recharge le catalogue depuis la base.
+     */
+    public synchronized void synchronise(JournalStore.Synchro s) {
+        if (s.kind() == JournalStore.Kind.EVT_ADD) {
+            Evenement e = byId.get(s.provisoire());
+            unindex(s.provisoire());
+            if (s.conflit() == null) {
+                alias.put(s.provisoire(), s.reel());
+                if (e != null) {
+                    e.setIdEvent(s.reel());
+                    index(e);
+                }
+            }
+        } else if (s.conflit() != null
+                && (s.kind() == JournalStore.Kind.EVT_UPDATE || s.kind() == JournalStore.Kind.EVT_DELETE)) {
+            invalidateAll();
+        }
+    }
+
+    /** Écriture faite par une autre instance : l'événement est relu (ou retiré). */
+    public void appliquerDistant(ChangeBus.Change c) {
+        if (!c.distant() || c.entite() != ChangeBus.Entite.EVENEMENT) return;
+
+        Evenement e = null;
+        if (c.op() != ChangeBus.Op.SUPPRESSION) {
+            try {
+                e = delegate.getOneById(c.id());
+            } catch (SQLException ex) {
+                invalidateAll();
+                return;
+            }
+        }
+        synchronized (this) {
+            unindex(c.id());
+            if (e != null) index(e);
+        }
+    }
+
+    private synchronized int reel(int id) {
+        return alias.getOrDefault(id, id);
+    }
+
+    /** Conflits de lieu sur tout le catalogue (lieux traités en parallèle). */
+    public List<VenueScheduler.Conflit> auditLieux() throws SQLException {
+        List<Evenement> all;
+        synchronized (this) {
+            ensureLoaded();
+            all = copies(byId.values());
+        }
+        return VenueScheduler.audit(all);
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits.get(), misses.get(), evictions.get(), byId.size());
+    }
+
+    private synchronized void verifierLieu(Evenement e) throws SQLException {
+        ensureLoaded(); // l'index des lieux doit couvrir tout le catalogue
+        venues.verifier(e);
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (fullyLoaded) {
+            hits.incrementAndGet();
+            return;
+        }
+        misses.incrementAndGet();
+        for (Evenement e : delegate.getAll()) {
+            unindex(e.getIdEvent());
+            index(e);
+        }
+        fullyLoaded = true;
+    }
+
+    private EvenementColonnes colonnes() {
+        if (colonnes == null) colonnes = EvenementColonnes.of(byId.values());
+        return colonnes;
+    }
+
+    private void index(Evenement e) {
+        byId.put(e.getIdEvent(), e);
+        colonnes = null;
+        jours.put(e);
+        searchIndex.put(e);
+        venues.put(e);
+    }
+
+    private void unindex(int id) {
+        Evenement old = byId.remove(id);
+        if (old == null) return;
+        colonnes = null;
+        evictions.incrementAndGet();
+        jours.remove(old);
+        searchIndex.remove(id);
+        venues.remove(old);
+    }
+
+    private static List<Evenement> copies(Collection<Evenement> src) {
+        List<Evenement> list = new ArrayList<>(src.size());
+        for (Evenement e : src) list.add(copy(e));
+        return list;
+    }
+
+    private static Evenement copy(Evenement e) {
+        Evenement c = new Evenement(e.getTitre(), e.getDescription(), e.getType(),
+                e.getDateDebut(), e.getDateFin(), e.getLieu());
+        c.setIdEvent(e.getIdEvent());
+        c.setImage(e.getImage());
+        return c;
+    }
+}
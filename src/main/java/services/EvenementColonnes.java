@@ -0,0 +1,170 @@
+package services;
+
+import entities.Evenement;
+import entities.TypeEvenement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Instantané du catalogue rangé par colonnes de types primitifs, pour les filtres et tris en mémoire.
+ * <p>
+ * Une ligne = un événement, dans l'ordre de la collection d'origine : id ({@code int}), début
+ * en secondes ({@code long}, date locale lue comme UTC : seul l'ordre compte) et type codé sur un
+ * octet ({@link TypeEvenement}, avec un index type -> lignes). Seules les colonnes lues par
+ * {@link EvenementCacheService#find} sont gardées. Les filtres parcourent des tableaux
+ * contigus au lieu de suivre un objet et ses champs par événement.
+ * <p>
+ * Immuable : reconstruit après une écriture ({@link EvenementCacheService}). Les filtres prennent et
+ * rendent des numéros de ligne ({@code null} en entrée = toutes les lignes), à chaîner.
+ */
+public final class EvenementColonnes {
+
+    /** Date absente. */
+    public static final long AUCUNE = Long.MIN_VALUE;
+
+    private final int[] ids;
+    private final long[] debuts;
+    private final byte[] types;      // ordinal + 1 ; 0 = absent ou inconnu
+    private final EnumMap<TypeEvenement, BitSet> parType;
+
+    private EvenementColonnes(int[] ids, long[] debuts, byte[] types, EnumMap<TypeEvenement, BitSet> parType) {
+        this.ids = ids;
+        this.debuts = debuts;
+        this.types = types;
+        this.parType = parType;
+    }
+
+    public static EvenementColonnes of(Collection<Evenement> events) {
+        int n = events.size();
+        int[] ids = new int[n];
+        long[] debuts = new long[n];
+        byte[] types = new byte[n];
+
+        EnumMap<TypeEvenement, BitSet> parType = new EnumMap<>(TypeEvenement.class);
+        for (TypeEvenement t : TypeEvenement.values()) parType.put(t, new BitSet(n));
+
+        int i = 0;
+        for (Evenement e : events) {
+            ids[i] = e.getIdEvent();
+            debuts[i] = secondes(e.getDateDebut());
+
+            TypeEvenement t = e.getTypeEvenement();
+            if (t != null) {
+                types[i] = (byte) (t.ordinal() + 1);
+                parType.get(t).set(i);
+            }
+            i++;
+        }
+        return new EvenementColonnes(ids, debuts, types, parType);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int id(int row) {
+        return ids[row];
+    }
+
+    // ===================== filtres =====================
+
+    /**
+     * Lignes du type : toutes les lignes -> parcours de l'index (seulement les lignes retenues) ;
+     * lignes données -> comparaison d'octets. Type null : aucune ligne.
+     */
+    public int[] deType(int[] rows, TypeEvenement type) {
+        if (type == null) return new int[0];
+        if (rows == null) return parType.get(type).stream().toArray();
+
+        byte c = (byte) (type.ordinal() + 1);
+        int[] out = new int[rows.length];
+        int k = 0;
+        for (int r : rows) {
+            if (types[r] == c) out[k++] = r;
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    /** Début dans [from, to] en jours, bornes incluses (null = pas de borne), comme {@link EvenementCriteria#between}. */
+    public int[] debutEntre(int[] rows, LocalDate from, LocalDate to) {
+        long min = from == null ? Long.MIN_VALUE + 1 : secondes(from.atStartOfDay());
+        long max = to == null ? Long.MAX_VALUE : secondes(to.plusDays(1).atStartOfDay()) - 1;
+
+        int n = count(rows);
+        int[] out = new int[n];
+        int k = 0;
+        for (int j = 0; j < n; j++) {
+            int r = rows == null ? j : rows[j];
+            long d = debuts[r]; // AUCUNE < min : une date absente ne passe jamais
+            if (d >= min && d <= max) out[k++] = r;
+        }
+        return Arrays.copyOf(out, k);
+    }
+
+    // ===================== tri =====================
+
+    /**
+     * Lignes triées par début, stable (à date égale, l'ordre des lignes est gardé) ; date absente
+     * en premier en ordre croissant, en dernier en décroissant (NULL = plus petite valeur, comme le SQL).
+     * <p>
+     * Clé (écart au minimum, 32 bits) et numéro de ligne (31 bits) tiennent dans un {@code long} :
+     * un seul {@link Arrays#sort(long[])} sans objet ni comparateur. Écart de plus de 136 ans : tri par comparateur.
+     */
+    public int[] trierParDebut(int[] rows, boolean asc) {
+        int n = count(rows);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int j = 0; j < n; j++) {
+            long d = debuts[rows == null ? j : rows[j]];
+            if (d == AUCUNE) continue;
+            min = Math.min(min, d);
+            max = Math.max(max, d);
+        }
+
+        int[] out = new int[n];
+        if (min > max || max - min < (1L << 32) - 2) {
+            long absente = (asc || min > max) ? 0 : max - min + 2;
+            long[] cles = new long[n];
+            for (int j = 0; j < n; j++) {
+                long d = debuts[rows == null ? j : rows[j]];
+                long cle = (d == AUCUNE) ? absente : (asc ? d - min : max - d) + 1;
+                cles[j] = (cle << 31) | j;
+            }
+            Arrays.sort(cles);
+            for (int j = 0; j < n; j++) {
+                int pos = (int) (cles[j] & Integer.MAX_VALUE);
+                out[j] = rows == null ? pos : rows[pos];
+            }
+            return out;
+        }
+
+        Integer[] boxed = new Integer[n];
+        for (int j = 0; j < n; j++) boxed[j] = rows == null ? j : rows[j];
+        Comparator<Integer> parDebut = Comparator.comparingLong(r -> debuts[r]); // AUCUNE = plus petite
+        Arrays.sort(boxed, asc ? parDebut : parDebut.reversed());
+        for (int j = 0; j < n; j++) out[j] = boxed[j];
+        return out;
+    }
+
+    // ===================== mesure =====================
+
+    /** Taille des tableaux et de l'index par type (hors en-têtes d'objets). */
+    public long octets() {
+        long b = ids.length * (4L + 8 + 1);
+        for (BitSet s : parType.values()) b += s.size() / 8;
+        return b;
+    }
+
+    // ===================== helpers =====================
+
+    private int count(int[] rows) {
+        return rows == null ? ids.length : rows.length;
+    }
+
+    static long secondes(LocalDateTime d) {
+        return d == null ? AUCUNE : d.toEpochSecond(ZoneOffset.UTC);
+    }
+}
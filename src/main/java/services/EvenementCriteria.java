@@ -0,0 +1,183 @@
+package services;
+
+import entities.Evenement;
+import entities.TypeEvenement;
+import utils.AdaptiveParallel;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Critères de recherche d'événements compilés en UNE requête SQL paramétrée.
+ * <p>
+ * Le tri est choisi dans une liste fermée ({@link Tri}) : jamais de SQL venant de l'utilisateur.
+ * Le nombre de formes de requête est borné (présence/absence de chaque critère), ce qui
+ * permet au cache de statements du driver de les réutiliser.
+ * <p>
+ * Le mot-clé suit partout la règle de {@link EvenementSearchIndex} (chaque mot de la requête,
+ * sans accents, est le début d'un mot du titre, du lieu ou de la description) : il n'est pas
+ * traduit en SQL (un LIKE ne replie pas les accents et trouve "amp" dans "camping") mais
+ * appliqué aux lignes lues ({@link #matches}) ; la limite suit alors le filtre.
+ */
+public class EvenementCriteria {
+
+    public enum Tri {
+        TITRE_ASC("titre ASC"),
+        TITRE_DESC("titre DESC"),
+        DATE_ASC("date_debut ASC"),
+        DATE_DESC("date_debut DESC"),
+        RECENT("id_event DESC");
+
+        private final String orderBy;
+
+        Tri(String orderBy) {
+            this.orderBy = orderBy;
+        }
+    }
+
+    /** SQL + paramètres dans l'ordre des '?'. */
+    public record Query(String sql, List<Object> params) {}
+
+    private String keyword;
+    private Predicate<Evenement> motCle = e -> true;
+    private String type;
+    private LocalDate from;
+    private LocalDate to;
+    private Tri tri = Tri.RECENT;
+    private int limit;
+
+    public EvenementCriteria keyword(String keyword) {
+        this.keyword = (keyword == null || keyword.isBlank()) ? null : keyword.trim();
+        this.motCle = EvenementSearchIndex.matcher(this.keyword);
+        return this;
+    }
+
+    public EvenementCriteria type(String type) {
+        this.type = (type == null || type.isBlank()) ? null : type.trim().toUpperCase(Locale.ROOT);
+        return this;
+    }
+
+    public EvenementCriteria type(TypeEvenement type) {
+        this.type = (type == null) ? null : type.name();
+        return this;
+    }
+
+    /** Date début comprise entre from et to (bornes incluses, null = pas de borne). */
+    public EvenementCriteria between(LocalDate from, LocalDate to) {
+        this.from = from;
+        this.to = to;
+        return this;
+    }
+
+    public EvenementCriteria tri(Tri tri) {
+        this.tri = (tri == null) ? Tri.RECENT : tri;
+        return this;
+    }
+
+    /** 0 = pas de limite. */
+    public EvenementCriteria limit(int limit) {
+        this.limit = Math.max(0, limit);
+        return this;
+    }
+
+    // ===== évaluation en mémoire (même sémantique que find, utilisée par le cache) =====
+
+    String getKeyword() { return keyword; }
+    String getType() { return type; }
+    LocalDate getFrom() { return from; }
+    LocalDate getTo() { return to; }
+    Tri getTri() { return tri; }
+    int getLimit() { return limit; }
+
+    /** Tous les critères, mot-clé compris (règle de l'index de recherche : mots sans accents, par préfixe). */
+    public boolean matches(Evenement e) {
+        return motCle.test(e) && matchesFilters(e);
+    }
+
+    /** Type + période uniquement : le mot-clé passe par l'index de recherche. */
+    public boolean matchesFilters(Evenement e) {
+        if (type != null && !type.equalsIgnoreCase(e.getType())) return false;
+
+        if (from != null || to != null) {
+            if (e.getDateDebut() == null) return false;
+            LocalDate d = e.getDateDebut().toLocalDate();
+            if (from != null && d.isBefore(from)) return false;
+            if (to != null && d.isAfter(to)) return false;
+        }
+        return true;
+    }
+
+    /** Ordre du tri choisi (égalités départagées par id décroissant, comme le SQL). */
+    public Comparator<Evenement> comparator() {
+        Comparator<Evenement> recent = Comparator.comparingInt(Evenement::getIdEvent).reversed();
+        Comparator<Evenement> byTitre = Comparator.comparing(e -> lower(e.getTitre()));
+        Comparator<Evenement> byDate = Comparator.comparing(Evenement::getDateDebut,
+                Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        return switch (tri) {
+            case TITRE_ASC -> byTitre.thenComparing(recent);
+            case TITRE_DESC -> byTitre.reversed().thenComparing(recent);
+            case DATE_ASC -> byDate.thenComparing(recent);
+            case DATE_DESC -> byDate.reversed().thenComparing(recent);
+            case RECENT -> recent;
+        };
+    }
+
+    /**
+     * Même ordre que {@link #comparator()}, clés calculées une fois par événement (titre en minuscules)
+     * et tri découpé sur plusieurs threads au-delà du seuil ({@link AdaptiveParallel}).
+     */
+    public List<Evenement> trier(List<Evenement> events) {
+        Comparator<Evenement> recent = Comparator.comparingInt(Evenement::getIdEvent).reversed();
+        Comparator<LocalDateTime> byDate = Comparator.nullsFirst(Comparator.naturalOrder());
+        AdaptiveParallel par = AdaptiveParallel.getInstance();
+
+        return switch (tri) {
+            case TITRE_ASC -> par.sortByKey(events, e -> lower(e.getTitre()), Comparator.<String>naturalOrder(), recent);
+            case TITRE_DESC -> par.sortByKey(events, e -> lower(e.getTitre()), Comparator.<String>reverseOrder(), recent);
+            case DATE_ASC -> par.sortByKey(events, Evenement::getDateDebut, byDate, recent);
+            case DATE_DESC -> par.sortByKey(events, Evenement::getDateDebut, byDate.reversed(), recent);
+            case RECENT -> par.sortByKey(events, Evenement::getIdEvent, Comparator.<Integer>reverseOrder(), null);
+        };
+    }
+
+    private static String lower(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    /** Type, période, tri ; limite seulement sans mot-clé (sinon appliquée après {@link #matches}). */
+    public Query toQuery() {
+        StringBuilder sql = new StringBuilder("SELECT * FROM evenement WHERE 1=1");
+        List<Object> params = new ArrayList<>();
+
+        // ✅ comparaisons directes sur les colonnes indexées (type, date_debut)
+        if (type != null) {
+            sql.append(" AND type = ?");
+            params.add(type);
+        }
+        if (from != null) {
+            sql.append(" AND date_debut >= ?");
+            params.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND date_debut < ?");
+            params.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+
+        sql.append(" ORDER BY ").append(tri.orderBy);
+        if (tri != Tri.RECENT) sql.append(", id_event DESC");
+
+        if (limit > 0 && keyword == null) {
+            sql.append(" LIMIT ?");
+            params.add(limit);
+        }
+
+        return new Query(sql.toString(), params);
+    }
+}
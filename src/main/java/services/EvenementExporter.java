@@ -0,0 +1,292 @@
+package services;
+
+import com.google.gson.stream.JsonWriter;
+import entities.Evenement;
+import entities.Programme;
+import utils.CsvWriter;
+import utils.MyDataBase;
+import utils.ResultSetStream;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Export du catalogue complet (événements + programmes) en CSV, JSON Lines ou iCalendar.
+ * <p>
+ * Mémoire constante : les deux tables sont lues en flux ({@link ResultSetStream}, curseur serveur)
+ * dans le même ordre (id événement croissant) et fusionnées au fil de l'eau ; seuls les programmes
+ * de l'événement courant sont en mémoire. L'écriture passe par un {@link FileChannel} avec un
+ * tampon de 64 Ko, dans un fichier temporaire renommé à la fin (pas de fichier à moitié écrit).
+ * <p>
+ * Le CSV et le JSON Lines produits sont relus tels quels par {@link EvenementImporter}.
+ */
+public class EvenementExporter {
+
+    public enum Format {
+        CSV, JSONL, ICS;
+
+        public static Format of(Path fichier) {
+            String name = fichier.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".ics")) return ICS;
+            if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) return JSONL;
+            throw new IllegalArgumentException("Extension non supportée (csv, jsonl, ics) : " + name);
+        }
+    }
+
+    private static final int BUFFER = 1 << 16;
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final String UID_DOMAIN = "@pi-dev.evenements";
+
+    private final MyDataBase db;
+
+    public EvenementExporter() throws SQLException {
+        db = MyDataBase.getInstance();
+    }
+
+    /** Exporte tout le catalogue ; rend le nombre d'événements écrits. */
+    public long exporter(Path fichier, Format format) throws IOException, SQLException {
+        Path tmp = fichier.resolveSibling(fichier.getFileName() + ".part");
+
+        long count;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer out = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8.newEncoder(), BUFFER), BUFFER);
+             Stream<Evenement> events = ResultSetStream.of(db,
+                     "SELECT * FROM evenement ORDER BY id_event ASC", null, EvenementService::map);
+             Stream<Programme> programmes = ResultSetStream.of(db,
+                     "SELECT * FROM programme ORDER BY event_id ASC, date_debut ASC, id_prog ASC", null,
+                     ProgrammeService::map)) {
+
+            Sink sink = switch (format) {
+                case CSV -> new CsvSink(out);
+                case JSONL -> new JsonSink(out);
+                case ICS -> new IcsSink(out);
+            };
+            count = merge(events.iterator(), programmes.iterator(), sink);
+            out.flush();
+            ch.force(false);
+        } catch (IllegalStateException ex) {
+            // erreur de lecture du curseur (voir ResultSetStream)
+            Files.deleteIfExists(tmp);
+            if (ex.getCause() instanceof SQLException sql) throw sql;
+            throw ex;
+        } catch (IOException | SQLException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+
+        Files.move(tmp, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    /** Jointure par fusion : les deux flux sont triés par id événement. */
+    private static long merge(Iterator<Evenement> events, Iterator<Programme> programmes, Sink sink) throws IOException {
+        sink.begin();
+
+        long count = 0;
+        Programme next = programmes.hasNext() ? programmes.next() : null;
+        List<Programme> progs = new ArrayList<>();
+
+        while (events.hasNext()) {
+            Evenement e = events.next();
+
+            // programmes orphelins (id inférieur) ignorés
+            while (next != null && next.getEventId() < e.getIdEvent()) {
+                next = programmes.hasNext() ? programmes.next() : null;
+            }
+            progs.clear();
+            while (next != null && next.getEventId() == e.getIdEvent()) {
+                progs.add(next);
+                next = programmes.hasNext() ? programmes.next() : null;
+            }
+
+            sink.write(e, progs);
+            count++;
+        }
+
+        sink.end();
+        return count;
+    }
+
+    // ===================== formats =====================
+
+    private interface Sink {
+        default void begin() throws IOException {}
+        void write(Evenement e, List<Programme> programmes) throws IOException;
+        default void end() throws IOException {}
+    }
+
+    // mêmes colonnes que l'import : une ligne EVENEMENT suivie de ses lignes PROGRAMME
+    private static final class CsvSink implements Sink {
+        private final CsvWriter csv;
+
+        CsvSink(Writer out) {
+            csv = new CsvWriter(out, ',');
+        }
+
+        @Override
+        public void begin() throws IOException {
+            csv.row("ligne", "id", "titre", "description", "type", "date_debut", "date_fin", "lieu", "image");
+        }
+
+        @Override
+        public void write(Evenement e, List<Programme> programmes) throws IOException {
+            csv.row("EVENEMENT", String.valueOf(e.getIdEvent()), e.getTitre(), e.getDescription(), e.getType(),
+                    date(e.getDateDebut()), date(e.getDateFin()), e.getLieu(), e.getImage());
+            for (Programme p : programmes) {
+                csv.row("PROGRAMME", String.valueOf(p.getIdProg()), p.getTitre(), null, null,
+                        date(p.getDebut()), date(p.getFin()), null, null);
+            }
+        }
+    }
+
+    // un objet par ligne, programmes imbriqués
+    private static final class JsonSink implements Sink {
+        private final Writer out;
+        private final JsonWriter json;
+
+        JsonSink(Writer out) {
+            this.out = out;
+            json = new JsonWriter(out);
+            json.setLenient(true); // plusieurs valeurs à la racine
+        }
+
+        @Override
+        public void write(Evenement e, List<Programme> programmes) throws IOException {
+            json.beginObject();
+            json.name("id").value(e.getIdEvent());
+            json.name("titre").value(e.getTitre());
+            json.name("description").value(e.getDescription());
+            json.name("type").value(e.getType());
+            json.name("date_debut").value(date(e.getDateDebut()));
+            json.name("date_fin").value(date(e.getDateFin()));
+            json.name("lieu").value(e.getLieu());
+            json.name("image").value(e.getImage());
+
+            json.name("programmes").beginArray();
+            for (Programme p : programmes) {
+                json.beginObject();
+                json.name("id").value(p.getIdProg());
+                json.name("titre").value(p.getTitre());
+                json.name("date_debut").value(date(p.getDebut()));
+                json.name("date_fin").value(date(p.getFin()));
+                json.endObject();
+            }
+            json.endArray();
+            json.endObject();
+            out.write('\n');
+        }
+    }
+
+    /**
+     * RFC 5545 : un VEVENT par événement, un VEVENT par programme rattaché à son événement
+     * (RELATED-TO). Heures "flottantes" (sans fuseau), comme en base.
+     */
+    private static final class IcsSink implements Sink {
+        private final Writer out;
+        private final String stamp = LocalDateTime.now(ZoneOffset.UTC).format(ICS_DATE) + "Z";
+
+        IcsSink(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            line("BEGIN:VCALENDAR");
+            line("VERSION:2.0");
+            line("PRODID:-//PI_DEV//Gestion Evenements//FR");
+            line("CALSCALE:GREGORIAN");
+        }
+
+        @Override
+        public void write(Evenement e, List<Programme> programmes) throws IOException {
+            String uid = "evenement-" + e.getIdEvent() + UID_DOMAIN;
+
+            line("BEGIN:VEVENT");
+            line("UID:" + uid);
+            line("DTSTAMP:" + stamp);
+            if (e.getDateDebut() != null) line("DTSTART:" + e.getDateDebut().format(ICS_DATE));
+            if (e.getDateFin() != null) line("DTEND:" + e.getDateFin().format(ICS_DATE));
+            line("SUMMARY:" + text(e.getTitre()));
+            if (e.getDescription() != null) line("DESCRIPTION:" + text(e.getDescription()));
+            if (e.getLieu() != null) line("LOCATION:" + text(e.getLieu()));
+            if (e.getType() != null) line("CATEGORIES:" + text(e.getType()));
+            line("END:VEVENT");
+
+            for (Programme p : programmes) {
+                line("BEGIN:VEVENT");
+                line("UID:programme-" + p.getIdProg() + UID_DOMAIN);
+                line("DTSTAMP:" + stamp);
+                line("RELATED-TO;RELTYPE=PARENT:" + uid);
+                if (p.getDebut() != null) line("DTSTART:" + p.getDebut().format(ICS_DATE));
+                if (p.getFin() != null) line("DTEND:" + p.getFin().format(ICS_DATE));
+                line("SUMMARY:" + text(p.getTitre()));
+                if (e.getLieu() != null) line("LOCATION:" + text(e.getLieu()));
+                line("END:VEVENT");
+            }
+        }
+
+        @Override
+        public void end() throws IOException {
+            line("END:VCALENDAR");
+        }
+
+        // lignes de 75 octets max, suite préfixée par un espace ; CRLF obligatoire
+        private void line(String s) throws IOException {
+            int bytes = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                // paire de substitution comptée sur le premier char : jamais coupée en deux
+                int n = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4
+                        : Character.isLowSurrogate(c) ? 0 : 3;
+                if (n > 0 && bytes + n > 75) {
+                    out.write("\r\n ");
+                    bytes = 1;
+                }
+                out.write(c);
+                bytes += n;
+            }
+            out.write("\r\n");
+        }
+
+        private static String text(String s) {
+            if (s == null) return "";
+            StringBuilder sb = new StringBuilder(s.length() + 8);
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                switch (c) {
+                    case '\\' -> sb.append("\\\\");
+                    case ';' -> sb.append("\\;");
+                    case ',' -> sb.append("\\,");
+                    case '\n' -> sb.append("\\n");
+                    case '\r' -> {}
+                    default -> sb.append(c);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    private static String date(LocalDateTime d) {
+        return (d == null) ? null : d.format(DATE);
+    }
+}
@@ -0,0 +1,75 @@
+package services;
+
+import entities.Evenement;
+import entities.EvenementAvecProgrammes;
+import entities.Programme;
+import interfaces.IEvenementService;
+import interfaces.IProgrammeService;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Charge des événements avec leurs programmes sans le schéma N+1
+ * (1 requête événements + 1 requête programmes par événement).
+ * <p>
+ * Les événements viennent du service (souvent le cache, donc sans requête), puis les programmes
+ * de tous ces événements en une seule passe ({@link IProgrammeService#getByEventIds} : requêtes
+ * {@code IN (...)} par tranches de 500 ids ; un seul SELECT pour le catalogue complet).
+ * L'assemblage se fait en mémoire en un parcours.
+ * Comparatif avec la boucle par événement : {@code tests.GraphLoaderBench}.
+ */
+public class EvenementGraphLoader {
+
+    private static final Comparator<Programme> PAR_DEBUT = Comparator.comparing(
+            p -> p.getDebut() == null ? LocalDateTime.MAX : p.getDebut());
+
+    private final IEvenementService evenements;
+    private final IProgrammeService programmes;
+
+    public EvenementGraphLoader(IEvenementService evenements, IProgrammeService programmes) {
+        this.evenements = evenements;
+        this.programmes = programmes;
+    }
+
+    /** Un événement + son planning, ou null s'il n'existe pas. */
+    public EvenementAvecProgrammes getOne(int id) throws SQLException {
+        Evenement e = evenements.getOneById(id);
+        if (e == null) return null;
+        return new EvenementAvecProgrammes(e, programmes.getByEventId(id));
+    }
+
+    /** Tout le catalogue avec les plannings (ordre de getAll) : 2 requêtes au total. */
+    public List<EvenementAvecProgrammes> getAll() throws SQLException {
+        List<Evenement> events = evenements.getAll();
+
+        // table entière : un seul SELECT plutôt que des tranches IN (...)
+        Map<Integer, List<Programme>> byEvent = new HashMap<>();
+        for (Programme p : programmes.getAll()) {
+            byEvent.computeIfAbsent(p.getEventId(), k -> new ArrayList<>()).add(p);
+        }
+
+        List<EvenementAvecProgrammes> graph = new ArrayList<>(events.size());
+        for (Evenement e : events) {
+            List<Programme> progs = byEvent.getOrDefault(e.getIdEvent(), List.of());
+            if (progs.size() > 1) progs.sort(PAR_DEBUT);
+            graph.add(new EvenementAvecProgrammes(e, progs));
+        }
+        return graph;
+    }
+
+    /** Programmes d'une liste d'événements déjà chargée (page, résultat de recherche...), ordre conservé. */
+    public List<EvenementAvecProgrammes> load(List<Evenement> events) throws SQLException {
+        List<Integer> ids = new ArrayList<>(events.size());
+        for (Evenement e : events) ids.add(e.getIdEvent());
+
+        Map<Integer, List<Programme>> byEvent = programmes.getByEventIds(ids);
+
+        List<EvenementAvecProgrammes> graph = new ArrayList<>(events.size());
+        for (Evenement e : events) {
+            graph.add(new EvenementAvecProgrammes(e, byEvent.getOrDefault(e.getIdEvent(), List.of())));
+        }
+        return graph;
+    }
+}
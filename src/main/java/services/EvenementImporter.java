@@ -0,0 +1,577 @@
+package services;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import entities.Evenement;
+import entities.Programme;
+import interfaces.IEvenementService;
+import utils.CsvReader;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Import en masse d'un catalogue partenaire (CSV ou JSON) : événements + programmes.
+ * <p>
+ * Pipeline : lecture en flux (jamais le fichier entier en mémoire) -> validation
+ * ({@link EvenementValidator}, mêmes règles que les formulaires) -> lots écrits chacun en une
+ * transaction ({@link IEvenementService#addAllAvecProgrammes}) par au plus {@code parallelism}
+ * threads. Au plus {@code parallelism + 1} lots sont en mémoire à la fois.
+ * <p>
+ * Reprise : les lots validés sont notés dans {@code <fichier>.checkpoint}. Relancer l'import
+ * du même fichier saute ces lots ; le fichier de reprise est supprimé quand tout est importé.
+ * Les lignes rejetées sont ajoutées à {@code <fichier>.rejets} avec la raison, y compris un
+ * événement refusé à l'écriture parce que son lieu est déjà pris ({@link VenueConflictException}).
+ *
+ * <h3>Formats</h3>
+ * CSV (séparateur ',' ou ';', en-tête obligatoire) : colonnes
+ * {@code titre, description, type, date_debut, date_fin, lieu, image} et une colonne optionnelle
+ * {@code ligne} valant {@code EVENEMENT} (défaut) ou {@code PROGRAMME}. Une ligne PROGRAMME
+ * (titre, date_debut, date_fin) appartient à l'événement qui la précède.
+ * <p>
+ * JSON : un tableau d'objets ou un objet par ligne (JSON Lines), mêmes clés, programmes dans
+ * un tableau {@code "programmes"}.
+ * <p>
+ * Dates : {@code yyyy-MM-dd HH:mm[:ss]} ou ISO ({@code yyyy-MM-ddTHH:mm[:ss]}).
+ */
+public class EvenementImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+    private static final int ENTETE_MAX = 4096; // caractères lus pour deviner le séparateur CSV
+
+    /** Avancement (les callbacks arrivent sur les threads d'import, pas sur le thread FX). */
+    public record Progression(long lus, long importes, long programmes, long rejetes,
+                              double lignesParSeconde) {
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d lus, %d importés (%d programmes), %d rejetés, %.0f lignes/s",
+                    lus, importes, programmes, rejetes, lignesParSeconde);
+        }
+    }
+
+    private final IEvenementService service;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int parallelism = DEFAULT_PARALLELISM;
+    private Consumer<Progression> onProgress = p -> {};
+
+    public EvenementImporter(IEvenementService service) {
+        this.service = service;
+    }
+
+    /** Ignoré lors d'une reprise : la taille enregistrée dans le checkpoint fait foi. */
+    public EvenementImporter batchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+        return this;
+    }
+
+    public EvenementImporter parallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    public EvenementImporter onProgress(Consumer<Progression> onProgress) {
+        this.onProgress = (onProgress == null) ? p -> {} : onProgress;
+        return this;
+    }
+
+    /**
+     * Importe le fichier (reprend là où un import précédent s'est arrêté).
+     *
+     * @throws SQLException au premier lot en échec : les lots suivants ne sont pas lancés, ceux
+     *                      déjà validés restent notés dans le checkpoint pour la reprise
+     */
+    public Progression importer(Path fichier) throws IOException, SQLException {
+        Checkpoint cp = Checkpoint.load(sibling(fichier, ".checkpoint"), batchSize);
+        Run run = new Run(cp, sibling(fichier, ".rejets"));
+
+        AtomicInteger n = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "import-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        Semaphore slots = new Semaphore(parallelism);
+
+        try (Source src = open(fichier)) {
+            int index = 0;
+            Lot lot = new Lot(index);
+            Ligne l;
+
+            while ((l = src.next()) != null && run.failure.get() == null) {
+                lot.add(l);
+                if (lot.size() < cp.batchSize) continue;
+
+                submit(run, lot, pool, slots);
+                lot = new Lot(++index);
+            }
+            if (lot.size() > 0 && run.failure.get() == null) submit(run, lot, pool, slots);
+        } finally {
+            // attendre les lots en cours (y compris si la lecture a échoué)
+            slots.acquireUninterruptibly(parallelism);
+            pool.shutdown();
+        }
+
+        SQLException failure = run.failure.get();
+        if (failure != null) {
+            throw new SQLException("Import interrompu (reprise possible : " + cp.file.getFileName() + ") : "
+                    + failure.getMessage(), failure);
+        }
+
+        Progression fin = run.progression();
+        Files.deleteIfExists(cp.file);
+        onProgress.accept(fin);
+        return fin;
+    }
+
+    private void submit(Run run, Lot lot, ExecutorService pool, Semaphore slots) {
+        if (run.cp.isDone(lot.index)) {
+            run.skipped(lot);
+            return;
+        }
+        slots.acquireUninterruptibly();
+        try {
+            pool.execute(() -> {
+                try {
+                    ecrire(lot);
+                    run.committed(lot);
+                    onProgress.accept(run.progression());
+                } catch (SQLException ex) {
+                    run.failure.compareAndSet(null, ex);
+                } catch (RuntimeException ex) {
+                    run.failure.compareAndSet(null, new SQLException(ex.getMessage(), ex));
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            slots.release();
+            throw ex;
+        }
+    }
+
+    // ✅ lieu déjà pris : la ligne fautive passe dans les rejets, le reste du lot est réécrit
+    private void ecrire(Lot lot) throws SQLException {
+        while (!lot.valides.isEmpty()) {
+            try {
+                service.addAllAvecProgrammes(lot.valides);
+                return;
+            } catch (VenueConflictException ex) {
+                if (!lot.rejeter(ex.getEvenement(), ex.getMessage())) throw ex;
+            }
+        }
+    }
+
+    // ===================== état d'un import =====================
+
+    /** Compteurs + checkpoint, partagés entre le lecteur et les threads d'écriture. */
+    private static final class Run {
+        final Checkpoint cp;
+        final Path rejets;
+        final AtomicReference<SQLException> failure = new AtomicReference<>();
+        final long start = System.nanoTime();
+        long lus;
+        long traites; // hors lots sautés (reprise) : base du débit
+
+        Run(Checkpoint cp, Path rejets) {
+            this.cp = cp;
+            this.rejets = rejets;
+        }
+
+        synchronized void skipped(Lot lot) {
+            lus += lot.size();
+        }
+
+        synchronized void committed(Lot lot) throws SQLException {
+            lus += lot.size();
+            traites += lot.size();
+            cp.importes += lot.valides.size();
+            cp.programmes += lot.programmes;
+            cp.rejetes += lot.rejets.size();
+
+            try {
+                if (!lot.rejets.isEmpty()) {
+                    Files.write(rejets, lot.rejets, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                cp.markDone(lot.index);
+            } catch (IOException ex) {
+                throw new SQLException("Checkpoint non écrit : " + ex.getMessage(), ex);
+            }
+        }
+
+        synchronized Progression progression() {
+            double secondes = Math.max(1e-3, (System.nanoTime() - start) / 1e9);
+            return new Progression(lus, cp.importes, cp.programmes, cp.rejetes, traites / secondes);
+        }
+    }
+
+    /** Un lot : événements valides (avec leurs programmes) + lignes rejetées, écrits ensemble. */
+    private static final class Lot {
+        final int index;
+        final Map<Evenement, List<Programme>> valides = new LinkedHashMap<>();
+        final Map<Evenement, String> positions = new IdentityHashMap<>();
+        final List<String> rejets = new ArrayList<>();
+        int programmes;
+        int size;
+
+        Lot(int index) {
+            this.index = index;
+        }
+
+        void add(Ligne l) {
+            size++;
+            String erreur = l.erreur != null ? l.erreur : verifier(l);
+            if (erreur != null) {
+                rejets.add(l.position + " : " + erreur);
+                return;
+            }
+            valides.put(l.evenement, l.programmes);
+            positions.put(l.evenement, l.position);
+            programmes += l.programmes.size();
+        }
+
+        /** Retire un événement refusé à l'écriture ; false s'il n'est pas dans ce lot. */
+        boolean rejeter(Evenement e, String erreur) {
+            List<Programme> progs = valides.remove(e);
+            if (progs == null) return false;
+            programmes -= progs.size();
+            rejets.add(positions.remove(e) + " : " + erreur);
+            return true;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private static String verifier(Ligne l) {
+            String erreur = EvenementValidator.verifier(l.evenement);
+            if (erreur != null) return erreur;
+            for (Programme p : l.programmes) {
+                erreur = EvenementValidator.verifier(p);
+                if (erreur != null) return "programme '" + p.getTitre() + "' : " + erreur;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Lots validés. {@code next} = premier lot pas encore validé ; {@code done} = lots validés
+     * au-delà (écritures parallèles terminées dans le désordre).
+     */
+    private static final class Checkpoint {
+        final Path file;
+        final int batchSize;
+        int next;
+        final TreeSet<Integer> done = new TreeSet<>();
+        long importes, programmes, rejetes;
+
+        private Checkpoint(Path file, int batchSize) {
+            this.file = file;
+            this.batchSize = batchSize;
+        }
+
+        static Checkpoint load(Path file, int batchSize) throws IOException {
+            if (!Files.exists(file)) return new Checkpoint(file, batchSize);
+
+            Properties p = new Properties();
+            try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                p.load(r);
+            }
+            Checkpoint cp = new Checkpoint(file, Integer.parseInt(p.getProperty("batchSize")));
+            cp.next = Integer.parseInt(p.getProperty("next", "0"));
+            for (String s : p.getProperty("done", "").split(",")) {
+                if (!s.isBlank()) cp.done.add(Integer.parseInt(s.trim()));
+            }
+            cp.importes = Long.parseLong(p.getProperty("importes", "0"));
+            cp.programmes = Long.parseLong(p.getProperty("programmes", "0"));
+            cp.rejetes = Long.parseLong(p.getProperty("rejetes", "0"));
+            return cp;
+        }
+
+        boolean isDone(int index) {
+            return index < next || done.contains(index);
+        }
+
+        void markDone(int index) throws IOException {
+            done.add(index);
+            while (done.remove(next)) next++;
+            save();
+        }
+
+        // écriture atomique : un arrêt brutal laisse l'ancien checkpoint ou le nouveau, jamais un mélange
+        private void save() throws IOException {
+            Properties p = new Properties();
+            p.setProperty("batchSize", String.valueOf(batchSize));
+            p.setProperty("next", String.valueOf(next));
+            StringJoiner j = new StringJoiner(",");
+            done.forEach(i -> j.add(String.valueOf(i)));
+            p.setProperty("done", j.toString());
+            p.setProperty("importes", String.valueOf(importes));
+            p.setProperty("programmes", String.valueOf(programmes));
+            p.setProperty("rejetes", String.valueOf(rejetes));
+
+            Path tmp = sibling(file, ".tmp");
+            try (Writer w = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                p.store(w, "import en cours - ne pas modifier");
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    // ===================== lecture =====================
+
+    /** Un événement lu (ou une erreur de lecture) + ses programmes. */
+    private record Ligne(String position, Evenement evenement, List<Programme> programmes, String erreur) {}
+
+    private interface Source extends Closeable {
+        Ligne next() throws IOException;
+    }
+
+    private static Source open(Path fichier) throws IOException {
+        String name = fichier.getFileName().toString().toLowerCase(Locale.ROOT);
+        BufferedReader r = Files.newBufferedReader(fichier, StandardCharsets.UTF_8);
+        try {
+            // BOM (export Excel) : un seul caractère lu, rien n'est mis de côté
+            r.mark(1);
+            if (r.read() != '\uFEFF') r.reset();
+
+            if (name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                return new JsonSource(r);
+            }
+            if (name.endsWith(".csv")) return new CsvSource(r);
+        } catch (IOException | RuntimeException ex) {
+            r.close();
+            throw ex;
+        }
+        r.close();
+        throw new IOException("Format non supporté (csv, json, jsonl) : " + fichier.getFileName());
+    }
+
+    private static final class CsvSource implements Source {
+        private final CsvReader csv;
+        private final Map<String, Integer> cols = new HashMap<>();
+        private List<String> pending;
+
+        CsvSource(BufferedReader r) throws IOException {
+            // séparateur deviné sur le début de l'en-tête : lecture bornée, le mark ne peut pas expirer
+            char[] tete = new char[ENTETE_MAX];
+            r.mark(tete.length);
+            int n = 0;
+            for (int k; n < tete.length && (k = r.read(tete, n, tete.length - n)) > 0; ) n += k;
+            r.reset();
+            if (n == 0) throw new IOException("Fichier CSV vide");
+
+            String first = new String(tete, 0, n).lines().findFirst().orElse("");
+            char sep = first.indexOf(';') >= 0 && first.indexOf(',') < 0 ? ';' : ',';
+            csv = new CsvReader(r, sep);
+
+            List<String> header = csv.next();
+            for (int i = 0; i < header.size(); i++) {
+                cols.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!cols.containsKey("titre")) throw new IOException("Colonne 'titre' absente de l'en-tête");
+            pending = csv.next();
+        }
+
+        @Override
+        public Ligne next() throws IOException {
+            List<String> row = pending;
+            if (row == null) return null;
+            String position = "ligne " + csv.getLine();
+
+            pending = csv.next();
+            if (isProgramme(row)) {
+                return new Ligne(position, null, List.of(), "programme sans événement");
+            }
+
+            Evenement e;
+            List<Programme> progs = new ArrayList<>();
+            String erreur = null;
+            try {
+                e = new Evenement(col(row, "titre"), col(row, "description"), upper(col(row, "type")),
+                        date(col(row, "date_debut")), date(col(row, "date_fin")), col(row, "lieu"));
+                e.setImage(col(row, "image"));
+                normaliser(e);
+            } catch (DateTimeParseException ex) {
+                e = null;
+                erreur = "date invalide '" + ex.getParsedString() + "'";
+            }
+
+            // programmes qui suivent l'événement
+            while (pending != null && isProgramme(pending)) {
+                if (erreur == null) {
+                    try {
+                        progs.add(new Programme(0, col(pending, "titre"),
+                                date(col(pending, "date_debut")), date(col(pending, "date_fin"))));
+                    } catch (DateTimeParseException ex) {
+                        erreur = "date programme invalide '" + ex.getParsedString() + "' (ligne " + csv.getLine() + ")";
+                    }
+                }
+                pending = csv.next();
+            }
+            return new Ligne(position, e, progs, erreur);
+        }
+
+        private boolean isProgramme(List<String> row) {
+            return "PROGRAMME".equals(upper(col(row, "ligne")));
+        }
+
+        private String col(List<String> row, String name) {
+            Integer i = cols.get(name);
+            if (i == null || i >= row.size()) return null;
+            String v = row.get(i).trim();
+            return v.isEmpty() ? null : v;
+        }
+
+        @Override
+        public void close() throws IOException {
+            csv.close();
+        }
+    }
+
+    /**
+     * Tableau JSON : lu en flux ; un enregistrement illisible est rejeté et termine la lecture
+     * (la suite du tableau n'a plus de structure fiable). JSON Lines : chaque ligne est lue seule,
+     * une ligne illisible est rejetée et la lecture continue.
+     */
+    private static final class JsonSource implements Source {
+        private final BufferedReader lignes;
+        private final JsonReader json; // null : JSON Lines
+        private long count;
+        private boolean fini;
+
+        JsonSource(BufferedReader r) throws IOException {
+            int c;
+            do {
+                r.mark(1);
+                c = r.read();
+            } while (c >= 0 && Character.isWhitespace(c));
+            if (c >= 0) r.reset();
+
+            lignes = r;
+            if (c == '[') {
+                json = new JsonReader(r);
+                json.setLenient(true);
+                json.beginArray();
+            } else {
+                json = null;
+            }
+        }
+
+        @Override
+        public Ligne next() throws IOException {
+            if (fini) return null;
+            return json != null ? suivantTableau() : suivanteLigne();
+        }
+
+        private Ligne suivantTableau() throws IOException {
+            String position = "enregistrement " + (count + 1);
+            try {
+                JsonToken t = json.peek();
+                if (t == JsonToken.END_DOCUMENT || t == JsonToken.END_ARRAY) return null;
+                count++;
+                return ligne(position, JsonParser.parseReader(json));
+            } catch (MalformedJsonException | JsonSyntaxException ex) {
+                fini = true;
+                return new Ligne(position, null, List.of(),
+                        "JSON invalide : " + cause(ex) + " (suite du fichier ignorée)");
+            }
+        }
+
+        private Ligne suivanteLigne() throws IOException {
+            String l;
+            do {
+                l = lignes.readLine();
+                if (l == null) return null;
+                count++;
+            } while (l.isBlank());
+
+            String position = "ligne " + count;
+            try {
+                return ligne(position, JsonParser.parseString(l));
+            } catch (JsonSyntaxException ex) {
+                return new Ligne(position, null, List.of(), "JSON invalide : " + cause(ex));
+            }
+        }
+
+        private static String cause(Exception ex) {
+            return ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage();
+        }
+
+        private static Ligne ligne(String position, JsonElement el) {
+            if (!el.isJsonObject()) return new Ligne(position, null, List.of(), "objet JSON attendu");
+            JsonObject o = el.getAsJsonObject();
+
+            try {
+                Evenement e = new Evenement(str(o, "titre"), str(o, "description"), upper(str(o, "type")),
+                        date(str(o, "date_debut")), date(str(o, "date_fin")), str(o, "lieu"));
+                e.setImage(str(o, "image"));
+                normaliser(e);
+
+                List<Programme> progs = new ArrayList<>();
+                JsonElement arr = o.get("programmes");
+                if (arr != null && arr.isJsonArray()) {
+                    for (JsonElement pe : (JsonArray) arr) {
+                        if (!pe.isJsonObject()) continue;
+                        JsonObject po = pe.getAsJsonObject();
+                        progs.add(new Programme(0, str(po, "titre"),
+                                date(str(po, "date_debut")), date(str(po, "date_fin"))));
+                    }
+                }
+                return new Ligne(position, e, progs, null);
+            } catch (DateTimeParseException ex) {
+                return new Ligne(position, null, List.of(), "date invalide '" + ex.getParsedString() + "'");
+            } catch (IllegalStateException | UnsupportedOperationException ex) {
+                return new Ligne(position, null, List.of(), "valeur invalide : " + ex.getMessage());
+            }
+        }
+
+        private static String str(JsonObject o, String key) {
+            JsonElement v = o.get(key);
+            if (v == null || v.isJsonNull()) return null;
+            String s = v.getAsString().trim();
+            return s.isEmpty() ? null : s;
+        }
+
+        @Override
+        public void close() throws IOException {
+            lignes.close();
+        }
+    }
+
+    // comme le formulaire : date fin ignorée pour les types d'un jour
+    private static void normaliser(Evenement e) {
+        if (!EvenementValidator.needFin(e.getType())) e.setDateFin(null);
+    }
+
+    private static LocalDateTime date(String s) {
+        return (s == null) ? null : LocalDateTime.parse(s.replace('T', ' '), DATE);
+    }
+
+    private static String upper(String s) {
+        return (s == null) ? null : s.toUpperCase(Locale.ROOT);
+    }
+
+    private static Path sibling(Path p, String suffix) {
+        return p.resolveSibling(p.getFileName() + suffix);
+    }
+}
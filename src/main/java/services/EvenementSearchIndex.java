@@ -0,0 +1,190 @@
+package services;
+
+import entities.Evenement;
+import utils.TextNormalizer;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Index inversé en mémoire sur titre / description / lieu.
+ * <p>
+ * Les mots sont repliés (minuscules, sans accents) et rangés dans un TreeMap : une recherche
+ * par préfixe ("camp" -> "camping", "campement") est un simple {@code subMap}. Tous les mots
+ * de la requête doivent correspondre (ET) ; le score favorise le titre, puis le lieu, puis la
+ * description, et une correspondance exacte plutôt qu'un préfixe.
+ * <p>
+ * Mise à jour incrémentale via {@link #put} / {@link #remove}. Non thread-safe : l'appelant
+ * synchronise (voir {@link EvenementCacheService}).
+ */
+public class EvenementSearchIndex {
+
+    private static final int W_TITRE = 8;
+    private static final int W_LIEU = 4;
+    private static final int W_DESCRIPTION = 1;
+
+    // mot -> (id événement -> poids cumulé des champs où le mot apparaît)
+    private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    // id -> (mot -> poids) : pour retirer un événement et vérifier un candidat sans repasser par postings
+    private final Map<Integer, Map<String, Integer>> docTerms = new HashMap<>();
+
+    public void put(Evenement e) {
+        remove(e.getIdEvent());
+
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, e.getTitre(), W_TITRE);
+        addField(weights, e.getLieu(), W_LIEU);
+        addField(weights, e.getDescription(), W_DESCRIPTION);
+
+        int id = e.getIdEvent();
+        weights.forEach((term, w) -> postings.computeIfAbsent(term, k -> new HashMap<>()).put(id, w));
+        docTerms.put(id, weights);
+    }
+
+    public void remove(int id) {
+        Map<String, Integer> terms = docTerms.remove(id);
+        if (terms == null) return;
+        for (String term : terms.keySet()) {
+            Map<Integer, Integer> p = postings.get(term);
+            if (p != null && p.remove(id) != null && p.isEmpty()) postings.remove(term);
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        docTerms.clear();
+    }
+
+    public int size() {
+        return docTerms.size();
+    }
+
+    /**
+     * Ids correspondant à la requête, du plus pertinent au moins pertinent
+     * (à score égal : id décroissant, comme getAll). Requête vide => liste vide.
+     */
+    public List<Integer> search(String query) {
+        List<String> words = TextNormalizer.tokens(query);
+        if (words.isEmpty()) return List.of();
+
+        // ✅ on part du mot le plus sélectif, les autres mots sont vérifiés sur les seuls candidats
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(words));
+        String first = null;
+        long best = Long.MAX_VALUE;
+        for (String w : distinct) {
+            long n = estimate(w, best);
+            if (n == 0) return List.of();
+            if (n < best) {
+                best = n;
+                first = w;
+            }
+        }
+
+        Map<Integer, Integer> total = scoresFor(first);
+        for (String w : distinct) {
+            if (w.equals(first)) continue;
+            total.entrySet().removeIf(en -> {
+                int s = docScore(docTerms.get(en.getKey()), w);
+                if (s == 0) return true;
+                en.setValue(en.getValue() + s);
+                return false;
+            });
+            if (total.isEmpty()) return List.of();
+        }
+
+        // tri (score desc, id desc) sur des clés primitives : score << 32 | id
+        long[] keys = new long[total.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> en : total.entrySet()) {
+            keys[i++] = ((long) en.getValue() << 32) | (en.getKey() & 0xFFFFFFFFL);
+        }
+        Arrays.sort(keys);
+
+        List<Integer> ids = new ArrayList<>(keys.length);
+        for (int k = keys.length - 1; k >= 0; k--) ids.add((int) keys[k]);
+        return ids;
+    }
+
+    /**
+     * Même règle que {@link #search} appliquée à une liste déjà chargée (affinage incrémental) :
+     * chaque mot de la requête doit être le préfixe d'un mot du titre, du lieu ou de la description.
+     * L'ordre de la liste est conservé.
+     */
+    public static List<Evenement> filter(List<Evenement> events, String query) {
+        List<String> words = TextNormalizer.tokens(query);
+        if (words.isEmpty()) return events;
+
+        List<Evenement> out = new ArrayList<>();
+        for (Evenement e : events) {
+            if (matches(e, words)) out.add(e);
+        }
+        return out;
+    }
+
+    /** Règle de {@link #filter} pour un événement à la fois (la requête est découpée une seule fois). */
+    public static Predicate<Evenement> matcher(String query) {
+        List<String> words = TextNormalizer.tokens(query);
+        if (words.isEmpty()) return e -> true;
+        return e -> matches(e, words);
+    }
+
+    private static boolean matches(Evenement e, List<String> words) {
+        List<String> terms = new ArrayList<>();
+        terms.addAll(TextNormalizer.tokens(e.getTitre()));
+        terms.addAll(TextNormalizer.tokens(e.getLieu()));
+        terms.addAll(TextNormalizer.tokens(e.getDescription()));
+
+        for (String w : words) {
+            boolean found = false;
+            for (String t : terms) {
+                if (t.startsWith(w)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    /** Nombre (approché, borné par {@code cap}) de documents contenant un mot commençant par {@code word}. */
+    private long estimate(String word, long cap) {
+        long n = 0;
+        for (Map<Integer, Integer> p : postings.subMap(word, word + Character.MAX_VALUE).values()) {
+            n += p.size();
+            if (n >= cap) break;
+        }
+        return n;
+    }
+
+    private static int docScore(Map<String, Integer> terms, String word) {
+        int best = 0;
+        for (Map.Entry<String, Integer> t : terms.entrySet()) {
+            if (!t.getKey().startsWith(word)) continue;
+            int s = t.getKey().length() == word.length() ? t.getValue() * 2 : t.getValue();
+            best = Math.max(best, s);
+        }
+        return best;
+    }
+
+    /** Meilleur score par document pour un mot de requête (préfixe ; exact = bonus). */
+    private Map<Integer, Integer> scoresFor(String word) {
+        Map<Integer, Integer> scores = new HashMap<>();
+        SortedMap<String, Map<Integer, Integer>> range = postings.subMap(word, word + Character.MAX_VALUE);
+
+        for (Map.Entry<String, Map<Integer, Integer>> en : range.entrySet()) {
+            boolean exact = en.getKey().length() == word.length();
+            for (Map.Entry<Integer, Integer> p : en.getValue().entrySet()) {
+                int s = exact ? p.getValue() * 2 : p.getValue();
+                scores.merge(p.getKey(), s, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String t : TextNormalizer.tokens(text)) {
+            weights.merge(t, weight, (a, b) -> a | b);
+        }
+    }
+}
@@ -1,21 +1,30 @@
 package services;
 
 import entities.Evenement;
+import entities.Programme;
+import entities.TypeEvenement;
 import interfaces.IEvenementService;
+import utils.AdaptiveParallel;
 import utils.MyDataBase;
+import utils.ResultSetStream;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 public class EvenementService implements IEvenementService {
 
-    private final Connection cnx;
+    // lignes lues par page quand searchPage filtre en mémoire
+    private static final int SCAN_PAGE = 500;
+
+    private final MyDataBase db;
 
     public EvenementService() throws SQLException {
-        cnx = MyDataBase.getInstance().getCnx();
-        if (cnx == null) {
-            throw new SQLException("Connexion DB null (cnx=null). Vérifie MySQL et MyDataBase.");
-        }
+        // les connexions sont empruntées au pool à chaque appel
+        db = MyDataBase.getInstance();
     }
 
     @Override
@@ -23,73 +32,240 @@ public class EvenementService implements IEvenementService {
         String sql = "INSERT INTO evenement (titre, description, type, date_debut, date_fin, lieu, image) " +
                 "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setString(1, e.getTitre());
-            ps.setString(2, e.getDescription());
-            ps.setString(3, e.getType());
-
-            if (e.getDateDebut() == null) ps.setNull(4, Types.TIMESTAMP);
-            else ps.setTimestamp(4, Timestamp.valueOf(e.getDateDebut()));
+        ChangeBus.Change change;
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                verifierLieux(cnx, List.of(e));
+                bind(ps, e);
+                ps.executeUpdate();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) e.setIdEvent(rs.getInt(1));
+                }
+                change = ChangeBus.evenement(ChangeBus.Op.AJOUT, e);
+                ChangeLog.noter(cnx, List.of(change));
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            }
+        }
+        ChangeBus.getInstance().publish(change);
+    }
 
-            if (e.getDateFin() == null) ps.setNull(5, Types.TIMESTAMP);
-            else ps.setTimestamp(5, Timestamp.valueOf(e.getDateFin()));
+    // ✅ insertion groupée : lots JDBC (réécrits en INSERT multi-lignes), une seule transaction
+    @Override
+    public void addAll(List<Evenement> events) throws SQLException {
+        if (events.isEmpty()) return;
+
+        List<ChangeBus.Change> changes = new ArrayList<>(events.size());
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try {
+                verifierLieux(cnx, events);
+                insertBatch(cnx, events);
+                for (Evenement e : events) changes.add(ChangeBus.evenement(ChangeBus.Op.AJOUT, e));
+                ChangeLog.noter(cnx, changes);
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                for (Evenement e : events) e.setIdEvent(0); // ids des lignes annulées
+                throw ex;
+            }
+        }
+        ChangeBus.getInstance().publishAll(changes);
+    }
 
-            ps.setString(6, e.getLieu());
+    // ✅ événement + programmes en une transaction : tout est enregistré, ou rien
+    @Override
+    public void addAvecProgrammes(Evenement e, List<Programme> programmes) throws SQLException {
+        Map<Evenement, List<Programme>> one = new LinkedHashMap<>();
+        one.put(e, programmes);
+        addAllAvecProgrammes(one);
+    }
 
-            // image (nullable)
-            if (e.getImage() == null || e.getImage().isBlank()) ps.setNull(7, Types.VARCHAR);
-            else ps.setString(7, e.getImage());
+    // ✅ plusieurs événements + leurs programmes : deux INSERT par lots, une transaction
+    @Override
+    public void addAllAvecProgrammes(Map<Evenement, List<Programme>> events) throws SQLException {
+        if (events.isEmpty()) return;
+
+        List<ChangeBus.Change> changes = new ArrayList<>();
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try {
+                List<Evenement> lot = new ArrayList<>(events.keySet());
+                verifierLieux(cnx, lot);
+                insertBatch(cnx, lot);
+
+                List<Programme> programmes = new ArrayList<>();
+                events.forEach((e, progs) -> {
+                    for (Programme p : progs) {
+                        p.setEventId(e.getIdEvent());
+                        programmes.add(p);
+                    }
+                });
+                ProgrammeService.insertBatch(cnx, programmes);
+
+                for (Evenement e : events.keySet()) changes.add(ChangeBus.evenement(ChangeBus.Op.AJOUT, e));
+                for (Programme p : programmes) changes.add(ChangeBus.programme(ChangeBus.Op.AJOUT, p));
+                ChangeLog.noter(cnx, changes);
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                events.forEach((e, progs) -> {
+                    e.setIdEvent(0);
+                    for (Programme p : progs) p.setIdProg(0);
+                });
+                throw ex;
+            }
+        }
+        ChangeBus.getInstance().publishAll(changes);
+    }
 
-            ps.executeUpdate();
+    private void insertBatch(Connection cnx, List<Evenement> events) throws SQLException {
+        String sql = "INSERT INTO evenement (titre, description, type, date_debut, date_fin, lieu, image) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) e.setIdEvent(rs.getInt(1));
+        try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int from = 0; from < events.size(); from += ProgrammeService.BATCH_SIZE) {
+                List<Evenement> chunk = events.subList(from, Math.min(from + ProgrammeService.BATCH_SIZE, events.size()));
+
+                for (Evenement e : chunk) {
+                    bind(ps, e);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    for (Evenement e : chunk) {
+                        if (!rs.next()) break;
+                        e.setIdEvent(rs.getInt(1));
+                    }
+                }
             }
         }
     }
 
-    @Override
-    public void update(Evenement e) throws SQLException {
-        String sql = "UPDATE evenement SET titre=?, description=?, type=?, date_debut=?, date_fin=?, lieu=?, image=? " +
-                "WHERE id_event=?";
+    /**
+     * ✅ Lieu libre pour chaque événement, vérifié dans la transaction de l'écriture : contre la base
+     * (hors l'événement lui-même), puis contre les événements précédents du même lot.
+     * Une seule requête sur la fenêtre de dates du lot ; le filtre par lieu ({@link VenueScheduler#cle})
+     * se fait ici, la clé normalisée n'étant pas en base.
+     *
+     * @throws VenueConflictException pour le premier événement dont le lieu est déjà pris
+     */
+    static void verifierLieux(Connection cnx, List<Evenement> events) throws SQLException {
+        Set<String> lieux = new HashSet<>();
+        LocalDateTime min = null, max = null;
+        for (Evenement e : events) {
+            if (e.getDateDebut() == null || VenueScheduler.cle(e.getLieu()).isEmpty()) continue;
+            lieux.add(VenueScheduler.cle(e.getLieu()));
+            if (min == null || e.getDateDebut().isBefore(min)) min = e.getDateDebut();
+            LocalDateTime fin = VenueScheduler.finOccupation(e);
+            if (max == null || fin.isAfter(max)) max = fin;
+        }
+        if (lieux.isEmpty()) return;
 
+        // sans date fin (ou fin <= début), une ligne occupe son lieu jusqu'à minuit : au plus un jour
+        VenueScheduler occupes = new VenueScheduler();
+        String sql = "SELECT * FROM evenement WHERE date_debut < ? AND (date_fin > ? OR date_debut > ?)";
         try (PreparedStatement ps = cnx.prepareStatement(sql)) {
-            ps.setString(1, e.getTitre());
-            ps.setString(2, e.getDescription());
-            ps.setString(3, e.getType());
-
-            if (e.getDateDebut() == null) ps.setNull(4, Types.TIMESTAMP);
-            else ps.setTimestamp(4, Timestamp.valueOf(e.getDateDebut()));
-
-            if (e.getDateFin() == null) ps.setNull(5, Types.TIMESTAMP);
-            else ps.setTimestamp(5, Timestamp.valueOf(e.getDateFin()));
+            ps.setTimestamp(1, Timestamp.valueOf(max));
+            ps.setTimestamp(2, Timestamp.valueOf(min));
+            ps.setTimestamp(3, Timestamp.valueOf(min.minusDays(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Evenement o = map(rs);
+                    if (lieux.contains(VenueScheduler.cle(o.getLieu()))) occupes.put(o);
+                }
+            }
+        }
 
-            ps.setString(6, e.getLieu());
+        int provisoire = 0;
+        for (Evenement e : events) {
+            if (e.getDateDebut() == null || VenueScheduler.cle(e.getLieu()).isEmpty()) continue;
+            // id 0 pour tous les nouveaux : id provisoire pour les distinguer dans le lot
+            Evenement v = e;
+            if (e.getIdEvent() == 0) {
+                v = JournalStore.copy(e);
+                v.setIdEvent(--provisoire);
+            }
+            List<Evenement> conflits = occupes.conflits(v);
+            if (!conflits.isEmpty()) {
+                occupationsSuivantes(cnx, e, occupes); // pour le prochain créneau libre
+                throw new VenueConflictException(e, conflits, occupes.prochainCreneau(v));
+            }
+            occupes.put(v);
+        }
+    }
 
-            // image (nullable)
-            if (e.getImage() == null || e.getImage().isBlank()) ps.setNull(7, Types.VARCHAR);
-            else ps.setString(7, e.getImage());
+    // occupations du lieu de e qui finissent après son début
+    private static void occupationsSuivantes(Connection cnx, Evenement e, VenueScheduler occupes) throws SQLException {
+        String lieu = VenueScheduler.cle(e.getLieu());
+        String sql = "SELECT * FROM evenement WHERE date_fin > ? OR date_debut > ?";
+        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(e.getDateDebut()));
+            ps.setTimestamp(2, Timestamp.valueOf(e.getDateDebut().minusDays(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Evenement o = map(rs);
+                    if (lieu.equals(VenueScheduler.cle(o.getLieu()))) occupes.put(o);
+                }
+            }
+        }
+    }
 
-            ps.setInt(8, e.getIdEvent());
+    @Override
+    public void update(Evenement e) throws SQLException {
+        String sql = "UPDATE evenement SET titre=?, description=?, type=?, date_debut=?, date_fin=?, lieu=?, image=? " +
+                "WHERE id_event=?";
 
-            ps.executeUpdate();
+        ChangeBus.Change change;
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+                verifierLieux(cnx, List.of(e));
+                bind(ps, e);
+                ps.setInt(8, e.getIdEvent());
+                ps.executeUpdate();
+
+                change = ChangeBus.evenement(ChangeBus.Op.MODIF, e);
+                ChangeLog.noter(cnx, List.of(change));
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            }
         }
+        ChangeBus.getInstance().publish(change);
     }
 
     @Override
     public void delete(int id) throws SQLException {
         String sql = "DELETE FROM evenement WHERE id_event=?";
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
+        ChangeBus.Change change = ChangeBus.evenementSupprime(id);
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+                ps.setInt(1, id);
+                ps.executeUpdate(); // programmes supprimés en cascade : un seul changement publié
+                ChangeLog.noter(cnx, List.of(change));
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            }
         }
+        ChangeBus.getInstance().publish(change);
     }
 
     @Override
     public List<Evenement> getAll() throws SQLException {
         String sql = "SELECT * FROM evenement ORDER BY id_event DESC";
         List<Evenement> list = new ArrayList<>();
-        try (PreparedStatement ps = cnx.prepareStatement(sql);
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             while (rs.next()) list.add(map(rs));
         }
@@ -99,7 +275,8 @@ public class EvenementService implements IEvenementService {
     @Override
     public Evenement getOneById(int id) throws SQLException {
         String sql = "SELECT * FROM evenement WHERE id_event=?";
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql)) {
             ps.setInt(1, id);
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) return null;
@@ -108,24 +285,71 @@ public class EvenementService implements IEvenementService {
         }
     }
 
-    // ✅ Search SQL
+    // ✅ Recherche : même règle et même ordre que le cache (EvenementSearchIndex : mots sans accents,
+    // par préfixe, classés par pertinence) ; les lignes sont lues en flux et seules les retenues sont indexées
+    @Override
     public List<Evenement> search(String keyword) throws SQLException {
-        String k = (keyword == null) ? "" : keyword.toLowerCase().trim();
+        if (keyword == null || keyword.isBlank()) return getAll();
+
+        Predicate<Evenement> garde = EvenementSearchIndex.matcher(keyword);
+        EvenementSearchIndex index = new EvenementSearchIndex();
+        Map<Integer, Evenement> parId = new HashMap<>();
+        try (Stream<Evenement> rows = stream()) {
+            rows.filter(garde).forEach(e -> {
+                index.put(e);
+                parId.put(e.getIdEvent(), e);
+            });
+        }
+
+        List<Evenement> list = new ArrayList<>(parId.size());
+        for (int id : index.search(keyword)) list.add(parId.get(id));
+        return list;
+    }
 
-        String sql = """
-            SELECT * FROM evenement
-            WHERE LOWER(titre) LIKE ?
-               OR LOWER(description) LIKE ?
-               OR LOWER(lieu) LIKE ?
-            ORDER BY id_event DESC
-        """;
+    // ✅ Filtre + tri (+ limite sans mot-clé) compilés en une seule requête (voir EvenementCriteria) ;
+    // le mot-clé, règle de l'index de recherche, est vérifié sur les lignes lues
+    @Override
+    public List<Evenement> find(EvenementCriteria criteria) throws SQLException {
+        EvenementCriteria.Query q = criteria.toQuery();
+        boolean motCle = criteria.getKeyword() != null;
+        int limit = criteria.getLimit();
 
         List<Evenement> list = new ArrayList<>();
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
-            String like = "%" + k + "%";
-            ps.setString(1, like);
-            ps.setString(2, like);
-            ps.setString(3, like);
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(q.sql())) {
+            for (int i = 0; i < q.params().size(); i++) {
+                ps.setObject(i + 1, q.params().get(i));
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Evenement e = map(rs);
+                    if (motCle && !criteria.matches(e)) continue;
+                    list.add(e);
+                    if (list.size() == limit) break;
+                }
+            }
+        }
+        return list;
+    }
+
+    // ===== Pagination (keyset sur id_event) =====
+
+    @Override
+    public List<Evenement> getPage(int afterId, int limit) throws SQLException {
+        String sql = afterId > 0
+                ? "SELECT * FROM evenement WHERE id_event < ? ORDER BY id_event DESC LIMIT ?"
+                : "SELECT * FROM evenement ORDER BY id_event DESC LIMIT ?";
+
+        if (limit <= 0) return new ArrayList<>();
+
+        // limit vient de l'appelant (ex : Integer.MAX_VALUE = tout) : capacité initiale bornée, la liste grandit
+        List<Evenement> list = new ArrayList<>(Math.min(limit, SCAN_PAGE));
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql)) {
+            int i = 1;
+            if (afterId > 0) ps.setInt(i++, afterId);
+            ps.setInt(i, limit);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) list.add(map(rs));
@@ -134,49 +358,106 @@ public class EvenementService implements IEvenementService {
         return list;
     }
 
+    // ✅ page de résultats, même règle que search : pages brutes (keyset) filtrées jusqu'à limit résultats
+    @Override
+    public List<Evenement> searchPage(String keyword, int afterId, int limit) throws SQLException {
+        if (keyword == null || keyword.isBlank()) return getPage(afterId, limit);
+
+        Predicate<Evenement> garde = EvenementSearchIndex.matcher(keyword);
+        List<Evenement> list = new ArrayList<>();
+        int apres = afterId;
+        while (list.size() < limit) {
+            List<Evenement> page = getPage(apres, SCAN_PAGE);
+            for (Evenement e : page) {
+                if (garde.test(e) && list.size() < limit) list.add(e);
+            }
+            if (page.size() < SCAN_PAGE) break;
+            apres = page.get(page.size() - 1).getIdEvent();
+        }
+        return list;
+    }
+
+    // ✅ Calendrier : événements qui chevauchent [from, to] (début <= to et fin >= from), rangés par jour
+    @Override
+    public NavigableMap<LocalDate, List<Evenement>> calendrier(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT * FROM evenement " +
+                "WHERE date_debut < ? AND COALESCE(date_fin, date_debut) >= ?";
+
+        CalendrierIndex jours = new CalendrierIndex();
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(from.atStartOfDay()));
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) jours.put(map(rs));
+            }
+        }
+        return jours.range(from, to);
+    }
+
+    // ✅ Lecture en flux : à fermer (try-with-resources), la connexion reste empruntée jusque-là
+    @Override
+    public Stream<Evenement> stream() throws SQLException {
+        return ResultSetStream.of(db, "SELECT * FROM evenement ORDER BY id_event DESC", null, EvenementService::map);
+    }
+
     // ===== Streams =====
+    // ✅ séquentiel sur les petites listes, découpé sur plusieurs threads au-delà du seuil (AdaptiveParallel)
     @Override
     public List<Evenement> rechercher(List<Evenement> events, String keyword) {
-        String k = safe(keyword);
-        return events.stream()
-                .filter(e -> safe(e.getTitre()).contains(k)
-                        || safe(e.getDescription()).contains(k)
-                        || safe(e.getLieu()).contains(k))
-                .toList();
+        // même règle que search (mots sans accents, par préfixe)
+        return AdaptiveParallel.getInstance().filter(events, EvenementSearchIndex.matcher(keyword));
     }
 
     @Override
     public List<Evenement> filtrerParType(List<Evenement> events, String type) {
-        String t = safeUpper(type);
-        return events.stream()
-                .filter(e -> safeUpper(e.getType()).equals(t))
-                .toList();
+        // ✅ type demandé lu une fois ; par ligne : type déjà lu à l'affectation (Evenement), comparaison de références
+        TypeEvenement t = TypeEvenement.parse(type);
+        if (t == null) return List.of();
+        return AdaptiveParallel.getInstance().filter(events, e -> e.getTypeEvenement() == t);
     }
 
     @Override
     public List<Evenement> filtrerParLieu(List<Evenement> events, String keyword) {
         String k = safe(keyword);
-        return events.stream()
-                .filter(e -> safe(e.getLieu()).contains(k))
-                .toList();
+        return AdaptiveParallel.getInstance().filter(events, e -> safe(e.getLieu()).contains(k));
     }
 
     @Override
     public List<Evenement> trierParDateAsc(List<Evenement> events) {
-        return events.stream()
-                .sorted(Comparator.comparing(Evenement::getDateDebut, Comparator.nullsLast(Comparator.naturalOrder())))
-                .toList();
+        return AdaptiveParallel.getInstance().sortByKey(events, Evenement::getDateDebut,
+                Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()), null);
     }
 
     @Override
     public List<Evenement> trierParDateDesc(List<Evenement> events) {
-        return events.stream()
-                .sorted(Comparator.comparing(Evenement::getDateDebut, Comparator.nullsLast(Comparator.naturalOrder())).reversed())
-                .toList();
+        return AdaptiveParallel.getInstance().sortByKey(events, Evenement::getDateDebut,
+                Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()).reversed(), null);
     }
 
     // ===== helpers =====
-    private Evenement map(ResultSet rs) throws SQLException {
+
+    // colonnes 1..7 communes à INSERT et UPDATE
+    static void bind(PreparedStatement ps, Evenement e) throws SQLException {
+        ps.setString(1, e.getTitre());
+        ps.setString(2, e.getDescription());
+        ps.setString(3, e.getType());
+
+        if (e.getDateDebut() == null) ps.setNull(4, Types.TIMESTAMP);
+        else ps.setTimestamp(4, Timestamp.valueOf(e.getDateDebut()));
+
+        if (e.getDateFin() == null) ps.setNull(5, Types.TIMESTAMP);
+        else ps.setTimestamp(5, Timestamp.valueOf(e.getDateFin()));
+
+        ps.setString(6, e.getLieu());
+
+        // image (nullable)
+        if (e.getImage() == null || e.getImage().isBlank()) ps.setNull(7, Types.VARCHAR);
+        else ps.setString(7, e.getImage());
+    }
+
+    static Evenement map(ResultSet rs) throws SQLException {
         Evenement e = new Evenement();
         e.setIdEvent(rs.getInt("id_event"));
         e.setTitre(rs.getString("titre"));
@@ -197,8 +478,4 @@ public class EvenementService implements IEvenementService {
     private String safe(String s) {
         return s == null ? "" : s.toLowerCase(Locale.ROOT).trim();
     }
-
-    private String safeUpper(String s) {
-        return s == null ? "" : s.toUpperCase(Locale.ROOT).trim();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package services;
+
+import entities.Evenement;
+import entities.Programme;
+import entities.TypeEvenement;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Règles de validation partagées par les formulaires et l'import en masse.
+ * Chaque méthode rend le message d'erreur à afficher, ou null si l'objet est valide.
+ */
+public final class EvenementValidator {
+
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private EvenementValidator() {}
+
+    // règle portée par le type (CAMPING / SEJOUR : date fin obligatoire)
+    public static boolean needFin(String type) {
+        TypeEvenement t = TypeEvenement.of(type);
+        return t != null && t.dateFinRequise();
+    }
+
+    public static String verifier(Evenement e) {
+        if (isBlank(e.getTitre()) || isBlank(e.getDescription()) || isBlank(e.getLieu())) {
+            return "Remplis Titre / Description / Lieu.";
+        }
+        if (TypeEvenement.of(e.getType()) == null) {
+            return "Type invalide : " + e.getType();
+        }
+        if (e.getDateDebut() == null) {
+            return "Choisis une date début.";
+        }
+        if (needFin(e.getType())) {
+            if (e.getDateFin() == null) {
+                return "Date fin obligatoire pour CAMPING / SEJOUR.";
+            }
+            if (!e.getDateFin().isAfter(e.getDateDebut())) {
+                return "Date fin doit être après date début.";
+            }
+        }
+        return null;
+    }
+
+    public static String verifier(Programme p) {
+        if (isBlank(p.getTitre())) {
+            return "Titre programme obligatoire.";
+        }
+        if (p.getDebut() == null || p.getFin() == null) {
+            return "Choisis date début et date fin.";
+        }
+        if (!p.getFin().isAfter(p.getDebut())) {
+            return "Fin doit être après début.";
+        }
+        return null;
+    }
+
+    /** Le programme doit tenir dans l'événement (après le début ; avant la fin si elle existe). */
+    public static String verifierDansEvenement(Programme p, Evenement e) {
+        if (e.getDateDebut() != null && p.getDebut().isBefore(e.getDateDebut())) {
+            return "Programme doit commencer après le début de l'événement : " + e.getDateDebut().format(FMT);
+        }
+        if (e.getDateFin() != null && p.getFin() != null && p.getFin().isAfter(e.getDateFin())) {
+            return "Programme doit finir avant la fin de l'événement : " + e.getDateFin().format(FMT);
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
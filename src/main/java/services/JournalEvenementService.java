@@ -0,0 +1,149 @@
+package services;
+
+import entities.Evenement;
+import entities.Programme;
+import interfaces.IEvenementService;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.stream.Stream;
+
+/**
+ * Service d'événements qui écrit via le journal local ({@link JournalStore}) : add/update/delete
+ * rendent la main dès l'écriture locale, la base est mise à jour en arrière-plan.
+ * getAll et getOneById montrent les écritures encore en attente ; les autres lectures
+ * (recherche SQL, pages, calendrier) voient la base telle quelle jusqu'à la synchronisation.
+ * L'import en masse (addAll, addAllAvecProgrammes) écrit directement.
+ */
+public class JournalEvenementService implements IEvenementService {
+
+    private final IEvenementService delegate;
+    private final JournalStore journal;
+
+    public JournalEvenementService(IEvenementService delegate, JournalStore journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    // ===== écritures journalisées =====
+
+    @Override
+    public void add(Evenement e) throws SQLException {
+        journal.ajouterEvenement(e);
+        ChangeBus.getInstance().publish(ChangeBus.evenement(ChangeBus.Op.AJOUT, e));
+    }
+
+    @Override
+    public void update(Evenement e) throws SQLException {
+        journal.modifierEvenement(e);
+        ChangeBus.getInstance().publish(ChangeBus.evenement(ChangeBus.Op.MODIF, e));
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        journal.supprimerEvenement(id);
+        ChangeBus.getInstance().publish(ChangeBus.evenementSupprime(id));
+    }
+
+    // ✅ l'événement et ses programmes sont journalisés ensemble, rejoués dans cet ordre
+    @Override
+    public void addAvecProgrammes(Evenement e, List<Programme> programmes) throws SQLException {
+        synchronized (journal) {
+            journal.ajouterEvenement(e);
+            for (Programme p : programmes) {
+                p.setEventId(e.getIdEvent());
+                journal.ajouterProgramme(p);
+            }
+        }
+        ChangeBus.getInstance().publish(ChangeBus.evenement(ChangeBus.Op.AJOUT, e));
+        for (Programme p : programmes) ChangeBus.getInstance().publish(ChangeBus.programme(ChangeBus.Op.AJOUT, p));
+    }
+
+    @Override
+    public void addAll(List<Evenement> events) throws SQLException {
+        delegate.addAll(events);
+    }
+
+    @Override
+    public void addAllAvecProgrammes(Map<Evenement, List<Programme>> events) throws SQLException {
+        delegate.addAllAvecProgrammes(events);
+    }
+
+    // ===== lectures =====
+
+    @Override
+    public List<Evenement> getAll() throws SQLException {
+        return journal.superposerEvenements(delegate.getAll(), true);
+    }
+
+    @Override
+    public Evenement getOneById(int id) throws SQLException {
+        int reel = journal.evtReel(id);
+        if (reel < 0) return journal.evenementEnAttente(reel);
+
+        Evenement e = delegate.getOneById(reel);
+        if (e == null) return null;
+        List<Evenement> l = journal.superposerEvenements(List.of(e), false);
+        return l.isEmpty() ? null : l.get(0);
+    }
+
+    @Override
+    public List<Evenement> search(String keyword) throws SQLException {
+        return delegate.search(keyword);
+    }
+
+    @Override
+    public List<Evenement> find(EvenementCriteria criteria) throws SQLException {
+        return delegate.find(criteria);
+    }
+
+    @Override
+    public List<Evenement> getPage(int afterId, int limit) throws SQLException {
+        return delegate.getPage(afterId, limit);
+    }
+
+    @Override
+    public List<Evenement> searchPage(String keyword, int afterId, int limit) throws SQLException {
+        return delegate.searchPage(keyword, afterId, limit);
+    }
+
+    @Override
+    public NavigableMap<LocalDate, List<Evenement>> calendrier(LocalDate from, LocalDate to) throws SQLException {
+        return delegate.calendrier(from, to);
+    }
+
+    @Override
+    public Stream<Evenement> stream() throws SQLException {
+        return delegate.stream();
+    }
+
+    // ===== Streams (en mémoire) =====
+
+    @Override
+    public List<Evenement> rechercher(List<Evenement> events, String keyword) {
+        return delegate.rechercher(events, keyword);
+    }
+
+    @Override
+    public List<Evenement> filtrerParType(List<Evenement> events, String type) {
+        return delegate.filtrerParType(events, type);
+    }
+
+    @Override
+    public List<Evenement> filtrerParLieu(List<Evenement> events, String keyword) {
+        return delegate.filtrerParLieu(events, keyword);
+    }
+
+    @Override
+    public List<Evenement> trierParDateAsc(List<Evenement> events) {
+        return delegate.trierParDateAsc(events);
+    }
+
+    @Override
+    public List<Evenement> trierParDateDesc(List<Evenement> events) {
+        return delegate.trierParDateDesc(events);
+    }
+}
@@ -0,0 +1,96 @@
+package services;
+
+import entities.Programme;
+import interfaces.IProgrammeService;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Service de programmes qui écrit via le journal local ({@link JournalStore}), comme
+ * {@link JournalEvenementService}. Les lectures montrent les écritures en attente, y compris
+ * les programmes d'un événement encore provisoire (id négatif). addAll écrit directement.
+ */
+public class JournalProgrammeService implements IProgrammeService {
+
+    private final IProgrammeService delegate;
+    private final JournalStore journal;
+
+    public JournalProgrammeService(IProgrammeService delegate, JournalStore journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+    }
+
+    @Override
+    public void add(Programme p) throws SQLException {
+        journal.ajouterProgramme(p);
+        ChangeBus.getInstance().publish(ChangeBus.programme(ChangeBus.Op.AJOUT, p));
+    }
+
+    @Override
+    public void addAll(List<Programme> list) throws SQLException {
+        delegate.addAll(list);
+    }
+
+    @Override
+    public void update(Programme p) throws SQLException {
+        journal.modifierProgramme(p);
+        ChangeBus.getInstance().publish(ChangeBus.programme(ChangeBus.Op.MODIF, p));
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        journal.supprimerProgramme(id);
+        // événement parent inconnu ici (lecture en base évitée hors connexion)
+        ChangeBus.getInstance().publish(ChangeBus.programmeSupprime(id, 0));
+    }
+
+    @Override
+    public List<Programme> getAll() throws SQLException {
+        return journal.superposerProgrammes(delegate.getAll(), null);
+    }
+
+    @Override
+    public Programme getOneById(int id) throws SQLException {
+        int reel = journal.progReel(id);
+        List<Programme> lus = new ArrayList<>(1);
+        if (reel > 0) {
+            Programme p = delegate.getOneById(reel);
+            if (p == null) return null;
+            lus.add(p);
+        }
+        for (Programme p : journal.superposerProgrammes(lus, null)) {
+            if (p.getIdProg() == reel || p.getIdProg() == id) return p;
+        }
+        return null;
+    }
+
+    @Override
+    public List<Programme> getByEventId(int eventId) throws SQLException {
+        int reel = journal.evtReel(eventId);
+        List<Programme> lus = reel > 0 ? delegate.getByEventId(reel) : List.of();
+        return journal.superposerProgrammes(lus, Set.of(reel));
+    }
+
+    @Override
+    public Map<Integer, List<Programme>> getByEventIds(Collection<Integer> eventIds) throws SQLException {
+        // id demandé (éventuellement provisoire) -> id en base
+        Map<Integer, Integer> reels = new LinkedHashMap<>();
+        for (Integer id : eventIds) reels.put(id, journal.evtReel(id));
+
+        List<Integer> enBase = reels.values().stream().filter(id -> id > 0).distinct().toList();
+        Map<Integer, List<Programme>> lus = enBase.isEmpty() ? Map.of() : delegate.getByEventIds(enBase);
+
+        List<Programme> tous = new ArrayList<>();
+        lus.values().forEach(tous::addAll);
+        List<Programme> vus = journal.superposerProgrammes(tous, new HashSet<>(reels.values()));
+
+        Map<Integer, List<Programme>> out = new LinkedHashMap<>();
+        reels.forEach((demande, reel) -> {
+            List<Programme> l = new ArrayList<>();
+            for (Programme p : vus) if (journal.evtReel(p.getEventId()) == reel) l.add(p);
+            out.put(demande, l);
+        });
+        return out;
+    }
+}
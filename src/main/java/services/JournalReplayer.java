@@ -0,0 +1,277 @@
+package services;
+
+import entities.Evenement;
+import entities.Programme;
+import utils.MyDataBase;
+import utils.SchemaMigrator;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejeu SQL des opérations du journal local ({@link JournalStore}) : un lot = une transaction.
+ * Chaque opération est d'abord cherchée dans {@code journal_applied} (déjà rejouée : même résultat,
+ * sans rien réécrire), puis contrôlée sur la ligne verrouillée ({@code SELECT ... FOR UPDATE})
+ * et, pour un événement, sur l'occupation du lieu ({@link EvenementService#verifierLieux}) avant d'être écrite ; sa clé est enregistrée dans la même transaction, puis retirée une fois
+ * l'opération acquittée dans le journal local ({@link #oublier}).
+ */
+class JournalReplayer {
+
+    private static final int RAISON_MAX = 500;
+
+    private final MyDataBase db;
+    private boolean migrated;
+
+    JournalReplayer(MyDataBase db) {
+        this.db = db;
+    }
+
+    /**
+     * @param evts  ids provisoires d'événements déjà connus -> ids en base
+     * @param progs idem pour les programmes
+     * @return une {@link JournalStore.Synchro} par opération, dans l'ordre du lot
+     */
+    List<JournalStore.Synchro> rejouer(List<JournalStore.Op> lot, Map<Integer, Integer> evts,
+                                       Map<Integer, Integer> progs) throws SQLException {
+        try (Connection cnx = db.getConnection()) {
+            if (!migrated) {
+                // table journal_applied (V3) présente même sur une base MySQL sans bootstrap
+                SchemaMigrator.migrate(cnx);
+                migrated = true;
+            }
+
+            cnx.setAutoCommit(false);
+            try {
+                // ajouts du lot visibles par les opérations suivantes du même lot
+                Map<Integer, Integer> evtIds = new HashMap<>(evts);
+                Map<Integer, Integer> progIds = new HashMap<>(progs);
+
+                List<JournalStore.Synchro> out = new ArrayList<>(lot.size());
+                List<ChangeBus.Change> changes = new ArrayList<>();
+                for (JournalStore.Op op : lot) {
+                    JournalStore.Synchro s = dejaRejouee(cnx, op);
+                    if (s == null) {
+                        s = appliquer(cnx, op, evtIds, progIds);
+                        noter(cnx, op.key, s.reel(), s.conflit());
+                        if (s.conflit() == null) changes.add(change(op, s.reel(), evtIds));
+                    }
+                    if (s.conflit() == null && op.kind == JournalStore.Kind.EVT_ADD) evtIds.put(op.id, s.reel());
+                    if (s.conflit() == null && op.kind == JournalStore.Kind.PROG_ADD) progIds.put(op.id, s.reel());
+                    out.add(s);
+                }
+                // visibles des autres instances ; ici, déjà publiés à la saisie (JournalStore)
+                ChangeLog.noter(cnx, changes);
+                cnx.commit();
+                return out;
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            } finally {
+                cnx.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Écarte une opération que la base refuse (contrainte, donnée invalide...). */
+    void marquerConflit(JournalStore.Op op, String raison) throws SQLException {
+        try (Connection cnx = db.getConnection()) {
+            if (dejaRejouee(cnx, op) == null) noter(cnx, op.key, 0, raison == null ? "refusé par la base" : raison);
+        }
+    }
+
+    /** Retire de {@code journal_applied} des clés acquittées localement (plus jamais rejouées). */
+    void oublier(List<String> cles) throws SQLException {
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement("DELETE FROM journal_applied WHERE op_key=?")) {
+            for (String cle : cles) {
+                ps.setString(1, cle);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private JournalStore.Synchro appliquer(Connection cnx, JournalStore.Op op,
+                                           Map<Integer, Integer> evtIds, Map<Integer, Integer> progIds) throws SQLException {
+        return switch (op.kind) {
+            case EVT_ADD -> {
+                String sql = "INSERT INTO evenement (titre, description, type, date_debut, date_fin, lieu, image) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+                String lieuPris = lieuPris(cnx, op.evenement, 0);
+                if (lieuPris != null) yield conflit(op, 0, lieuPris);
+                try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    EvenementService.bind(ps, op.evenement);
+                    ps.executeUpdate();
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if (!rs.next()) throw new SQLException("Aucun id généré pour " + op);
+                        yield ok(op, rs.getInt(1));
+                    }
+                }
+            }
+            case EVT_UPDATE, EVT_DELETE -> {
+                int id = resoudre(op.id, evtIds);
+                Evenement actuel = id < 0 ? null : lireEvenement(cnx, id);
+
+                if (actuel == null) {
+                    // supprimer une ligne déjà absente : le résultat voulu est atteint
+                    yield op.kind == JournalStore.Kind.EVT_DELETE ? ok(op, id) : conflit(op, id, "événement supprimé entre-temps");
+                }
+                if (op.base != null && op.base != JournalStore.empreinte(actuel)) {
+                    yield conflit(op, id, "événement modifié par ailleurs depuis la saisie");
+                }
+
+                if (op.kind == JournalStore.Kind.EVT_DELETE) {
+                    try (PreparedStatement ps = cnx.prepareStatement("DELETE FROM evenement WHERE id_event=?")) {
+                        ps.setInt(1, id);
+                        ps.executeUpdate();
+                    }
+                } else {
+                    String lieuPris = lieuPris(cnx, op.evenement, id);
+                    if (lieuPris != null) yield conflit(op, id, lieuPris);
+                    String sql = "UPDATE evenement SET titre=?, description=?, type=?, date_debut=?, date_fin=?, lieu=?, image=? " +
+                            "WHERE id_event=?";
+                    try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+                        EvenementService.bind(ps, op.evenement);
+                        ps.setInt(8, id);
+                        ps.executeUpdate();
+                    }
+                }
+                yield ok(op, id);
+            }
+            case PROG_ADD -> {
+                Programme p = JournalStore.copy(op.programme);
+                p.setEventId(resoudre(p.getEventId(), evtIds));
+                if (!evenementExiste(cnx, p.getEventId())) yield conflit(op, 0, "événement du programme supprimé");
+
+                ProgrammeService.insertBatch(cnx, List.of(p));
+                yield ok(op, p.getIdProg());
+            }
+            case PROG_UPDATE, PROG_DELETE -> {
+                int id = resoudre(op.id, progIds);
+                Programme actuel = id < 0 ? null : lireProgramme(cnx, id);
+
+                if (actuel == null) {
+                    yield op.kind == JournalStore.Kind.PROG_DELETE ? ok(op, id) : conflit(op, id, "programme supprimé entre-temps");
+                }
+                if (op.base != null && op.base != JournalStore.empreinte(actuel)) {
+                    yield conflit(op, id, "programme modifié par ailleurs depuis la saisie");
+                }
+
+                if (op.kind == JournalStore.Kind.PROG_DELETE) {
+                    try (PreparedStatement ps = cnx.prepareStatement("DELETE FROM programme WHERE id_prog=?")) {
+                        ps.setInt(1, id);
+                        ps.executeUpdate();
+                    }
+                } else {
+                    int eventId = resoudre(op.programme.getEventId(), evtIds);
+                    if (!evenementExiste(cnx, eventId)) yield conflit(op, id, "événement du programme supprimé");
+
+                    String sql = "UPDATE programme SET event_id=?, titre=?, date_debut=?, date_fin=? WHERE id_prog=?";
+                    try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+                        ps.setInt(1, eventId);
+                        ps.setString(2, op.programme.getTitre());
+                        ps.setTimestamp(3, Timestamp.valueOf(op.programme.getDebut()));
+                        if (op.programme.getFin() != null) {
+                            ps.setTimestamp(4, Timestamp.valueOf(op.programme.getFin()));
+                        } else {
+                            ps.setNull(4, Types.TIMESTAMP);
+                        }
+                        ps.setInt(5, id);
+                        ps.executeUpdate();
+                    }
+                }
+                yield ok(op, id);
+            }
+        };
+    }
+
+    private static JournalStore.Synchro dejaRejouee(Connection cnx, JournalStore.Op op) throws SQLException {
+        try (PreparedStatement ps = cnx.prepareStatement(
+                "SELECT id_genere, conflit FROM journal_applied WHERE op_key=?")) {
+            ps.setString(1, op.key);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return null;
+                return new JournalStore.Synchro(op.kind, op.id, rs.getInt(1), rs.getString(2));
+            }
+        }
+    }
+
+    private static void noter(Connection cnx, String key, int reel, String conflit) throws SQLException {
+        try (PreparedStatement ps = cnx.prepareStatement(
+                "INSERT INTO journal_applied (op_key, id_genere, conflit) VALUES (?, ?, ?)")) {
+            ps.setString(1, key);
+            ps.setInt(2, reel);
+            if (conflit == null) ps.setNull(3, Types.VARCHAR);
+            else ps.setString(3, conflit.length() > RAISON_MAX ? conflit.substring(0, RAISON_MAX) : conflit);
+            ps.executeUpdate();
+        }
+    }
+
+    private static Evenement lireEvenement(Connection cnx, int id) throws SQLException {
+        try (PreparedStatement ps = cnx.prepareStatement("SELECT * FROM evenement WHERE id_event=? FOR UPDATE")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? EvenementService.map(rs) : null;
+            }
+        }
+    }
+
+    private static Programme lireProgramme(Connection cnx, int id) throws SQLException {
+        try (PreparedStatement ps = cnx.prepareStatement("SELECT * FROM programme WHERE id_prog=? FOR UPDATE")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? ProgrammeService.map(rs) : null;
+            }
+        }
+    }
+
+    private static boolean evenementExiste(Connection cnx, int id) throws SQLException {
+        if (id < 0) return false; // ajout jamais arrivé en base (écarté)
+        try (PreparedStatement ps = cnx.prepareStatement("SELECT 1 FROM evenement WHERE id_event=? FOR UPDATE")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static ChangeBus.Change change(JournalStore.Op op, int reel, Map<Integer, Integer> evtIds) {
+        ChangeBus.Op type = switch (op.kind) {
+            case EVT_ADD, PROG_ADD -> ChangeBus.Op.AJOUT;
+            case EVT_UPDATE, PROG_UPDATE -> ChangeBus.Op.MODIF;
+            case EVT_DELETE, PROG_DELETE -> ChangeBus.Op.SUPPRESSION;
+        };
+        if (op.surEvenement()) {
+            return new ChangeBus.Change(ChangeBus.Entite.EVENEMENT, type, reel, reel, null, null, false);
+        }
+        int eventId = op.programme == null ? 0 : resoudre(op.programme.getEventId(), evtIds);
+        return new ChangeBus.Change(ChangeBus.Entite.PROGRAMME, type, reel, eventId, null, null, false);
+    }
+
+    private static int resoudre(int id, Map<Integer, Integer> ids) {
+        return id < 0 ? ids.getOrDefault(id, id) : id;
+    }
+
+    private static JournalStore.Synchro ok(JournalStore.Op op, int reel) {
+        return new JournalStore.Synchro(op.kind, op.id, reel, null);
+    }
+
+    // lieu déjà pris en base (la saisie n'a été vérifiée que sur le cache local) : motif, sinon null
+    private static String lieuPris(Connection cnx, Evenement e, int id) throws SQLException {
+        Evenement v = JournalStore.copy(e);
+        v.setIdEvent(id);
+        try {
+            EvenementService.verifierLieux(cnx, List.of(v));
+            return null;
+        } catch (VenueConflictException ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private static JournalStore.Synchro conflit(JournalStore.Op op, int reel, String raison) {
+        return new JournalStore.Synchro(op.kind, op.id, reel, raison);
+    }
+}
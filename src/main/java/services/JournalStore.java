@@ -0,0 +1,658 @@
+package services;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import entities.Evenement;
+import entities.Programme;
+import interfaces.IEvenementService;
+import interfaces.IProgrammeService;
+import utils.MappedLog;
+import utils.MyDataBase;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Journal local des écritures (write-ahead) : ajout / modification / suppression d'événements et
+ * de programmes sont acquittés dès qu'ils sont sur le disque local ({@link MappedLog}), puis
+ * rejoués vers la base par un thread de synchronisation, par lots, dans l'ordre de saisie.
+ * L'application continue de fonctionner si MySQL est lent ou coupé : les lots sont retentés
+ * avec un délai croissant.
+ * <p>
+ * Un ajout reçoit un id provisoire négatif, remplacé par l'id de la base une fois rejoué
+ * ({@link Synchro}). Chaque opération porte une clé unique enregistrée dans {@code journal_applied}
+ * dans la même transaction que l'écriture : un lot rejoué deux fois (arrêt entre le commit et
+ * l'acquittement local) n'écrit qu'une fois ; une fois l'acquittement sur le disque local, la clé
+ * est retirée de {@code journal_applied}. Une modification ou suppression porte l'empreinte de la
+ * ligne telle que lue avant la saisie (ou telle qu'écrite par la saisie précédente encore en
+ * attente) : si la ligne a changé entre-temps dans la base (autre poste) ou a disparu, l'opération
+ * est écartée comme conflit, notée dans {@code <journal>.conflits}.
+ * <p>
+ * Activé par {@code db.journal} ({@link utils.DbConfig}) ; l'import en masse n'y passe pas.
+ */
+public class JournalStore implements AutoCloseable {
+
+    public enum Kind { EVT_ADD, EVT_UPDATE, EVT_DELETE, PROG_ADD, PROG_UPDATE, PROG_DELETE }
+
+    /** Résultat du rejeu d'une opération : id définitif (ajouts) ou raison du conflit. */
+    public record Synchro(Kind kind, int provisoire, int reel, String conflit) {}
+
+    public record Stats(int enAttente, long synchronises, long conflits, String derniereErreur) {}
+
+    /** Opération journalisée (copie des données au moment de la saisie). */
+    static final class Op {
+        final Kind kind;
+        final String key;
+        final int id;        // cible (id provisoire < 0 pour un ajout)
+        final Integer base;  // empreinte de la ligne avant saisie (null = inconnue)
+        final Evenement evenement;
+        final Programme programme;
+
+        Op(Kind kind, String key, int id, Integer base, Evenement evenement, Programme programme) {
+            this.kind = kind;
+            this.key = key;
+            this.id = id;
+            this.base = base;
+            this.evenement = evenement;
+            this.programme = programme;
+        }
+
+        boolean surEvenement() {
+            return kind == Kind.EVT_ADD || kind == Kind.EVT_UPDATE || kind == Kind.EVT_DELETE;
+        }
+
+        @Override
+        public String toString() {
+            String cible = surEvenement()
+                    ? (evenement != null ? "« " + evenement.getTitre() + " »" : "événement " + id)
+                    : (programme != null ? "« " + programme.getTitre() + " »" : "programme " + id);
+            return kind + " " + cible;
+        }
+    }
+
+    private static final int INITIAL_SIZE = 1 << 20;
+    private static final int BATCH = 100;
+    private static final long BACKOFF_MIN_MS = 1_000;
+    private static final long BACKOFF_MAX_MS = 30_000;
+
+    private static JournalStore instance;
+    private static boolean resolved;
+
+    private final MappedLog log;
+    private final Path conflits;
+    private final JournalReplayer replayer;
+
+    // état (moniteur : this)
+    private final LinkedHashMap<String, Op> pending = new LinkedHashMap<>();
+    private final Map<Integer, Integer> evtReels = new HashMap<>();
+    private final Map<Integer, Integer> progReels = new HashMap<>();
+    private final Map<Integer, Integer> evtBases = new HashMap<>();
+    private final Map<Integer, Integer> progBases = new HashMap<>();
+    private final Set<String> aOublier = new LinkedHashSet<>(); // acquittées : clés à retirer de journal_applied
+    private int prochainId = -1;
+    private long synchronises;
+    private long nbConflits;
+    private String derniereErreur;
+    private boolean closed;
+
+    private final List<Consumer<Synchro>> listeners = new CopyOnWriteArrayList<>();
+    private final Thread worker;
+
+    public JournalStore(Path fichier, MyDataBase db) throws IOException {
+        this.log = new MappedLog(fichier, INITIAL_SIZE);
+        this.conflits = fichier.resolveSibling(fichier.getFileName() + ".conflits");
+        this.replayer = new JournalReplayer(db);
+        recover();
+
+        worker = new Thread(this::run, "journal-sync");
+        worker.setDaemon(true);
+    }
+
+    /** Journal configuré ({@code db.journal}), démarré au premier appel ; null si désactivé. */
+    public static synchronized JournalStore getInstance() throws SQLException {
+        if (!resolved) {
+            resolved = true;
+            MyDataBase db = MyDataBase.getInstance();
+            Path fichier = db.getConfig().journal();
+            if (fichier != null) {
+                try {
+                    instance = new JournalStore(fichier, db);
+                    instance.start();
+                } catch (IOException e) {
+                    throw new SQLException("Journal local illisible : " + fichier, e);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Service d'événements qui écrit via le journal s'il est activé, sinon {@code s} tel quel. */
+    public static IEvenementService wrap(IEvenementService s) throws SQLException {
+        JournalStore j = getInstance();
+        return j == null ? s : new JournalEvenementService(s, j);
+    }
+
+    public static IProgrammeService wrap(IProgrammeService s) throws SQLException {
+        JournalStore j = getInstance();
+        return j == null ? s : new JournalProgrammeService(s, j);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    /** Rappelé sur le thread de synchronisation après chaque opération rejouée ou écartée. */
+    public void addListener(Consumer<Synchro> listener) {
+        listeners.add(listener);
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(pending.size(), synchronises, nbConflits, derniereErreur);
+    }
+
+    // ===================== écritures (acquittées localement) =====================
+
+    synchronized void ajouterEvenement(Evenement e) throws SQLException {
+        int id = prochainId--;
+        enregistrer(new Op(Kind.EVT_ADD, UUID.randomUUID().toString(), id, null, copy(e), null));
+        e.setIdEvent(id);
+        evtBases.put(id, empreinte(e));
+    }
+
+    synchronized void modifierEvenement(Evenement e) throws SQLException {
+        int id = evtReel(e.getIdEvent());
+        enregistrer(new Op(Kind.EVT_UPDATE, UUID.randomUUID().toString(), id, evtBases.get(id), copy(e), null));
+        evtBases.put(id, empreinte(e));
+    }
+
+    synchronized void supprimerEvenement(int idEvent) throws SQLException {
+        int id = evtReel(idEvent);
+        enregistrer(new Op(Kind.EVT_DELETE, UUID.randomUUID().toString(), id, evtBases.remove(id), null, null));
+    }
+
+    synchronized void ajouterProgramme(Programme p) throws SQLException {
+        int id = prochainId--;
+        Programme c = copy(p);
+        c.setEventId(evtReel(p.getEventId()));
+        enregistrer(new Op(Kind.PROG_ADD, UUID.randomUUID().toString(), id, null, null, c));
+        p.setIdProg(id);
+        progBases.put(id, empreinte(p));
+    }
+
+    synchronized void modifierProgramme(Programme p) throws SQLException {
+        int id = progReel(p.getIdProg());
+        Programme c = copy(p);
+        c.setEventId(evtReel(p.getEventId()));
+        enregistrer(new Op(Kind.PROG_UPDATE, UUID.randomUUID().toString(), id, progBases.get(id), null, c));
+        progBases.put(id, empreinte(p));
+    }
+
+    synchronized void supprimerProgramme(int idProg) throws SQLException {
+        int id = progReel(idProg);
+        enregistrer(new Op(Kind.PROG_DELETE, UUID.randomUUID().toString(), id, progBases.remove(id), null, null));
+    }
+
+    private void enregistrer(Op op) throws SQLException {
+        if (closed) throw new SQLException("Journal local fermé");
+        try {
+            log.append(encode(op));
+        } catch (IOException ex) {
+            throw new SQLException("Écriture impossible dans le journal local : " + ex.getMessage(), ex);
+        }
+        pending.put(op.key, op);
+        notifyAll();
+    }
+
+    // ===================== lectures : base + opérations en attente =====================
+
+    /** Id définitif connu pour un id provisoire (sinon l'id lui-même). */
+    synchronized int evtReel(int id) {
+        return id < 0 ? evtReels.getOrDefault(id, id) : id;
+    }
+
+    synchronized int progReel(int id) {
+        return id < 0 ? progReels.getOrDefault(id, id) : id;
+    }
+
+    /**
+     * Événements lus en base + opérations en attente (ajouts en tête, modifs, suppressions).
+     * Mémorise l'empreinte des lignes lues : base de la détection de conflit des prochaines saisies.
+     * Une ligne visée par une opération en attente garde l'empreinte de cette saisie : la base
+     * ne l'a pas encore reçue, et c'est sur la ligne écrite par le rejeu que portera la suivante.
+     */
+    synchronized List<Evenement> superposerEvenements(List<Evenement> lus, boolean avecAjouts) {
+        Set<Integer> enAttente = enAttente(true);
+        for (Evenement e : lus) {
+            if (!enAttente.contains(e.getIdEvent())) evtBases.put(e.getIdEvent(), empreinte(e));
+        }
+        if (pending.isEmpty()) return lus;
+
+        Map<Integer, Evenement> ajouts = new LinkedHashMap<>();
+        Map<Integer, Evenement> parId = new LinkedHashMap<>();
+        for (Evenement e : lus) parId.put(e.getIdEvent(), e);
+
+        for (Op op : pending.values()) {
+            switch (op.kind) {
+                case EVT_ADD -> {
+                    if (avecAjouts) ajouts.put(op.id, withId(op.evenement, op.id));
+                }
+                case EVT_UPDATE -> {
+                    Map<Integer, Evenement> m = ajouts.containsKey(op.id) ? ajouts : parId;
+                    int id = (m == ajouts) ? op.id : evtReel(op.id);
+                    if (m.containsKey(id)) m.put(id, withId(op.evenement, id));
+                }
+                case EVT_DELETE -> {
+                    if (ajouts.remove(op.id) == null) parId.remove(evtReel(op.id));
+                }
+                default -> { }
+            }
+        }
+
+        List<Evenement> out = new ArrayList<>(ajouts.size() + parId.size());
+        List<Evenement> nouveaux = new ArrayList<>(ajouts.values());
+        Collections.reverse(nouveaux); // plus récent d'abord, comme getAll (id décroissant)
+        out.addAll(nouveaux);
+        out.addAll(parId.values());
+        return out;
+    }
+
+    /** Ajout encore en attente pour cet id provisoire (copie, modifs en attente appliquées), sinon null. */
+    synchronized Evenement evenementEnAttente(int provisoire) {
+        if (provisoire >= 0) return null;
+        for (Evenement e : superposerEvenements(List.of(), true)) {
+            if (e.getIdEvent() == provisoire) return e;
+        }
+        return null;
+    }
+
+    /** Programmes lus en base + opérations en attente, restreints aux événements acceptés par {@code evenements}. */
+    synchronized List<Programme> superposerProgrammes(List<Programme> lus, Set<Integer> evenements) {
+        Set<Integer> enAttente = enAttente(false);
+        for (Programme p : lus) {
+            if (!enAttente.contains(p.getIdProg())) progBases.put(p.getIdProg(), empreinte(p));
+        }
+        if (pending.isEmpty()) return lus;
+
+        Map<Integer, Programme> parId = new LinkedHashMap<>();
+        for (Programme p : lus) parId.put(p.getIdProg(), p);
+
+        for (Op op : pending.values()) {
+            switch (op.kind) {
+                case PROG_ADD -> {
+                    if (evenements == null || evenements.contains(evtReel(op.programme.getEventId()))) {
+                        parId.put(op.id, withId(op.programme, op.id));
+                    }
+                }
+                case PROG_UPDATE -> {
+                    int id = parId.containsKey(op.id) ? op.id : progReel(op.id);
+                    if (parId.containsKey(id)) {
+                        if (evenements == null || evenements.contains(evtReel(op.programme.getEventId()))) {
+                            parId.put(id, withId(op.programme, id));
+                        } else {
+                            parId.remove(id); // déplacé vers un autre événement
+                        }
+                    }
+                }
+                case PROG_DELETE -> {
+                    if (parId.remove(op.id) == null) parId.remove(progReel(op.id));
+                }
+                case EVT_DELETE -> {
+                    // suppression en cascade des programmes de l'événement
+                    int ev = evtReel(op.id);
+                    parId.values().removeIf(p -> evtReel(p.getEventId()) == ev);
+                }
+                default -> { }
+            }
+        }
+
+        List<Programme> out = new ArrayList<>(parId.values());
+        out.sort(Comparator.comparing(Programme::getDebut, Comparator.nullsLast(Comparator.naturalOrder())));
+        return out;
+    }
+
+    // ids (définitifs si connus) visés par une opération en attente
+    private Set<Integer> enAttente(boolean evenements) {
+        if (pending.isEmpty()) return Set.of();
+        Set<Integer> ids = new HashSet<>();
+        for (Op op : pending.values()) {
+            if (op.surEvenement() == evenements) ids.add(evenements ? evtReel(op.id) : progReel(op.id));
+        }
+        return ids;
+    }
+
+    // ===================== synchronisation =====================
+
+    private void run() {
+        long backoff = BACKOFF_MIN_MS;
+        boolean isoler = false;
+
+        while (true) {
+            List<Op> lot;
+            Map<Integer, Integer> evts;
+            Map<Integer, Integer> progs;
+            synchronized (this) {
+                while (pending.isEmpty() && aOublier.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) return;
+                lot = new ArrayList<>(isoler ? 1 : Math.min(BATCH, pending.size()));
+                for (Op op : pending.values()) {
+                    lot.add(op);
+                    if (lot.size() == (isoler ? 1 : BATCH)) break;
+                }
+                evts = new HashMap<>(evtReels);
+                progs = new HashMap<>(progReels);
+            }
+
+            if (lot.isEmpty()) {
+                // tout est rejoué : reste à retirer les clés acquittées de journal_applied
+                try {
+                    oublier();
+                    backoff = BACKOFF_MIN_MS;
+                } catch (SQLException e) {
+                    synchronized (this) {
+                        derniereErreur = e.getMessage();
+                    }
+                    if (!pause(backoff)) return;
+                    backoff = Math.min(backoff * 2, BACKOFF_MAX_MS);
+                }
+                continue;
+            }
+
+            try {
+                List<Synchro> res = replayer.rejouer(lot, evts, progs);
+                terminer(lot, res);
+                backoff = BACKOFF_MIN_MS;
+                isoler = false;
+            } catch (SQLException e) {
+                synchronized (this) {
+                    derniereErreur = e.getMessage();
+                }
+                if (connexion(e)) {
+                    // base injoignable : on réessaie plus tard, rien n'est perdu
+                    if (!pause(backoff)) return;
+                    backoff = Math.min(backoff * 2, BACKOFF_MAX_MS);
+                } else if (lot.size() > 1) {
+                    isoler = true; // une opération du lot est refusée : rejeu une par une
+                } else {
+                    Op op = lot.get(0);
+                    try {
+                        replayer.marquerConflit(op, e.getMessage());
+                        terminer(lot, List.of(new Synchro(op.kind, op.id, 0, e.getMessage())));
+                        isoler = false;
+                    } catch (SQLException again) {
+                        if (!pause(backoff)) return;
+                        backoff = Math.min(backoff * 2, BACKOFF_MAX_MS);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Acquitte localement les opérations rejouées, puis prévient les écouteurs. */
+    private void terminer(List<Op> lot, List<Synchro> res) {
+        List<String> lignes = new ArrayList<>();
+        synchronized (this) {
+            for (int i = 0; i < res.size(); i++) {
+                Op op = lot.get(i);
+                Synchro s = res.get(i);
+                try {
+                    log.append(encodeAck(op.key, s.reel(), s.conflit()));
+                    aOublier.add(op.key);
+                } catch (IOException e) {
+                    derniereErreur = "Acquittement local impossible : " + e.getMessage();
+                    // rejoué au prochain démarrage : journal_applied le rendra sans effet
+                }
+                pending.remove(op.key);
+
+                if (s.conflit() != null) {
+                    nbConflits++;
+                    lignes.add(LocalDateTime.now().withNano(0) + " " + op + " : " + s.conflit());
+                } else {
+                    synchronises++;
+                    if (op.kind == Kind.EVT_ADD) evtReels.put(op.id, s.reel());
+                    if (op.kind == Kind.PROG_ADD) progReels.put(op.id, s.reel());
+                }
+            }
+            derniereErreur = null;
+        }
+
+        if (!lignes.isEmpty()) {
+            try {
+                Files.write(conflits, lignes, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.out.println("⚠️ Conflits non écrits : " + e.getMessage());
+            }
+        }
+        for (Synchro s : res) {
+            for (Consumer<Synchro> l : listeners) {
+                try {
+                    l.accept(s);
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+        // écrans : id provisoire remplacé, ou saisie écartée (la ligne est relue en base)
+        for (int i = 0; i < res.size(); i++) ChangeBus.getInstance().publishAll(changes(lot.get(i), res.get(i)));
+    }
+
+    /**
+     * Retire de {@code journal_applied} les clés acquittées localement : le journal ne les rejouera
+     * plus. Le journal n'est vidé qu'ensuite (sinon une clé perdue resterait en base pour toujours).
+     */
+    private void oublier() throws SQLException {
+        List<String> cles;
+        synchronized (this) {
+            cles = new ArrayList<>(aOublier);
+        }
+        if (!cles.isEmpty()) replayer.oublier(cles);
+        synchronized (this) {
+            cles.forEach(aOublier::remove);
+            if (pending.isEmpty() && aOublier.isEmpty()) log.reset(); // tout est en base : le journal repart de zéro
+        }
+    }
+
+    private List<ChangeBus.Change> changes(Op op, Synchro s) {
+        boolean evt = op.surEvenement();
+        ChangeBus.Entite entite = evt ? ChangeBus.Entite.EVENEMENT : ChangeBus.Entite.PROGRAMME;
+        int parent = op.programme == null ? 0 : evtReel(op.programme.getEventId()); // 0 : suppression de programme
+
+        if (op.kind == Kind.EVT_ADD || op.kind == Kind.PROG_ADD) {
+            ChangeBus.Change retire = new ChangeBus.Change(entite, ChangeBus.Op.SUPPRESSION, s.provisoire(),
+                    evt ? s.provisoire() : parent, null, null, false);
+            if (s.conflit() != null) return List.of(retire);
+            return List.of(retire, new ChangeBus.Change(entite, ChangeBus.Op.AJOUT, s.reel(),
+                    evt ? s.reel() : parent, null, null, false));
+        }
+        if (s.conflit() == null) return List.of();
+
+        // modification écartée : état de la base ; suppression écartée : la ligne existe encore
+        int id = s.reel() != 0 ? s.reel() : (evt ? evtReel(op.id) : progReel(op.id));
+        ChangeBus.Op relire = (op.kind == Kind.EVT_DELETE || op.kind == Kind.PROG_DELETE)
+                ? ChangeBus.Op.AJOUT : ChangeBus.Op.MODIF;
+        return List.of(new ChangeBus.Change(entite, relire, id, evt ? id : parent, null, null, false));
+    }
+
+    private synchronized boolean pause(long ms) {
+        long fin = System.currentTimeMillis() + ms;
+        try {
+            for (long reste = ms; reste > 0 && !closed; reste = fin - System.currentTimeMillis()) wait(reste);
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return !closed;
+    }
+
+    static boolean connexion(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                || e instanceof SQLNonTransientConnectionException) return true;
+        String state = e.getSQLState();
+        return state != null && state.startsWith("08");
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            worker.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    // ===================== relecture du journal =====================
+
+    private void recover() {
+        int min = 0;
+        for (byte[] rec : log.recovered()) {
+            JsonObject o = JsonParser.parseString(new String(rec, StandardCharsets.UTF_8)).getAsJsonObject();
+            String key = o.get("key").getAsString();
+
+            if (o.has("ack")) {
+                aOublier.add(key); // arrêt avant le retrait de journal_applied
+                Op op = pending.remove(key);
+                int reel = o.get("ack").getAsInt();
+                if (op != null && reel > 0 && !o.has("conflit")) {
+                    if (op.kind == Kind.EVT_ADD) evtReels.put(op.id, reel);
+                    if (op.kind == Kind.PROG_ADD) progReels.put(op.id, reel);
+                }
+                continue;
+            }
+            Op op = decode(o);
+            pending.put(key, op);
+            min = Math.min(min, op.id);
+        }
+        prochainId = min - 1;
+        if (!pending.isEmpty()) System.out.println("⏳ Journal local : " + pending.size() + " écriture(s) à synchroniser");
+    }
+
+    // ===================== format =====================
+
+    private static byte[] encode(Op op) {
+        JsonObject o = new JsonObject();
+        o.addProperty("k", op.kind.name());
+        o.addProperty("key", op.key);
+        o.addProperty("id", op.id);
+        if (op.base != null) o.addProperty("base", op.base);
+        if (op.evenement != null) {
+            Evenement e = op.evenement;
+            JsonObject j = new JsonObject();
+            j.addProperty("titre", e.getTitre());
+            j.addProperty("description", e.getDescription());
+            j.addProperty("type", e.getType());
+            j.addProperty("date_debut", str(e.getDateDebut()));
+            j.addProperty("date_fin", str(e.getDateFin()));
+            j.addProperty("lieu", e.getLieu());
+            j.addProperty("image", e.getImage());
+            o.add("e", j);
+        }
+        if (op.programme != null) {
+            Programme p = op.programme;
+            JsonObject j = new JsonObject();
+            j.addProperty("event_id", p.getEventId());
+            j.addProperty("titre", p.getTitre());
+            j.addProperty("date_debut", str(p.getDebut()));
+            j.addProperty("date_fin", str(p.getFin()));
+            o.add("p", j);
+        }
+        return o.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encodeAck(String key, int reel, String conflit) {
+        JsonObject o = new JsonObject();
+        o.addProperty("key", key);
+        o.addProperty("ack", reel);
+        if (conflit != null) o.addProperty("conflit", conflit);
+        return o.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Op decode(JsonObject o) {
+        Evenement e = null;
+        Programme p = null;
+        if (o.has("e")) {
+            JsonObject j = o.getAsJsonObject("e");
+            e = new Evenement(s(j, "titre"), s(j, "description"), s(j, "type"),
+                    date(s(j, "date_debut")), date(s(j, "date_fin")), s(j, "lieu"));
+            e.setImage(s(j, "image"));
+        }
+        if (o.has("p")) {
+            JsonObject j = o.getAsJsonObject("p");
+            p = new Programme(j.get("event_id").getAsInt(), s(j, "titre"),
+                    date(s(j, "date_debut")), date(s(j, "date_fin")));
+        }
+        return new Op(Kind.valueOf(o.get("k").getAsString()), o.get("key").getAsString(),
+                o.get("id").getAsInt(), o.has("base") ? o.get("base").getAsInt() : null, e, p);
+    }
+
+    private static String s(JsonObject o, String key) {
+        return (o.has(key) && !o.get(key).isJsonNull()) ? o.get(key).getAsString() : null;
+    }
+
+    private static String str(LocalDateTime d) {
+        return d == null ? null : d.toString();
+    }
+
+    private static LocalDateTime date(String s) {
+        return s == null ? null : LocalDateTime.parse(s);
+    }
+
+    // ===================== empreintes / copies =====================
+
+    /** Empreinte des colonnes modifiables (à la seconde, image vide = null), comme relues en base. */
+    static int empreinte(Evenement e) {
+        return Objects.hash(e.getTitre(), e.getDescription(), e.getType(),
+                sec(e.getDateDebut()), sec(e.getDateFin()), e.getLieu(),
+                (e.getImage() == null || e.getImage().isBlank()) ? null : e.getImage());
+    }
+
+    static int empreinte(Programme p) {
+        return Objects.hash(p.getEventId(), p.getTitre(), sec(p.getDebut()), sec(p.getFin()));
+    }
+
+    private static LocalDateTime sec(LocalDateTime d) {
+        return d == null ? null : d.withNano(0);
+    }
+
+    static Evenement copy(Evenement e) {
+        return withId(e, e.getIdEvent());
+    }
+
+    static Evenement withId(Evenement e, int id) {
+        Evenement c = new Evenement(e.getTitre(), e.getDescription(), e.getType(),
+                e.getDateDebut(), e.getDateFin(), e.getLieu());
+        c.setIdEvent(id);
+        c.setImage(e.getImage());
+        return c;
+    }
+
+    static Programme copy(Programme p) {
+        return withId(p, p.getIdProg());
+    }
+
+    static Programme withId(Programme p, int id) {
+        Programme c = new Programme(p.getEventId(), p.getTitre(), p.getDebut(), p.getFin());
+        c.setIdProg(id);
+        return c;
+    }
+}
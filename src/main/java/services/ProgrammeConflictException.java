@@ -0,0 +1,24 @@
+package services;
+
+import entities.Programme;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/** Programme refusé à l'enregistrement : hors de l'événement ou en chevauchement d'autres créneaux. */
+public class ProgrammeConflictException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<Programme> conflits;
+
+    public ProgrammeConflictException(String message, List<Programme> conflits) {
+        super(message);
+        this.conflits = List.copyOf(conflits);
+    }
+
+    /** Créneaux existants chevauchés (vide si le refus vient des bornes de l'événement). */
+    public List<Programme> getConflits() {
+        return conflits;
+    }
+}
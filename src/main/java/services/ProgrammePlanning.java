@@ -0,0 +1,158 @@
+package services;
+
+import entities.Evenement;
+import entities.Programme;
+import interfaces.IProgrammeService;
+import utils.IntervalIndex;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Planning des programmes par événement, indexé ({@link IntervalIndex}) pour valider un
+ * enregistrement sans parcourir tous les créneaux : chevauchements, bornes de l'événement,
+ * créneaux libres.
+ * <p>
+ * L'index d'un événement est construit à la première demande (1 requête) puis tenu à jour par
+ * les écritures qui passent par cette classe. Les index les moins récemment utilisés sont
+ * oubliés au-delà de {@link #MAX_EVENTS} événements.
+ */
+public class ProgrammePlanning {
+
+    private static final int MAX_EVENTS = 256;
+    private static final DateTimeFormatter H = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private static ProgrammePlanning instance;
+
+    private final IProgrammeService programmes;
+
+    private final Map<Integer, IntervalIndex<Programme>> parEvent = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, IntervalIndex<Programme>> eldest) {
+            return size() > MAX_EVENTS;
+        }
+    };
+
+    public ProgrammePlanning(IProgrammeService programmes) {
+        this.programmes = programmes;
+    }
+
+    public static synchronized ProgrammePlanning getInstance() throws SQLException {
+        if (instance == null) {
+            instance = new ProgrammePlanning(JournalStore.wrap(new ProgrammeService()));
+            JournalStore journal = JournalStore.getInstance();
+            // ids provisoires remplacés ou écriture écartée : index reconstruits à la demande
+            if (journal != null) {
+                ProgrammePlanning p = instance;
+                journal.addListener(s -> {
+                    if (s.conflit() != null || s.kind() == JournalStore.Kind.EVT_ADD
+                            || s.kind() == JournalStore.Kind.PROG_ADD) p.invalidateAll();
+                });
+            }
+            ChangeBus.getInstance().subscribe(instance::appliquerDistant);
+        }
+        return instance;
+    }
+
+    public synchronized IntervalIndex<Programme> index(int eventId) throws SQLException {
+        IntervalIndex<Programme> idx = parEvent.get(eventId);
+        if (idx == null) {
+            idx = IntervalIndex.of(programmes.getByEventId(eventId), Programme::getDebut, Programme::getFin);
+            parEvent.put(eventId, idx);
+        }
+        return idx;
+    }
+
+    /** Créneaux existants de l'événement que {@code p} chevaucherait (hors {@code p} lui-même). */
+    public List<Programme> conflits(Programme p) throws SQLException {
+        return index(p.getEventId()).overlapping(p.getDebut(), p.getFin()).stream()
+                .filter(o -> p.getIdProg() == 0 || o.getIdProg() != p.getIdProg())
+                .toList();
+    }
+
+    /**
+     * Créneaux libres d'au moins {@code duree} pendant l'événement
+     * (jusqu'à minuit le jour du début si l'événement n'a pas de date fin).
+     */
+    public List<IntervalIndex.Gap> creneauxLibres(Evenement e, Duration duree) throws SQLException {
+        if (e.getDateDebut() == null) return List.of();
+        LocalDateTime fin = (e.getDateFin() != null)
+                ? e.getDateFin()
+                : e.getDateDebut().toLocalDate().plusDays(1).atStartOfDay();
+        return index(e.getIdEvent()).gaps(e.getDateDebut(), fin, duree);
+    }
+
+    // ===== écritures vérifiées =====
+
+    /** @throws ProgrammeConflictException hors de l'événement ou chevauchement ; rien n'est écrit */
+    public synchronized void ajouter(Evenement e, Programme p) throws SQLException {
+        verifier(e, p);
+        programmes.add(p);
+        parEvent.put(p.getEventId(), index(p.getEventId()).with(p));
+    }
+
+    public synchronized void modifier(Evenement e, Programme p) throws SQLException {
+        verifier(e, p);
+        programmes.update(p);
+        parEvent.put(p.getEventId(), index(p.getEventId())
+                .without(o -> o.getIdProg() == p.getIdProg())
+                .with(p));
+    }
+
+    public synchronized void supprimer(Programme p) throws SQLException {
+        programmes.delete(p.getIdProg());
+        IntervalIndex<Programme> idx = parEvent.get(p.getEventId());
+        if (idx != null) parEvent.put(p.getEventId(), idx.without(o -> o.getIdProg() == p.getIdProg()));
+    }
+
+    /** Oublie l'index d'un événement (programmes modifiés par un autre chemin). */
+    public synchronized void invalidate(int eventId) {
+        parEvent.remove(eventId);
+    }
+
+    public synchronized void invalidateAll() {
+        parEvent.clear();
+    }
+
+    /** Programmes écrits par une autre instance : index de l'événement reconstruit à la demande. */
+    public synchronized void appliquerDistant(ChangeBus.Change c) {
+        if (!c.distant()) return;
+        if (c.entite() == ChangeBus.Entite.EVENEMENT) {
+            if (c.op() == ChangeBus.Op.SUPPRESSION) parEvent.remove(c.id());
+        } else if (c.op() == ChangeBus.Op.MODIF || c.eventId() == 0) {
+            parEvent.clear(); // le programme a pu changer d'événement
+        } else {
+            parEvent.remove(c.eventId());
+        }
+    }
+
+    private void verifier(Evenement e, Programme p) throws SQLException {
+        String erreur = EvenementValidator.verifier(p);
+        if (erreur == null) erreur = EvenementValidator.verifierDansEvenement(p, e);
+        if (erreur != null) throw new ProgrammeConflictException(erreur, List.of());
+
+        List<Programme> conflits = conflits(p);
+        if (conflits.isEmpty()) return;
+
+        Programme c = conflits.get(0);
+        StringBuilder msg = new StringBuilder("Chevauche « ").append(c.getTitre()).append(" » (")
+                .append(c.getDebut().format(H)).append(" - ")
+                .append(c.getFin() == null ? "?" : c.getFin().format(H)).append(")");
+        if (conflits.size() > 1) msg.append(" et ").append(conflits.size() - 1).append(" autre(s)");
+
+        // suggestion : premier créneau libre de même durée
+        Duration duree = Duration.between(p.getDebut(), p.getFin());
+        List<IntervalIndex.Gap> libres = creneauxLibres(e, duree);
+        if (!libres.isEmpty()) {
+            LocalDateTime debut = libres.get(0).debut();
+            msg.append(". Créneau libre : ").append(debut.format(H))
+                    .append(" - ").append(debut.plus(duree).format(H));
+        }
+        throw new ProgrammeConflictException(msg.toString(), conflits);
+    }
+}
@@ -5,15 +5,19 @@ import interfaces.IProgrammeService;
 import utils.MyDataBase;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class ProgrammeService implements IProgrammeService {
 
-    private final Connection cnx;
+    static final int BATCH_SIZE = 500;
+    // taille des listes IN (...) : une requête par tranche, bien sous les limites du driver
+    private static final int IN_SIZE = 500;
+
+    private final MyDataBase db;
 
     public ProgrammeService() throws SQLException {
-        cnx = MyDataBase.getInstance().getCnx();
+        // les connexions sont empruntées au pool à chaque appel
+        db = MyDataBase.getInstance();
     }
 
     @Override
@@ -21,26 +25,95 @@ public class ProgrammeService implements IProgrammeService {
 
         String sql = "INSERT INTO programme (event_id, titre, date_debut, date_fin) VALUES (?, ?, ?, ?)";
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        ChangeBus.Change change;
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                ps.setInt(1, p.getEventId());
+                ps.setString(2, p.getTitre());
 
-            ps.setInt(1, p.getEventId());
-            ps.setString(2, p.getTitre());
+                // date_debut (NOT NULL)
+                ps.setTimestamp(3, Timestamp.valueOf(p.getDebut()));
+
+                // date_fin (peut être NULL)
+                if (p.getFin() != null) {
+                    ps.setTimestamp(4, Timestamp.valueOf(p.getFin()));
+                } else {
+                    ps.setNull(4, Types.TIMESTAMP);
+                }
 
-            // date_debut (NOT NULL)
-            ps.setTimestamp(3, Timestamp.valueOf(p.getDebut()));
+                ps.executeUpdate();
+
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        p.setIdProg(rs.getInt(1));
+                    }
+                }
+
+                change = ChangeBus.programme(ChangeBus.Op.AJOUT, p);
+                ChangeLog.noter(cnx, List.of(change));
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            }
+        }
+        ChangeBus.getInstance().publish(change);
+    }
 
-            // date_fin (peut être NULL)
-            if (p.getFin() != null) {
-                ps.setTimestamp(4, Timestamp.valueOf(p.getFin()));
-            } else {
-                ps.setNull(4, Types.TIMESTAMP);
+    // ✅ insertion groupée : un seul aller-retour par lot (rewriteBatchedStatements), une transaction
+    @Override
+    public void addAll(List<Programme> programmes) throws SQLException {
+        if (programmes.isEmpty()) return;
+
+        List<ChangeBus.Change> changes = new ArrayList<>(programmes.size());
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try {
+                insertBatch(cnx, programmes);
+                for (Programme p : programmes) changes.add(ChangeBus.programme(ChangeBus.Op.AJOUT, p));
+                ChangeLog.noter(cnx, changes);
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                for (Programme p : programmes) p.setIdProg(0); // ids des lignes annulées
+                throw ex;
             }
+        }
+        ChangeBus.getInstance().publishAll(changes);
+    }
 
-            ps.executeUpdate();
+    /** Insère les programmes par lots sur une connexion fournie (transaction gérée par l'appelant). */
+    static void insertBatch(Connection cnx, List<Programme> programmes) throws SQLException {
+
+        String sql = "INSERT INTO programme (event_id, titre, date_debut, date_fin) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement ps = cnx.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    p.setIdProg(rs.getInt(1));
+            for (int from = 0; from < programmes.size(); from += BATCH_SIZE) {
+                List<Programme> chunk = programmes.subList(from, Math.min(from + BATCH_SIZE, programmes.size()));
+
+                for (Programme p : chunk) {
+                    ps.setInt(1, p.getEventId());
+                    ps.setString(2, p.getTitre());
+                    ps.setTimestamp(3, Timestamp.valueOf(p.getDebut()));
+
+                    if (p.getFin() != null) {
+                        ps.setTimestamp(4, Timestamp.valueOf(p.getFin()));
+                    } else {
+                        ps.setNull(4, Types.TIMESTAMP);
+                    }
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                // les clés générées reviennent dans l'ordre des lignes du lot
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    for (Programme p : chunk) {
+                        if (!rs.next()) break;
+                        p.setIdProg(rs.getInt(1));
+                    }
                 }
             }
         }
@@ -51,32 +124,64 @@ public class ProgrammeService implements IProgrammeService {
 
         String sql = "UPDATE programme SET event_id=?, titre=?, date_debut=?, date_fin=? WHERE id_prog=?";
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+        ChangeBus.Change change;
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try (PreparedStatement ps = cnx.prepareStatement(sql)) {
 
-            ps.setInt(1, p.getEventId());
-            ps.setString(2, p.getTitre());
-            ps.setTimestamp(3, Timestamp.valueOf(p.getDebut()));
+                ps.setInt(1, p.getEventId());
+                ps.setString(2, p.getTitre());
+                ps.setTimestamp(3, Timestamp.valueOf(p.getDebut()));
 
-            if (p.getFin() != null) {
-                ps.setTimestamp(4, Timestamp.valueOf(p.getFin()));
-            } else {
-                ps.setNull(4, Types.TIMESTAMP);
-            }
+                if (p.getFin() != null) {
+                    ps.setTimestamp(4, Timestamp.valueOf(p.getFin()));
+                } else {
+                    ps.setNull(4, Types.TIMESTAMP);
+                }
 
-            ps.setInt(5, p.getIdProg());
-            ps.executeUpdate();
+                ps.setInt(5, p.getIdProg());
+                ps.executeUpdate();
+
+                change = ChangeBus.programme(ChangeBus.Op.MODIF, p);
+                ChangeLog.noter(cnx, List.of(change));
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            }
         }
+        ChangeBus.getInstance().publish(change);
     }
 
     @Override
     public void delete(int id) throws SQLException {
 
-        String sql = "DELETE FROM programme WHERE id_prog=?";
+        ChangeBus.Change change;
+        try (Connection cnx = db.getConnection()) {
+            cnx.setAutoCommit(false);
+            try {
+                // événement parent : les écrans de détails filtrent les changements par événement
+                int eventId = 0;
+                try (PreparedStatement ps = cnx.prepareStatement("SELECT event_id FROM programme WHERE id_prog=?")) {
+                    ps.setInt(1, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (rs.next()) eventId = rs.getInt(1);
+                    }
+                }
+                try (PreparedStatement ps = cnx.prepareStatement("DELETE FROM programme WHERE id_prog=?")) {
+                    ps.setInt(1, id);
+                    ps.executeUpdate();
+                }
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            ps.executeUpdate();
+                change = ChangeBus.programmeSupprime(id, eventId);
+                ChangeLog.noter(cnx, List.of(change));
+                cnx.commit();
+            } catch (SQLException ex) {
+                cnx.rollback();
+                throw ex;
+            }
         }
+        ChangeBus.getInstance().publish(change);
     }
 
     @Override
@@ -85,7 +190,8 @@ public class ProgrammeService implements IProgrammeService {
         String sql = "SELECT * FROM programme ORDER BY id_prog DESC";
         List<Programme> list = new ArrayList<>();
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql);
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
@@ -101,7 +207,8 @@ public class ProgrammeService implements IProgrammeService {
 
         String sql = "SELECT * FROM programme WHERE id_prog=?";
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql)) {
 
             ps.setInt(1, id);
 
@@ -118,7 +225,8 @@ public class ProgrammeService implements IProgrammeService {
         String sql = "SELECT * FROM programme WHERE event_id = ? ORDER BY date_debut ASC";
         List<Programme> list = new ArrayList<>();
 
-        try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+        try (Connection cnx = db.getConnection();
+             PreparedStatement ps = cnx.prepareStatement(sql)) {
 
             ps.setInt(1, eventId);
 
@@ -132,7 +240,38 @@ public class ProgrammeService implements IProgrammeService {
         return list;
     }
 
-    private Programme map(ResultSet rs) throws SQLException {
+    // ✅ une requête par tranche de IN_SIZE ids au lieu d'une par événement (N+1)
+    @Override
+    public Map<Integer, List<Programme>> getByEventIds(Collection<Integer> eventIds) throws SQLException {
+        Map<Integer, List<Programme>> result = new LinkedHashMap<>();
+        for (int id : eventIds) result.put(id, new ArrayList<>());
+        if (result.isEmpty()) return result;
+
+        List<Integer> ids = new ArrayList<>(result.keySet());
+        try (Connection cnx = db.getConnection()) {
+            for (int from = 0; from < ids.size(); from += IN_SIZE) {
+                List<Integer> chunk = ids.subList(from, Math.min(from + IN_SIZE, ids.size()));
+
+                String sql = "SELECT * FROM programme WHERE event_id IN ("
+                        + String.join(",", Collections.nCopies(chunk.size(), "?"))
+                        + ") ORDER BY event_id, date_debut ASC";
+
+                try (PreparedStatement ps = cnx.prepareStatement(sql)) {
+                    for (int i = 0; i < chunk.size(); i++) ps.setInt(i + 1, chunk.get(i));
+
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            Programme p = map(rs);
+                            result.get(p.getEventId()).add(p);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    static Programme map(ResultSet rs) throws SQLException {
 
         Programme p = new Programme();
 
@@ -0,0 +1,51 @@
+package services;
+
+import entities.Evenement;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/** Lieu déjà occupé sur la période : l'événement n'est pas enregistré. */
+public class VenueConflictException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DateTimeFormatter F = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final Evenement evenement;
+    private final List<Evenement> conflits;
+    private final LocalDateTime suggestion;
+
+    public VenueConflictException(Evenement e, List<Evenement> conflits, LocalDateTime suggestion) {
+        super(message(e, conflits, suggestion));
+        this.evenement = e;
+        this.conflits = List.copyOf(conflits);
+        this.suggestion = suggestion;
+    }
+
+    /** Événement refusé. */
+    public Evenement getEvenement() {
+        return evenement;
+    }
+
+    /** Événements qui occupent déjà le lieu. */
+    public List<Evenement> getConflits() {
+        return conflits;
+    }
+
+    /** Premier début libre au même lieu pour la même durée. */
+    public LocalDateTime getSuggestion() {
+        return suggestion;
+    }
+
+    private static String message(Evenement e, List<Evenement> conflits, LocalDateTime suggestion) {
+        Evenement c = conflits.get(0);
+        String msg = "Lieu « " + e.getLieu() + " » déjà pris par « " + c.getTitre() + " » ("
+                + c.getDateDebut().format(F) + ")";
+        if (conflits.size() > 1) msg += " et " + (conflits.size() - 1) + " autre(s)";
+        if (suggestion != null) msg += ". Prochain créneau libre : " + suggestion.format(F);
+        return msg;
+    }
+}
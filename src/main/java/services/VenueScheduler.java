@@ -0,0 +1,137 @@
+package services;
+
+import entities.Evenement;
+import utils.IntervalIndex;
+import utils.TextNormalizer;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Occupation des lieux : détecte deux événements au même lieu sur des périodes qui se chevauchent.
+ * <p>
+ * Le lieu (texte libre) est normalisé ({@link #cle}) : "Hôtel  Le Royal, Hammamet" et
+ * "hotel le royal hammamet" sont le même lieu. Chaque lieu a son {@link IntervalIndex} sur
+ * [date_debut, fin) ; un événement sans date fin occupe le lieu jusqu'à minuit.
+ * L'index d'un lieu est reconstruit à la première requête après une écriture sur ce lieu.
+ * <p>
+ * Non thread-safe : tenu par {@link EvenementCacheService}, qui synchronise.
+ * {@link #audit} (lecture seule, parallèle) peut être appelé de n'importe quel thread.
+ */
+public class VenueScheduler {
+
+    /** Deux événements qui se disputent le même lieu. */
+    public record Conflit(String lieu, Evenement a, Evenement b) {}
+
+    private final Map<String, Map<Integer, Evenement>> parLieu = new HashMap<>();
+    private final Map<String, IntervalIndex<Evenement>> index = new HashMap<>();
+
+    /** Clé de lieu : sans accents ni ponctuation, mots séparés par un espace. */
+    public static String cle(String lieu) {
+        return String.join(" ", TextNormalizer.tokens(lieu));
+    }
+
+    /** Fin d'occupation : date fin, sinon minuit le jour du début. */
+    static LocalDateTime finOccupation(Evenement e) {
+        if (e.getDateFin() != null && e.getDateFin().isAfter(e.getDateDebut())) return e.getDateFin();
+        return e.getDateDebut().toLocalDate().plusDays(1).atStartOfDay();
+    }
+
+    public void put(Evenement e) {
+        if (e.getDateDebut() == null) return;
+        String k = cle(e.getLieu());
+        if (k.isEmpty()) return;
+        parLieu.computeIfAbsent(k, x -> new HashMap<>()).put(e.getIdEvent(), e);
+        index.remove(k);
+    }
+
+    public void remove(Evenement e) {
+        String k = cle(e.getLieu());
+        Map<Integer, Evenement> m = parLieu.get(k);
+        if (m == null || m.remove(e.getIdEvent()) == null) return;
+        if (m.isEmpty()) parLieu.remove(k);
+        index.remove(k);
+    }
+
+    public void clear() {
+        parLieu.clear();
+        index.clear();
+    }
+
+    /** Événements du même lieu qui chevauchent {@code e} (hors {@code e} lui-même). */
+    public List<Evenement> conflits(Evenement e) {
+        if (e.getDateDebut() == null) return List.of();
+        IntervalIndex<Evenement> idx = index(cle(e.getLieu()));
+        if (idx == null) return List.of();
+
+        List<Evenement> out = new ArrayList<>();
+        for (Evenement o : idx.overlapping(e.getDateDebut(), finOccupation(e))) {
+            if (e.getIdEvent() == 0 || o.getIdEvent() != e.getIdEvent()) out.add(o);
+        }
+        return out;
+    }
+
+    /** Premier début >= celui de {@code e} où le lieu est libre pour la même durée. */
+    public LocalDateTime prochainCreneau(Evenement e) {
+        IntervalIndex<Evenement> idx = index(cle(e.getLieu()));
+        if (idx == null) return e.getDateDebut();
+
+        // l'événement modifié ne se bloque pas lui-même
+        if (e.getIdEvent() != 0) idx = idx.without(o -> o.getIdEvent() == e.getIdEvent());
+        return idx.nextFree(e.getDateDebut(), Duration.between(e.getDateDebut(), finOccupation(e)));
+    }
+
+    /** @throws VenueConflictException si le lieu est déjà pris sur la période */
+    public void verifier(Evenement e) throws VenueConflictException {
+        List<Evenement> conflits = conflits(e);
+        if (!conflits.isEmpty()) throw new VenueConflictException(e, conflits, prochainCreneau(e));
+    }
+
+    private IntervalIndex<Evenement> index(String k) {
+        IntervalIndex<Evenement> idx = index.get(k);
+        if (idx == null) {
+            Map<Integer, Evenement> m = parLieu.get(k);
+            if (m == null) return null;
+            idx = IntervalIndex.of(m.values(), Evenement::getDateDebut, VenueScheduler::finOccupation);
+            index.put(k, idx);
+        }
+        return idx;
+    }
+
+    // ===================== audit =====================
+
+    /**
+     * Tous les conflits de lieu du catalogue. Les lieux sont traités en parallèle
+     * (un lieu = une tâche) ; dans un lieu, balayage par date de début en O(m log m + conflits).
+     * Résultat trié par lieu puis date.
+     */
+    public static List<Conflit> audit(Collection<Evenement> events) {
+        Map<String, List<Evenement>> groupes = events.parallelStream()
+                .filter(e -> e.getDateDebut() != null && !cle(e.getLieu()).isEmpty())
+                .collect(Collectors.groupingByConcurrent(e -> cle(e.getLieu())));
+
+        return groupes.entrySet().parallelStream()
+                .flatMap(en -> balayer(en.getKey(), en.getValue()).stream())
+                .sorted(Comparator.comparing(Conflit::lieu)
+                        .thenComparing(c -> c.a().getDateDebut())
+                        .thenComparingInt(c -> c.a().getIdEvent()))
+                .toList();
+    }
+
+    private static List<Conflit> balayer(String lieu, List<Evenement> events) {
+        List<Evenement> tri = new ArrayList<>(events);
+        tri.sort(Comparator.comparing(Evenement::getDateDebut).thenComparingInt(Evenement::getIdEvent));
+
+        List<Conflit> out = new ArrayList<>();
+        // événements encore "ouverts" (fin > début courant), triés par fin
+        PriorityQueue<Evenement> ouverts = new PriorityQueue<>(Comparator.comparing(VenueScheduler::finOccupation));
+        for (Evenement e : tri) {
+            while (!ouverts.isEmpty() && !finOccupation(ouverts.peek()).isAfter(e.getDateDebut())) ouverts.poll();
+            for (Evenement o : ouverts) out.add(new Conflit(lieu, o, e));
+            ouverts.add(e);
+        }
+        return out;
+    }
+}
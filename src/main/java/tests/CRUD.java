@@ -1,7 +1,10 @@
 package tests;
 
 import entities.Evenement;
+import entities.TypeEvenement;
+import entities.EvenementAvecProgrammes;
 import entities.Programme;
+import services.EvenementGraphLoader;
 import services.EvenementService;
 import services.ProgrammeService;
 
@@ -74,18 +77,18 @@ public class CRUD {
         String titre = lireTexte("Titre: ", 3, 150);
         String desc  = lireTexte("Description: ", 3, 500);
         String lieu  = lireTexte("Lieu: ", 2, 150);
-        String type  = lireType();
+        TypeEvenement type = lireType();
 
         LocalDateTime debut = lireDate("Date debut (yyyy-MM-dd HH:mm): ");
         LocalDateTime fin = null;
 
-        if (type.equals("CAMPING") || type.equals("SEJOUR")) {
+        if (type.dateFinRequise()) {
             fin = lireDateApres("Date fin   (yyyy-MM-dd HH:mm): ", debut);
         } else {
             System.out.println("ℹ️ Type " + type + " => date_fin non requise.");
         }
 
-        Evenement e = new Evenement(titre, desc, type, debut, fin, lieu);
+        Evenement e = new Evenement(titre, desc, type.name(), debut, fin, lieu);
         se.add(e);
 
         System.out.println("✅ Evenement ajouté. ID = " + e.getIdEvent());
@@ -99,16 +102,16 @@ public class CRUD {
 
     private void afficherEvenementEtProgrammes() throws Exception {
         int id = lireInt("ID evenement: ");
-        Evenement e = se.getOneById(id);
+        EvenementAvecProgrammes g = new EvenementGraphLoader(se, sp).getOne(id);
 
-        if (e == null) {
+        if (g == null) {
             System.out.println("❌ Evenement introuvable.");
             return;
         }
 
-        System.out.println("\nEvent: " + e);
+        System.out.println("\nEvent: " + g.evenement());
 
-        List<Programme> progs = sp.getByEventId(id);
+        List<Programme> progs = g.programmes();
         System.out.println("Programmes (" + progs.size() + "):");
         progs.forEach(p -> System.out.println("  - " + p));
     }
@@ -134,14 +137,14 @@ public class CRUD {
         String lieu = lireTexteOptionnel("Nouveau lieu: ", 2, 150);
         if (lieu != null) e.setLieu(lieu);
 
-        String type = lireTypeOptionnel("Nouveau type (SOIREE/RANDONNEE/CAMPING/SEJOUR): ");
-        if (type != null) e.setType(type);
+        TypeEvenement type = lireTypeOptionnel("Nouveau type (" + TypeEvenement.noms() + "): ");
+        if (type != null) e.setType(type.name());
 
         if (lireOuiNon("Modifier date_debut ? (oui/non): ")) {
             e.setDateDebut(lireDate("Date debut (yyyy-MM-dd HH:mm): "));
         }
 
-        if (e.getType().equals("CAMPING") || e.getType().equals("SEJOUR")) {
+        if (e.getTypeEvenement() != null && e.getTypeEvenement().dateFinRequise()) {
             e.setDateFin(lireDateApres("Date fin (yyyy-MM-dd HH:mm): ", e.getDateDebut()));
         } else {
             e.setDateFin(null);
@@ -175,7 +178,8 @@ public class CRUD {
         LocalDateTime fin = lireDateApres("Fin programme   (yyyy-MM-dd HH:mm): ", debut);
 
         // contrôles simples selon type
-        if ((e.getType().equals("CAMPING") || e.getType().equals("SEJOUR")) && e.getDateFin() != null) {
+        TypeEvenement type = e.getTypeEvenement();
+        if (type != null && type.dateFinRequise() && e.getDateFin() != null) {
             if (debut.isBefore(e.getDateDebut()) || fin.isAfter(e.getDateFin())) {
                 System.out.println("❌ Programme doit être entre " + e.getDateDebut().format(FMT) + " et " + e.getDateFin().format(FMT));
                 return;
@@ -264,21 +268,21 @@ public class CRUD {
         return s;
     }
 
-    private String lireType() {
+    private TypeEvenement lireType() {
         while (true) {
-            System.out.print("Type (SOIREE/RANDONNEE/CAMPING/SEJOUR): ");
-            String t = sc.nextLine().trim().toUpperCase();
-            if (t.equals("SOIREE") || t.equals("RANDONNEE") || t.equals("CAMPING") || t.equals("SEJOUR")) return t;
+            System.out.print("Type (" + TypeEvenement.noms() + "): ");
+            TypeEvenement t = TypeEvenement.parse(sc.nextLine());
+            if (t != null) return t;
             System.out.println("❌ Type invalide.");
         }
     }
 
-    private String lireTypeOptionnel(String msg) {
+    private TypeEvenement lireTypeOptionnel(String msg) {
         System.out.print(msg);
-        String t = sc.nextLine().trim();
-        if (t.isEmpty()) return null;
-        t = t.toUpperCase();
-        if (t.equals("SOIREE") || t.equals("RANDONNEE") || t.equals("CAMPING") || t.equals("SEJOUR")) return t;
+        String s = sc.nextLine().trim();
+        if (s.isEmpty()) return null;
+        TypeEvenement t = TypeEvenement.parse(s);
+        if (t != null) return t;
         System.out.println("❌ Type invalide. Ignoré.");
         return null;
     }
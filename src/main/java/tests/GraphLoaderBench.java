@@ -0,0 +1,71 @@
+package tests;
+
+import entities.Evenement;
+import entities.EvenementAvecProgrammes;
+import services.EvenementGraphLoader;
+import services.EvenementService;
+import services.ProgrammeService;
+import utils.ConnectionPool;
+import utils.MyDataBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Comparatif chargement "tous les événements + programmes" :
+ * boucle getByEventId (N+1) vs {@link EvenementGraphLoader} (IN groupés / SELECT unique).
+ * <p>
+ * Usage : {@code GraphLoaderBench [tours]} sur la base configurée dans {@link MyDataBase}.
+ * Affiche la médiane par tour et le nombre d'emprunts au pool (N+1 : un par requête).
+ */
+public class GraphLoaderBench {
+
+    private interface Loader {
+        List<EvenementAvecProgrammes> load() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int tours = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        EvenementService se = new EvenementService();
+        ProgrammeService sp = new ProgrammeService();
+        EvenementGraphLoader loader = new EvenementGraphLoader(se, sp);
+
+        System.out.println("Evenements : " + se.getAll().size() + ", tours : " + tours);
+
+        run("N+1 (getByEventId)", tours, () -> {
+            List<EvenementAvecProgrammes> list = new ArrayList<>();
+            for (Evenement e : se.getAll()) {
+                list.add(new EvenementAvecProgrammes(e, sp.getByEventId(e.getIdEvent())));
+            }
+            return list;
+        });
+        run("IN (...) par 500", tours, () -> loader.load(se.getAll()));
+        run("getAll (2 requetes)", tours, loader::getAll);
+    }
+
+    private static void run(String name, int tours, Loader loader) throws Exception {
+        ConnectionPool pool = MyDataBase.getInstance().getPool();
+
+        loader.load(); // chauffe (JIT, cache de statements du driver)
+
+        long[] nanos = new long[tours];
+        long borrows = 0;
+        long programmes = 0;
+        for (int i = 0; i < tours; i++) {
+            long b0 = pool.getStats().borrows();
+            long t0 = System.nanoTime();
+            List<EvenementAvecProgrammes> graph = loader.load();
+            nanos[i] = System.nanoTime() - t0;
+            borrows = pool.getStats().borrows() - b0;
+
+            programmes = 0;
+            for (EvenementAvecProgrammes g : graph) programmes += g.programmes().size();
+        }
+        Arrays.sort(nanos);
+
+        System.out.printf("%-22s médiane %8.1f ms | %6d emprunts pool | %d programmes%n",
+                name, nanos[tours / 2] / 1e6, borrows, programmes);
+    }
+}
@@ -0,0 +1,191 @@
+package utils;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Filtre et tri de listes en mémoire, séquentiels sous un seuil de taille et découpés sur un
+ * pool fork-join dédié au-delà (le pool commun reste aux streams parallèles existants).
+ * <p>
+ * Réglages : {@code -Dparallel.threshold} (taille à partir de laquelle on découpe, défaut 50 000)
+ * et {@code -Dparallel.level} (threads, défaut = nombre de cœurs ; 1 = toujours séquentiel).
+ * Le défaut de 50 000 est une estimation, pas une mesure : le point de bascule se mesure avec
+ * {@code AdaptiveParallelBench} (profil jmh) sur une machine multicœur.
+ * <p>
+ * L'ordre de la liste est conservé par le filtre ; le tri est stable. Le tri calcule la clé une fois
+ * par élément (ex. titre en minuscules) au lieu de la recalculer à chaque comparaison.
+ */
+public final class AdaptiveParallel {
+
+    public static final int DEFAULT_THRESHOLD = Integer.getInteger("parallel.threshold", 50_000);
+    public static final int DEFAULT_LEVEL = Integer.getInteger("parallel.level",
+            Runtime.getRuntime().availableProcessors());
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static AdaptiveParallel instance;
+
+    private final int threshold;
+    private final int level;
+    private final ForkJoinPool pool; // null : niveau 1, jamais de découpage
+
+    public AdaptiveParallel(int threshold, int level) {
+        this.threshold = Math.max(0, threshold);
+        this.level = Math.max(1, level);
+        this.pool = this.level == 1 ? null : new ForkJoinPool(this.level, p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("parallel-" + COUNTER.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+    }
+
+    public static synchronized AdaptiveParallel getInstance() {
+        if (instance == null) instance = new AdaptiveParallel(DEFAULT_THRESHOLD, DEFAULT_LEVEL);
+        return instance;
+    }
+
+    public boolean parallel(int size) {
+        return pool != null && size >= threshold;
+    }
+
+    // ===================== filtre =====================
+
+    public <T> List<T> filter(List<T> list, Predicate<? super T> p) {
+        Object[] src = list.toArray();
+        if (!parallel(src.length)) {
+            return Collections.unmodifiableList(new Filtre<T>(src, p, 0, src.length, src.length).compute());
+        }
+        return Collections.unmodifiableList(pool.invoke(new Filtre<T>(src, p, 0, src.length, grain(src.length))));
+    }
+
+    private static final class Filtre<T> extends RecursiveTask<List<T>> {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src;
+        private final Predicate<? super T> p;
+        private final int lo, hi, grain;
+
+        Filtre(Object[] src, Predicate<? super T> p, int lo, int hi, int grain) {
+            this.src = src;
+            this.p = p;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected List<T> compute() {
+            if (hi - lo <= grain) {
+                List<T> out = new ArrayList<>();
+                for (int i = lo; i < hi; i++) {
+                    T e = (T) src[i];
+                    if (p.test(e)) out.add(e);
+                }
+                return out;
+            }
+            int mid = (lo + hi) >>> 1;
+            Filtre<T> droite = new Filtre<>(src, p, mid, hi, grain);
+            droite.fork();
+            List<T> out = new Filtre<T>(src, p, lo, mid, grain).compute();
+            out.addAll(droite.join()); // gauche puis droite : ordre d'origine
+            return out;
+        }
+    }
+
+    // ===================== tri par clé précalculée =====================
+
+    /**
+     * Tri stable par {@code key} (calculée une fois par élément), puis {@code ties} à clé égale
+     * (null = ordre d'origine). Clés nulles : à {@code order} de les accepter (nullsFirst / nullsLast).
+     */
+    public <T, K> List<T> sortByKey(List<T> list, Function<? super T, ? extends K> key,
+                                    Comparator<? super K> order, Comparator<? super T> ties) {
+        Object[] src = list.toArray();
+        int n = src.length;
+        Cle<T, K>[] a = cles(n);
+        Comparator<Cle<T, K>> c = (x, y) -> {
+            int r = order.compare(x.key, y.key);
+            return (r != 0 || ties == null) ? r : ties.compare(x.elem, y.elem);
+        };
+
+        if (parallel(n)) {
+            pool.invoke(new Tri<>(src, key, a, cles(n), c, 0, n, grain(n)));
+        } else {
+            new Tri<>(src, key, a, null, c, 0, n, n).compute();
+        }
+
+        List<T> out = new ArrayList<>(n);
+        for (Cle<T, K> k : a) out.add(k.elem);
+        return Collections.unmodifiableList(out);
+    }
+
+    private record Cle<T, K>(K key, T elem) {}
+
+    @SuppressWarnings("unchecked") // tableau neuf, rempli seulement de Cle<T, K>
+    private static <T, K> Cle<T, K>[] cles(int n) {
+        return (Cle<T, K>[]) new Cle<?, ?>[n];
+    }
+
+    /** Tranches triées (clés calculées au passage) puis fusionnées deux à deux. */
+    private static final class Tri<T, K> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src;
+        private final Function<? super T, ? extends K> key;
+        private final Cle<T, K>[] a;
+        private final Cle<T, K>[] tmp;
+        private final Comparator<Cle<T, K>> c;
+        private final int lo, hi, grain;
+
+        Tri(Object[] src, Function<? super T, ? extends K> key, Cle<T, K>[] a, Cle<T, K>[] tmp,
+            Comparator<Cle<T, K>> c, int lo, int hi, int grain) {
+            this.src = src;
+            this.key = key;
+            this.a = a;
+            this.tmp = tmp;
+            this.c = c;
+            this.lo = lo;
+            this.hi = hi;
+            this.grain = grain;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (hi - lo <= grain) {
+                for (int i = lo; i < hi; i++) {
+                    T e = (T) src[i];
+                    a[i] = new Cle<>(key.apply(e), e);
+                }
+                Arrays.sort(a, lo, hi, c);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Tri<>(src, key, a, tmp, c, lo, mid, grain),
+                    new Tri<>(src, key, a, tmp, c, mid, hi, grain));
+            fusionner(mid);
+        }
+
+        // à égalité, la moitié gauche d'abord : tri stable
+        private void fusionner(int mid) {
+            if (c.compare(a[mid - 1], a[mid]) <= 0) return; // déjà dans l'ordre
+            System.arraycopy(a, lo, tmp, lo, hi - lo);
+            int i = lo, j = mid, k = lo;
+            while (i < mid && j < hi) a[k++] = c.compare(tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+            while (i < mid) a[k++] = tmp[i++];
+            while (j < hi) a[k++] = tmp[j++];
+        }
+    }
+
+    // ~4 tranches par thread : équilibre sans multiplier les fusions
+    private int grain(int n) {
+        return Math.max(1_024, n / (level * 4));
+    }
+}
@@ -0,0 +1,114 @@
+package utils;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Petite couche asynchrone pour sortir le JDBC du thread JavaFX.
+ * <p>
+ * Les tâches tournent sur un pool de threads démons (Java 17 : pas de threads virtuels),
+ * dimensionné comme le pool de connexions ; les résultats reviennent sur le thread FX
+ * via {@link Platform#runLater}.
+ */
+public final class Async {
+
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface VoidTask {
+        void run() throws Exception;
+    }
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final ExecutorService DB = Executors.newFixedThreadPool(8, r -> {
+        Thread t = new Thread(r, "db-worker-" + COUNTER.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Async() {}
+
+    public static <T> CompletableFuture<T> supply(Task<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, DB);
+    }
+
+    public static CompletableFuture<Void> run(VoidTask task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /** Exécute {@code task} en arrière-plan et rappelle {@code onOk} / {@code onError} sur le thread FX. */
+    public static <T> CompletableFuture<T> onFx(Task<T> task, Consumer<T> onOk, Consumer<Throwable> onError) {
+        CompletableFuture<T> f = supply(task);
+        f.whenComplete((res, err) -> {
+            if (err != null && unwrap(err) instanceof CancellationException) return;
+            Platform.runLater(() -> {
+                if (err == null) onOk.accept(res);
+                else onError.accept(unwrap(err));
+            });
+        });
+        return f;
+    }
+
+    public static CompletableFuture<Void> runOnFx(VoidTask task, Runnable onOk, Consumer<Throwable> onError) {
+        return onFx(() -> {
+            task.run();
+            return null;
+        }, ignored -> onOk.run(), onError);
+    }
+
+    public static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    /**
+     * "Dernière requête gagnante" : chaque {@link #submit} annule la précédente (si elle n'a pas
+     * encore démarré) et ignore son résultat si elle termine quand même après. Utilisé depuis le
+     * thread FX (recherche, filtres...).
+     */
+    public static final class Latest<T> {
+        private CompletableFuture<T> current;
+        private long generation;
+
+        public CompletableFuture<T> submit(Task<T> task, Consumer<T> onOk, Consumer<Throwable> onError) {
+            cancel();
+            long gen = ++generation;
+            current = onFx(task,
+                    res -> { if (gen == generation) onOk.accept(res); },
+                    err -> { if (gen == generation) onError.accept(err); });
+            return current;
+        }
+
+        public void cancel() {
+            generation++;
+            if (current != null) {
+                current.cancel(false);
+                current = null;
+            }
+        }
+    }
+}
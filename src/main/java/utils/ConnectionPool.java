@@ -0,0 +1,392 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pool de connexions JDBC borné.
+ * <p>
+ * Chaque emprunt renvoie un proxy : {@code close()} rend la connexion au pool au lieu de la fermer.
+ * Les connexions sont validées à l'emprunt (sauf rendues il y a moins de {@link #VALIDATION_BYPASS_MS} ms :
+ * elles viennent de servir), évincées après {@code idleTimeoutMs} d'inactivité et renouvelées après
+ * {@code maxLifetimeMs} (pour ne jamais dépasser le wait_timeout de MySQL).
+ * Au retour, une connexion retrouve ses réglages d'origine : transaction annulée, autocommit,
+ * lecture seule et niveau d'isolation.
+ * Avec {@code statementCacheSize > 0}, chaque connexion physique garde ses PreparedStatement
+ * ({@link StatementCache}) : le même SQL n'est préparé qu'une fois par connexion, pas à chaque appel.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Rendue depuis moins longtemps : pas de {@code isValid} (aller-retour serveur) à l'emprunt. */
+    static final long VALIDATION_BYPASS_MS = 500;
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private final int maxSize;
+    private final long connectionTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+    private final int validationTimeoutSec;
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int total;
+    private boolean closed;
+
+    private final ScheduledExecutorService housekeeper;
+
+    // ===== métriques =====
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong retiredCount = new AtomicLong();
+    private final AtomicLong statementHits = new AtomicLong();
+    private final AtomicLong statementMisses = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long connectionTimeoutMs, long idleTimeoutMs, long maxLifetimeMs) {
+        this(url, user, password, maxSize, connectionTimeoutMs, idleTimeoutMs, maxLifetimeMs, 0);
+    }
+
+    /** @param statementCacheSize PreparedStatement gardés par connexion (0 = pas de registre) */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long connectionTimeoutMs, long idleTimeoutMs, long maxLifetimeMs,
+                          int statementCacheSize) {
+        if (maxSize <= 0) throw new IllegalArgumentException("maxSize doit être > 0");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.connectionTimeoutMs = connectionTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.validationTimeoutSec = 2;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, Math.min(idleTimeoutMs, maxLifetimeMs) / 2);
+        housekeeper.scheduleWithFixedDelay(this::evict, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Emprunte une connexion (à fermer avec try-with-resources pour la rendre au pool). */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(connectionTimeoutMs);
+
+        while (true) {
+            PooledConnection pc = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (true) {
+                    if (closed) throw new SQLException("Pool de connexions fermé");
+
+                    pc = idle.pollFirst();
+                    if (pc != null) break;
+
+                    if (total < maxSize) {
+                        total++;
+                        create = true;
+                        break;
+                    }
+
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeoutCount.incrementAndGet();
+                        throw new SQLTransientConnectionException(
+                                "Aucune connexion disponible après " + connectionTimeoutMs + " ms (max=" + maxSize + ")");
+                    }
+                    available.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Attente de connexion interrompue", e);
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                Connection raw = null;
+                try {
+                    raw = DriverManager.getConnection(url, user, password);
+                    pc = new PooledConnection(raw); // lit les réglages d'origine
+                    createdCount.incrementAndGet();
+                } catch (SQLException e) {
+                    if (raw != null) {
+                        try {
+                            raw.close();
+                        } catch (SQLException ignored) {
+                        }
+                    }
+                    release(null);
+                    throw e;
+                }
+            } else if (!isUsable(pc)) {
+                // connexion morte ou trop vieille : on la jette et on recommence
+                retire(pc);
+                continue;
+            }
+
+            recordWait(System.nanoTime() - start);
+            return pc.newProxy();
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        long now = System.currentTimeMillis();
+        if (now - pc.createdAt >= maxLifetimeMs) return false;
+        if (now - pc.lastUsed < VALIDATION_BYPASS_MS) return true;
+        try {
+            return pc.raw.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /** Appelé par le proxy au close(). */
+    private void giveBack(PooledConnection pc) {
+        pc.lastUsed = System.currentTimeMillis();
+
+        boolean healthy;
+        try {
+            if (!pc.raw.getAutoCommit()) {
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+            if (pc.reglagesModifies) {
+                // ✅ l'emprunteur suivant ne doit pas hériter d'une connexion en lecture seule ou d'une autre isolation
+                pc.raw.setReadOnly(pc.readOnlyInitial);
+                pc.raw.setTransactionIsolation(pc.isolationInitiale);
+                pc.reglagesModifies = false;
+            }
+            healthy = !pc.raw.isClosed() && System.currentTimeMillis() - pc.createdAt < maxLifetimeMs;
+        } catch (SQLException e) {
+            healthy = false;
+        }
+
+        if (!healthy) {
+            retire(pc);
+            return;
+        }
+        release(pc);
+    }
+
+    private void release(PooledConnection pc) {
+        lock.lock();
+        try {
+            if (pc == null) {
+                total--;
+            } else if (closed) {
+                total--;
+                closeQuietly(pc);
+            } else {
+                idle.addFirst(pc); // LIFO : les connexions chaudes restent chaudes
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void retire(PooledConnection pc) {
+        closeQuietly(pc);
+        retiredCount.incrementAndGet();
+        release(null);
+    }
+
+    /** Ferme les connexions inactives trop longtemps ou trop vieilles. */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        Deque<PooledConnection> toClose = new ArrayDeque<>();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsed >= idleTimeoutMs || now - pc.createdAt >= maxLifetimeMs) {
+                    it.remove();
+                    toClose.add(pc);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (PooledConnection pc : toClose) retire(pc);
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void closeQuietly(PooledConnection pc) {
+        try {
+            pc.raw.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    @Override
+    public void close() {
+        housekeeper.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            for (PooledConnection pc : idle) {
+                closeQuietly(pc);
+                total--;
+            }
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== métriques =====
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            long borrows = borrowCount.get();
+            return new Stats(
+                    total,
+                    idle.size(),
+                    maxSize,
+                    borrows,
+                    borrows == 0 ? 0 : totalWaitNanos.get() / borrows / 1_000,
+                    maxWaitNanos.get() / 1_000,
+                    timeoutCount.get(),
+                    createdCount.get(),
+                    retiredCount.get(),
+                    statementHits.get(),
+                    statementMisses.get()
+            );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record Stats(int total, int idle, int max, long borrows,
+                        long avgWaitMicros, long maxWaitMicros, long timeouts,
+                        long created, long retired,
+                        long statementHits, long statementMisses) {
+        public int active() { return total - idle; }
+    }
+
+    // ===== connexion physique + proxy =====
+
+    private final class PooledConnection {
+        final Connection raw;
+        final StatementCache statements; // null si désactivé ; fermés avec la connexion
+        final long createdAt = System.currentTimeMillis();
+        volatile long lastUsed = createdAt;
+        final boolean readOnlyInitial;
+        final int isolationInitiale;
+        volatile boolean reglagesModifies; // setReadOnly / setTransactionIsolation appelé depuis l'emprunt
+
+        PooledConnection(Connection raw) throws SQLException {
+            this.raw = raw;
+            this.readOnlyInitial = raw.isReadOnly();
+            this.isolationInitiale = raw.getTransactionIsolation();
+            this.statements = (statementCacheSize > 0)
+                    ? new StatementCache(raw, statementCacheSize, statementHits, statementMisses)
+                    : null;
+        }
+
+        Connection newProxy() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handler(this)
+            );
+        }
+    }
+
+    private final class Handler implements InvocationHandler {
+        private PooledConnection pc;
+
+        Handler(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> {
+                    if (pc != null) {
+                        PooledConnection p = pc;
+                        pc = null; // un proxy ne rend sa connexion qu'une seule fois
+                        giveBack(p);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return pc == null || pc.raw.isClosed();
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "setReadOnly", "setTransactionIsolation" -> {
+                    if (pc != null) pc.reglagesModifies = true; // remis au retour (giveBack)
+                }
+                case "prepareStatement" -> {
+                    // ✅ prepareStatement(sql) / (sql, autoGeneratedKeys) : servis par le registre
+                    if (pc != null && pc.statements != null && cacheable(m)) {
+                        int keys = args.length == 2 ? (int) args[1] : Statement.NO_GENERATED_KEYS;
+                        return pc.statements.prepare((Connection) proxy, (String) args[0], keys);
+                    }
+                }
+                default -> { }
+            }
+
+            if (pc == null) throw new SQLException("Connexion déjà rendue au pool");
+            try {
+                return m.invoke(pc.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static boolean cacheable(Method m) {
+            Class<?>[] p = m.getParameterTypes();
+            return p.length == 1 || (p.length == 2 && p[1] == int.class);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture CSV en flux (RFC 4180) : un enregistrement à la fois, jamais le fichier entier.
+ * Gère les champs entre guillemets (séparateur, retour à la ligne et "" échappé à l'intérieur).
+ * Le séparateur est ',' ou ';' (export Excel FR).
+ */
+public class CsvReader implements Closeable {
+
+    private final Reader in;
+    private final char sep;
+    private final char[] buf = new char[8192];
+    private int pos, len;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in, char sep) {
+        this.in = in;
+        this.sep = sep;
+    }
+
+    /** Champs de l'enregistrement suivant, ou null en fin de fichier. Les lignes vides sont ignorées. */
+    public List<String> next() throws IOException {
+        while (true) {
+            int c = read();
+            if (c < 0) return null;
+            if (c == '\r') continue;
+            if (c == '\n') {
+                line++;
+                continue;
+            }
+            pos--; // on relit ce caractère dans le champ
+            return record();
+        }
+    }
+
+    /** Ligne (1 = première) où commence le dernier enregistrement rendu par {@link #next()}. */
+    public long getLine() {
+        return recordLine;
+    }
+
+    private List<String> record() throws IOException {
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c < 0) throw new IOException("Guillemet non fermé (ligne " + recordLine + ")");
+                if (c == '"') {
+                    int n = read();
+                    if (n == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (n >= 0) pos--;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c < 0 || c == '\n') {
+                if (c == '\n') line++;
+                fields.add(field.toString());
+                return fields;
+            }
+            if (c == '\r') continue;
+            if (c == sep) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pos == len) {
+            len = in.read(buf, 0, buf.length);
+            pos = 0;
+            if (len <= 0) {
+                len = 0;
+                return -1;
+            }
+        }
+        return buf[pos++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
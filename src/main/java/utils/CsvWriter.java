@@ -0,0 +1,61 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Écriture CSV (RFC 4180), symétrique de {@link CsvReader} : un champ contenant le séparateur,
+ * un guillemet ou un retour à la ligne est mis entre guillemets. null => champ vide.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+    private final Writer out;
+    private final char sep;
+
+    public CsvWriter(Writer out, char sep) {
+        this.out = out;
+        this.sep = sep;
+    }
+
+    public void row(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) out.write(sep);
+            field(fields[i]);
+        }
+        out.write("\r\n");
+    }
+
+    private void field(String s) throws IOException {
+        if (s == null || s.isEmpty()) return;
+
+        boolean quote = false;
+        for (int i = 0; i < s.length() && !quote; i++) {
+            char c = s.charAt(i);
+            quote = c == sep || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(s);
+            return;
+        }
+
+        out.write('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') out.write('"');
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
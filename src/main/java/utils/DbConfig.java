@@ -0,0 +1,89 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configuration de la base : MySQL (serveur) ou base embarquée H2 (dans le processus, fichier local).
+ * <p>
+ * Lue dans cet ordre, chaque source écrasant la précédente :
+ * {@code db.properties} du classpath, {@code ./db.properties} du dossier de lancement,
+ * propriétés système ({@code -Ddb.mode=embedded}, {@code -Ddb.url=...}).
+ * <ul>
+ *     <li>{@code db.mode} : {@code mysql} (défaut) ou {@code embedded}</li>
+ *     <li>{@code db.url}, {@code db.user}, {@code db.password} : défauts selon le mode</li>
+ *     <li>{@code db.bootstrap} : crée/migre le schéma au démarrage ({@link SchemaMigrator}) ;
+ *         true par défaut en mode embarqué, false sur MySQL</li>
+ *     <li>{@code db.journal} : fichier du journal local des écritures (ex : {@code ./data/journal.log}) ;
+ *         vide = écritures directes. Voir {@code services.JournalStore}</li>
+ * </ul>
+ */
+public record DbConfig(Mode mode, String url, String user, String password, boolean bootstrap, Path journal) {
+
+    public enum Mode { MYSQL, EMBEDDED }
+
+    // H2 en mode MySQL : même SQL que les services ; fichier ./data/gestion_evenements.mv.db
+    public static final String EMBEDDED_URL =
+            "jdbc:h2:./data/gestion_evenements;MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+
+    private static final String FILE = "db.properties";
+
+    public static DbConfig load() {
+        Properties p = new Properties();
+
+        try (InputStream in = DbConfig.class.getResourceAsStream("/" + FILE)) {
+            if (in != null) p.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("⚠️ " + FILE + " (classpath) illisible : " + e.getMessage());
+        }
+
+        Path local = Path.of(FILE);
+        if (Files.isRegularFile(local)) {
+            try (Reader r = Files.newBufferedReader(local, StandardCharsets.UTF_8)) {
+                p.load(r);
+            } catch (IOException e) {
+                System.out.println("⚠️ " + local.toAbsolutePath() + " illisible : " + e.getMessage());
+            }
+        }
+
+        for (String k : new String[]{"db.mode", "db.url", "db.user", "db.password", "db.bootstrap", "db.journal"}) {
+            String v = System.getProperty(k);
+            if (v != null) p.setProperty(k, v);
+        }
+        return from(p);
+    }
+
+    static DbConfig from(Properties p) {
+        Mode mode = "embedded".equals(p.getProperty("db.mode", "mysql").trim().toLowerCase(Locale.ROOT))
+                ? Mode.EMBEDDED : Mode.MYSQL;
+
+        String url = p.getProperty("db.url", mode == Mode.EMBEDDED ? EMBEDDED_URL : MyDataBase.URL);
+        String user = p.getProperty("db.user", mode == Mode.EMBEDDED ? "sa" : MyDataBase.USER);
+        String password = p.getProperty("db.password", mode == Mode.EMBEDDED ? "" : MyDataBase.PASSWORD);
+        boolean bootstrap = Boolean.parseBoolean(p.getProperty("db.bootstrap", String.valueOf(mode == Mode.EMBEDDED)));
+
+        String journal = p.getProperty("db.journal", "").trim();
+
+        return new DbConfig(mode, url.trim(), user, password, bootstrap,
+                journal.isEmpty() ? null : Path.of(journal));
+    }
+
+    /** Libellé pour les messages de démarrage. */
+    public String label() {
+        return mode == Mode.EMBEDDED ? "base embarquée" : "MySQL";
+    }
+
+    @Override
+    public String toString() {
+        // pas de mot de passe dans les logs
+        return "DbConfig[" + mode + ", " + url + ", user=" + user + ", bootstrap=" + bootstrap
+                + (journal == null ? "" : ", journal=" + journal) + "]";
+    }
+}
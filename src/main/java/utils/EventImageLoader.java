@@ -0,0 +1,223 @@
+package utils;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Chargement d'images des cartes : décodage en arrière-plan, réduit à la taille de la carte
+ * dès le décodage, cache LRU en mémoire (borné en octets) et cache disque optionnel
+ * ({@code -Dimages.diskCache=true}, vignettes PNG dans {@code ~/.pi_dev/thumbs}).
+ * <p>
+ * L'ImageView reçoit tout de suite le placeholder (ou l'image en cache) puis l'image finale
+ * dès qu'elle est prête, si la vue n'a pas été réaffectée entre-temps (cellules recyclées).
+ * Une image illisible laisse le placeholder sans être mise en cache : un échec passager
+ * (réseau, fichier) n'est pas retenu.
+ */
+public class EventImageLoader {
+
+    private static final String PLACEHOLDER = "/images/logo.png";
+    private static final String VIEW_KEY = "event-image-key";
+    private static final long MAX_CACHE_BYTES = 64L * 1024 * 1024;
+
+    private static volatile EventImageLoader instance;
+
+    private final ExecutorService decoder;
+    private final Path diskDir;
+
+    // LRU (ordre d'accès) borné par la taille des pixels décodés
+    private final LinkedHashMap<String, Image> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cacheBytes;
+
+    // évite de décoder deux fois la même image demandée par plusieurs cartes
+    private final Map<String, CompletableFuture<Image>> inFlight = new HashMap<>();
+
+    private EventImageLoader() {
+        AtomicInteger n = new AtomicInteger();
+        decoder = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), r -> {
+                    Thread t = new Thread(r, "image-decoder-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        diskDir = Boolean.getBoolean("images.diskCache")
+                ? Paths.get(System.getProperty("user.home"), ".pi_dev", "thumbs")
+                : null;
+    }
+
+    public static EventImageLoader getInstance() {
+        EventImageLoader local = instance;
+        if (local == null) {
+            synchronized (EventImageLoader.class) {
+                local = instance;
+                if (local == null) instance = local = new EventImageLoader();
+            }
+        }
+        return local;
+    }
+
+    /** À appeler depuis le thread FX. */
+    public void load(ImageView view, String path, double width, double height) {
+        String p = (path == null || path.isBlank()) ? PLACEHOLDER : path;
+        String key = p + "@" + (int) width + "x" + (int) height;
+        view.getProperties().put(VIEW_KEY, key);
+
+        Image cached = get(key);
+        if (cached != null) {
+            view.setImage(cached);
+            return;
+        }
+
+        view.setImage(placeholder(width, height));
+
+        CompletableFuture<Image> future;
+        synchronized (inFlight) {
+            future = inFlight.computeIfAbsent(key, k ->
+                    CompletableFuture.supplyAsync(() -> decode(p, k, width, height), decoder));
+        }
+
+        future.whenComplete((img, err) -> Platform.runLater(() -> {
+            synchronized (inFlight) {
+                inFlight.remove(key);
+            }
+            if (img == null) return; // échec : le placeholder reste affiché, rien en cache
+            put(key, img);
+            // la vue a peut-être été recyclée pour un autre événement
+            if (key.equals(view.getProperties().get(VIEW_KEY))) view.setImage(img);
+        }));
+    }
+
+    private Image placeholder(double width, double height) {
+        String key = PLACEHOLDER + "@" + (int) width + "x" + (int) height;
+        Image img = get(key);
+        if (img == null) {
+            img = new Image(EventImageLoader.class.getResourceAsStream(PLACEHOLDER), width, height, true, true);
+            put(key, img);
+        }
+        return img;
+    }
+
+    // ===== décodage (thread de fond) =====
+
+    private Image decode(String path, String key, double width, double height) {
+        Path thumb = diskDir == null ? null : diskDir.resolve(sha1(key) + ".png");
+
+        if (thumb != null && Files.isRegularFile(thumb)) {
+            try (InputStream in = Files.newInputStream(thumb)) {
+                Image img = new Image(in);
+                if (!img.isError()) return img;
+            } catch (IOException ignored) {
+            }
+        }
+
+        Image img;
+        try (InputStream in = open(path)) {
+            // ✅ réduit pendant le décodage : on ne garde jamais l'image pleine résolution
+            img = new Image(in, width, height, true, true);
+        } catch (Exception ex) {
+            img = null;
+        }
+
+        if (img == null || img.isError()) {
+            // réseau / fichier indisponible : pas de placeholder sous la clé de l'image (mémoire
+            // ou disque), sinon il resterait affiché ; la carte réessaiera au prochain affichage
+            return null;
+        }
+
+        if (thumb != null) writeThumbnail(img, thumb);
+        return img;
+    }
+
+    // resource ("images/events/x.png") / http / fichier local
+    private InputStream open(String path) throws IOException {
+        if (path.startsWith("http")) {
+            return new URL(path).openStream();
+        }
+        if (!path.matches("^[A-Za-z]:.*") && !Files.isRegularFile(Paths.get(path))) {
+            String res = path.startsWith("/") ? path : "/" + path;
+            InputStream in = EventImageLoader.class.getResourceAsStream(res);
+            if (in == null) throw new IOException("Ressource introuvable: " + res);
+            return in;
+        }
+        return Files.newInputStream(Paths.get(path));
+    }
+
+    private void writeThumbnail(Image img, Path target) {
+        try {
+            int w = (int) img.getWidth();
+            int h = (int) img.getHeight();
+            int[] argb = new int[w * h];
+            PixelReader reader = img.getPixelReader();
+            reader.getPixels(0, 0, w, h, PixelFormat.getIntArgbInstance(), argb, 0, w);
+
+            BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            out.setRGB(0, 0, w, h, argb, 0, w);
+
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), "thumb", ".tmp");
+            ImageIO.write(out, "png", tmp.toFile());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception ignored) {
+            // le cache disque est optionnel : un échec n'empêche pas l'affichage
+        }
+    }
+
+    // ===== cache mémoire =====
+
+    private synchronized Image get(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void put(String key, Image img) {
+        Image old = cache.put(key, img);
+        if (old != null) cacheBytes -= sizeOf(old);
+        cacheBytes += sizeOf(img);
+
+        Iterator<Map.Entry<String, Image>> it = cache.entrySet().iterator();
+        while (cacheBytes > MAX_CACHE_BYTES && it.hasNext()) {
+            Map.Entry<String, Image> eldest = it.next();
+            if (eldest.getKey().equals(key)) continue;
+            cacheBytes -= sizeOf(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private static long sizeOf(Image img) {
+        return (long) img.getWidth() * (long) img.getHeight() * 4;
+    }
+
+    private static String sha1(String s) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(md.digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(s.hashCode());
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Index d'intervalles de temps [début, fin) immuable : tableau trié par début + arbre implicite
+ * (milieu de chaque tranche = nœud) portant la fin max de chaque sous-arbre.
+ * <p>
+ * Requêtes : chevauchements d'un intervalle et créneaux libres d'une fenêtre, en
+ * O(log n + k) quand les intervalles stockés ne se chevauchent pas (planning valide : les
+ * k résultats sont contigus dans le tableau), O((k + 1) log n) au pire. Résolution : la seconde ;
+ * une fin null (ou égale au début) compte pour une seconde. Ajout/retrait par copie en O(n) :
+ * {@link #with}, {@link #without}.
+ *
+ * @param <T> élément indexé (ex : Programme)
+ */
+public final class IntervalIndex<T> {
+
+    /** Créneau libre [debut, fin). */
+    public record Gap(LocalDateTime debut, LocalDateTime fin) {
+        public Duration duree() {
+            return Duration.between(debut, fin);
+        }
+    }
+
+    private final Function<T, LocalDateTime> startFn;
+    private final Function<T, LocalDateTime> endFn;
+    private final Object[] items;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd; // maxEnd[milieu de [lo,hi)] = fin max de la tranche
+
+    private IntervalIndex(Object[] items, Function<T, LocalDateTime> startFn, Function<T, LocalDateTime> endFn) {
+        this.startFn = startFn;
+        this.endFn = endFn;
+
+        int n = items.length;
+        long[] s = new long[n];
+        long[] e = new long[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            @SuppressWarnings("unchecked") T t = (T) items[i];
+            s[i] = key(startFn.apply(t));
+            LocalDateTime end = endFn.apply(t);
+            e[i] = endKey(s[i], end);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> s[a] != s[b] ? Long.compare(s[a], s[b]) : Long.compare(e[a], e[b]));
+
+        this.items = new Object[n];
+        this.starts = new long[n];
+        this.ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            this.items[i] = items[order[i]];
+            this.starts[i] = s[order[i]];
+            this.ends[i] = e[order[i]];
+        }
+        this.maxEnd = new long[n];
+        build(0, n);
+    }
+
+    // tableaux déjà triés (with / without) : seul l'arbre est refait, en O(n)
+    private IntervalIndex(Object[] items, long[] starts, long[] ends,
+                          Function<T, LocalDateTime> startFn, Function<T, LocalDateTime> endFn) {
+        this.startFn = startFn;
+        this.endFn = endFn;
+        this.items = items;
+        this.starts = starts;
+        this.ends = ends;
+        this.maxEnd = new long[items.length];
+        build(0, items.length);
+    }
+
+    /** Les éléments sans date de début sont ignorés. */
+    public static <T> IntervalIndex<T> of(Collection<? extends T> items,
+                                          Function<T, LocalDateTime> start,
+                                          Function<T, LocalDateTime> end) {
+        List<Object> valid = new ArrayList<>(items.size());
+        for (T t : items) {
+            if (start.apply(t) != null) valid.add(t);
+        }
+        return new IntervalIndex<>(valid.toArray(), start, end);
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /** Copie avec un élément de plus, inséré à sa place (après ceux de même début et même fin). */
+    public IntervalIndex<T> with(T item) {
+        LocalDateTime start = startFn.apply(item);
+        if (start == null) return this;
+        long s = key(start);
+        long e = endKey(s, endFn.apply(item));
+
+        int lo = 0, hi = items.length; // premier rang dont (début, fin) > (s, e)
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < s || (starts[mid] == s && ends[mid] <= e)) lo = mid + 1;
+            else hi = mid;
+        }
+
+        int n = items.length;
+        Object[] it = new Object[n + 1];
+        long[] st = new long[n + 1];
+        long[] en = new long[n + 1];
+        System.arraycopy(items, 0, it, 0, lo);
+        System.arraycopy(starts, 0, st, 0, lo);
+        System.arraycopy(ends, 0, en, 0, lo);
+        it[lo] = item;
+        st[lo] = s;
+        en[lo] = e;
+        System.arraycopy(items, lo, it, lo + 1, n - lo);
+        System.arraycopy(starts, lo, st, lo + 1, n - lo);
+        System.arraycopy(ends, lo, en, lo + 1, n - lo);
+        return new IntervalIndex<>(it, st, en, startFn, endFn);
+    }
+
+    /** Copie sans les éléments pour lesquels {@code remove} rend true (ordre gardé, pas de retri). */
+    public IntervalIndex<T> without(Predicate<? super T> remove) {
+        int n = items.length;
+        Object[] it = new Object[n];
+        long[] st = new long[n];
+        long[] en = new long[n];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            @SuppressWarnings("unchecked") T t = (T) items[i];
+            if (remove.test(t)) continue;
+            it[k] = items[i];
+            st[k] = starts[i];
+            en[k] = ends[i];
+            k++;
+        }
+        if (k == n) return this;
+        return new IntervalIndex<>(Arrays.copyOf(it, k), Arrays.copyOf(st, k), Arrays.copyOf(en, k), startFn, endFn);
+    }
+
+    /** Éléments qui chevauchent [from, to), triés par début. to null => instant {@code from}. */
+    public List<T> overlapping(LocalDateTime from, LocalDateTime to) {
+        long s = key(from);
+        long e = endKey(s, to);
+        List<T> out = new ArrayList<>();
+        collect(0, items.length, s, e, out);
+        return out;
+    }
+
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        long s = key(from);
+        long e = endKey(s, to);
+        return any(0, items.length, s, e);
+    }
+
+    /**
+     * Créneaux libres d'au moins {@code min} dans la fenêtre [from, to), dans l'ordre.
+     * Seuls les éléments de la fenêtre sont parcourus.
+     */
+    public List<Gap> gaps(LocalDateTime from, LocalDateTime to, Duration min) {
+        List<Gap> out = new ArrayList<>();
+        long window = key(to);
+        long need = min.getSeconds();
+        long cursor = key(from);
+
+        for (T t : overlapping(from, to)) {
+            long s = key(startFn.apply(t));
+            if (s > cursor && s - cursor >= need) out.add(new Gap(time(cursor), time(s)));
+            cursor = Math.max(cursor, endKey(s, endFn.apply(t)));
+        }
+        if (window > cursor && window - cursor >= need) out.add(new Gap(time(cursor), time(window)));
+        return out;
+    }
+
+    /**
+     * Premier début {@code >= from} où un créneau de {@code duree} ne chevauche rien.
+     * Chaque saut repart de la fin max des éléments rencontrés.
+     */
+    public LocalDateTime nextFree(LocalDateTime from, Duration duree) {
+        long need = Math.max(1, duree.getSeconds());
+        long cursor = key(from);
+        while (true) {
+            List<T> hits = new ArrayList<>();
+            collect(0, items.length, cursor, cursor + need, hits);
+            if (hits.isEmpty()) return time(cursor);
+            for (T t : hits) {
+                long s = key(startFn.apply(t));
+                cursor = Math.max(cursor, endKey(s, endFn.apply(t)));
+            }
+        }
+    }
+
+    // ===== arbre implicite =====
+
+    private long build(int lo, int hi) {
+        if (lo >= hi) return Long.MIN_VALUE;
+        int mid = (lo + hi) >>> 1;
+        long m = Math.max(ends[mid], Math.max(build(lo, mid), build(mid + 1, hi)));
+        maxEnd[mid] = m;
+        return m;
+    }
+
+    // chevauchement de [s, e) et [début, fin) : début < e et fin > s
+    private void collect(int lo, int hi, long s, long e, List<T> out) {
+        if (lo >= hi) return;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] <= s) return; // toute la tranche finit avant s
+
+        collect(lo, mid, s, e, out);
+        if (starts[mid] >= e) return; // mid et la droite commencent après e
+
+        if (ends[mid] > s) {
+            @SuppressWarnings("unchecked") T t = (T) items[mid];
+            out.add(t);
+        }
+        collect(mid + 1, hi, s, e, out);
+    }
+
+    private boolean any(int lo, int hi, long s, long e) {
+        if (lo >= hi) return false;
+        int mid = (lo + hi) >>> 1;
+        if (maxEnd[mid] <= s) return false;
+        if (any(lo, mid, s, e)) return true;
+        if (starts[mid] >= e) return false;
+        return ends[mid] > s || any(mid + 1, hi, s, e);
+    }
+
+    private static long key(LocalDateTime t) {
+        return t.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static long endKey(long start, LocalDateTime end) {
+        return (end == null) ? start + 1 : Math.max(start + 1, key(end));
+    }
+
+    private static LocalDateTime time(long key) {
+        return LocalDateTime.ofEpochSecond(key, 0, ZoneOffset.UTC);
+    }
+}
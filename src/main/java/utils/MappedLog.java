@@ -0,0 +1,123 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Journal local en ajout seul, projeté en mémoire (memory-mapped).
+ * <p>
+ * Format : en-tête {@code EVJ1}, puis des enregistrements {@code [longueur][crc32c][octets]}
+ * suivis d'une longueur 0 qui marque la fin. {@link #append} écrit l'enregistrement puis force
+ * les pages modifiées sur disque avant de rendre la main : un enregistrement acquitté survit à un
+ * arrêt brutal. À l'ouverture, la lecture s'arrête au premier enregistrement incomplet ou corrompu
+ * (écriture interrompue) : la suite est écrasée par les ajouts suivants.
+ * Le fichier grandit par doublement ; {@link #reset} le vide quand plus rien n'est utile.
+ */
+public class MappedLog implements AutoCloseable {
+
+    private static final int MAGIC = 0x45564A31; // "EVJ1"
+    private static final int HEADER = 4;
+    private static final int MAX_RECORD = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final List<byte[]> recovered;
+    private MappedByteBuffer buf;
+    private int end; // position de la longueur 0 terminale
+
+    public MappedLog(Path file, int initialSize) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long size = Math.max(channel.size(), Math.max(initialSize, 4096));
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        recovered = new ArrayList<>();
+        if (buf.getInt(0) != MAGIC) {
+            buf.putInt(0, MAGIC);
+            buf.putInt(HEADER, 0);
+            buf.force(0, HEADER + 4);
+            end = HEADER;
+        } else {
+            end = scan(recovered);
+        }
+    }
+
+    /** Enregistrements valides trouvés à l'ouverture, dans l'ordre d'écriture. */
+    public List<byte[]> recovered() {
+        return recovered;
+    }
+
+    /** Ajoute un enregistrement et le rend durable (msync) avant de revenir. */
+    public synchronized void append(byte[] record) throws IOException {
+        if (record.length == 0 || record.length > MAX_RECORD) {
+            throw new IOException("Taille d'enregistrement invalide : " + record.length);
+        }
+        int total = 8 + record.length;
+        ensureCapacity(end + total + 4);
+
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+
+        int at = end;
+        buf.putInt(at + total, 0); // nouvelle fin, écrite avant la longueur
+        buf.put(at + 8, record);
+        buf.putInt(at + 4, (int) crc.getValue());
+        buf.putInt(at, record.length);
+        buf.force(at, total + 4);
+        end = at + total;
+    }
+
+    /** Vide le journal (tout a été traité) ; la taille du fichier est conservée. */
+    public synchronized void reset() {
+        buf.putInt(HEADER, 0);
+        buf.force(HEADER, 4);
+        end = HEADER;
+    }
+
+    /** Octets utilisés (en-tête compris). */
+    public synchronized int size() {
+        return end;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buf.force();
+        channel.close();
+    }
+
+    private int scan(List<byte[]> out) {
+        int pos = HEADER;
+        int limit = buf.capacity();
+        while (pos + 8 <= limit) {
+            int len = buf.getInt(pos);
+            if (len <= 0 || len > MAX_RECORD || pos + 8 + len + 4 > limit) break;
+
+            byte[] data = new byte[len];
+            buf.get(pos + 8, data);
+            CRC32C crc = new CRC32C();
+            crc.update(data);
+            if ((int) crc.getValue() != buf.getInt(pos + 4)) break; // écriture interrompue
+
+            out.add(data);
+            pos += 8 + len;
+        }
+        if (pos + 4 <= limit) buf.putInt(pos, 0);
+        return pos;
+    }
+
+    private void ensureCapacity(long needed) throws IOException {
+        if (needed <= buf.capacity()) return;
+        long size = buf.capacity();
+        while (size < needed) size *= 2;
+        if (size > Integer.MAX_VALUE) throw new IOException("Journal plein");
+        buf.force();
+        buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+}
@@ -1,37 +1,72 @@
 package utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class MyDataBase {
 
-    private static MyDataBase instance;
-    private Connection cnx;
+    private static volatile MyDataBase instance;
+    private final ConnectionPool pool;
+    private final DbConfig config;
 
-    private static final String URL =
-            "jdbc:mysql://localhost:3306/gestion_evenements?serverTimezone=UTC";
-    private static final String USER = "root";
-    private static final String PASSWORD = "";
+    // Serveur MySQL par défaut ; mode embarqué et surcharges : voir DbConfig (db.properties, -Ddb.xxx)
+    // useServerPrepStmts : requête préparée une fois par MySQL, ensuite seuls les paramètres circulent
+    // cachePrepStmts : le driver réutilise les PreparedStatement déjà parsés (même SQL)
+    // rewriteBatchedStatements : un lot d'INSERT part en une seule requête multi-lignes
+    public static final String URL =
+            "jdbc:mysql://localhost:3306/gestion_evenements?serverTimezone=UTC"
+                    + "&useServerPrepStmts=true"
+                    + "&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048"
+                    + "&rewriteBatchedStatements=true";
+    public static final String USER = "root";
+    public static final String PASSWORD = "";
+
+    // Pool : bornes et durées (ms). MAX_LIFETIME reste sous le wait_timeout MySQL (8h par défaut).
+    private static final int POOL_SIZE = 8;
+    private static final long CONNECTION_TIMEOUT = 10_000;
+    private static final long IDLE_TIMEOUT = 5 * 60_000;
+    private static final long MAX_LIFETIME = 30 * 60_000;
+    // PreparedStatement gardés par connexion (voir StatementCache) : couvre tout le SQL des services
+    private static final int STATEMENT_CACHE_SIZE = 64;
 
     private MyDataBase() {
-        try {
-            cnx = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("✅ Connexion MySQL réussie");
+        config = DbConfig.load();
+        pool = new ConnectionPool(config.url(), config.user(), config.password(), POOL_SIZE,
+                CONNECTION_TIMEOUT, IDLE_TIMEOUT, MAX_LIFETIME, STATEMENT_CACHE_SIZE);
+
+        // Vérification au démarrage (ne bloque pas si MySQL est absent : le pool réessaiera)
+        try (Connection cnx = pool.getConnection()) {
+            if (config.bootstrap()) SchemaMigrator.migrate(cnx);
+            System.out.println("✅ Connexion " + config.label() + " réussie");
         } catch (SQLException e) {
-            System.out.println("❌ Erreur connexion MySQL");
+            System.out.println("❌ Erreur connexion " + config.label());
             e.printStackTrace();
         }
     }
 
     public static MyDataBase getInstance() {
-        if (instance == null) {
-            instance = new MyDataBase();
+        MyDataBase local = instance;
+        if (local == null) {
+            synchronized (MyDataBase.class) {
+                local = instance;
+                if (local == null) {
+                    instance = local = new MyDataBase();
+                }
+            }
         }
-        return instance;
+        return local;
+    }
+
+    /** Emprunte une connexion au pool : toujours la fermer (try-with-resources) pour la rendre. */
+    public Connection getConnection() throws SQLException {
+        return pool.getConnection();
+    }
+
+    public ConnectionPool getPool() {
+        return pool;
     }
 
-    public Connection getCnx() {
-        return cnx;
+    public DbConfig getConfig() {
+        return config;
     }
 }
@@ -0,0 +1,86 @@
+package utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Transforme un ResultSet en {@link Stream} consommé au fil de l'eau.
+ * <p>
+ * Le stream garde la connexion empruntée jusqu'à son {@code close()} : toujours
+ * l'utiliser dans un try-with-resources.
+ */
+public final class ResultSetStream {
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    private ResultSetStream() {}
+
+    /**
+     * Exécute {@code sql} en lecture seule, curseur côté serveur (MySQL : fetchSize = Integer.MIN_VALUE
+     * => les lignes arrivent une par une, rien n'est bufferisé côté client).
+     */
+    public static <T> Stream<T> of(MyDataBase db, String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection cnx = db.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            ps = cnx.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(streamingFetchSize(cnx));
+            if (binder != null) binder.bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException e) {
+            closeQuietly(ps);
+            closeQuietly(cnx);
+            throw e;
+        }
+
+        PreparedStatement stmt = ps;
+        Spliterator<T> split = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!rs.next()) return false;
+                    action.accept(mapper.map(rs));
+                    return true;
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Erreur lecture curseur", e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(split, false).onClose(() -> {
+            closeQuietly(rs);
+            closeQuietly(stmt);
+            closeQuietly(cnx);
+        });
+    }
+
+    private static int streamingFetchSize(Connection cnx) throws SQLException {
+        String product = cnx.getMetaData().getDatabaseProductName();
+        return "MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : 500;
+    }
+
+    private static void closeQuietly(AutoCloseable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
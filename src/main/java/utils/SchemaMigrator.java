@@ -0,0 +1,114 @@
+package utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Création / mise à jour du schéma par scripts versionnés ({@code /sql/migrations/V<n>__*.sql}).
+ * <p>
+ * Les versions appliquées sont notées dans {@code schema_version} : chaque script ne passe
+ * qu'une fois, dans l'ordre de {@link #MIGRATIONS}. Le SQL est commun à MySQL et à H2 (mode MySQL).
+ * Sur une base MySQL créée à la main, un index déjà présent (erreur 1061) n'est pas une erreur.
+ */
+public final class SchemaMigrator {
+
+    // ordre d'application ; ne jamais modifier un script déjà livré : en ajouter un nouveau
+    static final String[] MIGRATIONS = {
+            "V1__schema.sql",
+            "V2__index.sql",
+            "V3__journal.sql",
+            "V4__change_log.sql",
+    };
+
+    private static final int MYSQL_DUP_KEYNAME = 1061;
+
+    private SchemaMigrator() {}
+
+    /** @return nombre de scripts appliqués (0 = schéma déjà à jour) */
+    public static int migrate(Connection cnx) throws SQLException {
+        try (Statement st = cnx.createStatement()) {
+            st.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY, script VARCHAR(255) NOT NULL, "
+                    + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        Set<Integer> applied = new HashSet<>();
+        try (Statement st = cnx.createStatement();
+             ResultSet rs = st.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) applied.add(rs.getInt(1));
+        }
+
+        int count = 0;
+        for (String script : MIGRATIONS) {
+            int version = version(script);
+            if (applied.contains(version)) continue;
+
+            apply(cnx, script);
+            try (PreparedStatement ps = cnx.prepareStatement(
+                    "INSERT INTO schema_version (version, script) VALUES (?, ?)")) {
+                ps.setInt(1, version);
+                ps.setString(2, script);
+                ps.executeUpdate();
+            }
+            System.out.println("✅ Migration appliquée : " + script);
+            count++;
+        }
+        return count;
+    }
+
+    private static void apply(Connection cnx, String script) throws SQLException {
+        try (Statement st = cnx.createStatement()) {
+            for (String sql : statements(read(script))) {
+                try {
+                    st.execute(sql);
+                } catch (SQLException e) {
+                    if (e.getErrorCode() != MYSQL_DUP_KEYNAME) {
+                        throw new SQLException("Migration " + script + " : " + e.getMessage(), e.getSQLState(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int version(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+
+    private static String read(String script) throws SQLException {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream("/sql/migrations/" + script)) {
+            if (in == null) throw new SQLException("Migration introuvable : " + script);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Migration illisible : " + script, e);
+        }
+    }
+
+    // une instruction par ';' en fin de ligne ; lignes "--" ignorées
+    static List<String> statements(String text) {
+        List<String> out = new ArrayList<>();
+        StringBuilder cur = new StringBuilder();
+        for (String line : text.split("\\R")) {
+            String t = line.strip();
+            if (t.isEmpty() || t.startsWith("--")) continue;
+
+            cur.append(line).append('\n');
+            if (t.endsWith(";")) {
+                String sql = cur.toString().strip();
+                out.add(sql.substring(0, sql.length() - 1));
+                cur.setLength(0);
+            }
+        }
+        if (!cur.toString().isBlank()) out.add(cur.toString().strip());
+        return out;
+    }
+}
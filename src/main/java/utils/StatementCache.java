@@ -0,0 +1,184 @@
+package utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registre des PreparedStatement d'une connexion physique du pool.
+ * <p>
+ * {@code prepareStatement(sql)} (et la variante avec clés générées) rend un proxy : son
+ * {@code close()} remet le statement à zéro (paramètres, lot, résultat ouvert) et le garde
+ * pour le prochain emprunt du même SQL sur cette connexion. Un statement reconfiguré
+ * (fetchSize, maxRows, timeout...) est vraiment fermé au close, pour ne pas fuiter ses réglages,
+ * de même que le second statement d'un SQL déjà emprunté (requêtes imbriquées), qui n'est pas gardé.
+ * Les moins récemment utilisés sont fermés au-delà de {@code maxSize} ; tous disparaissent
+ * avec la connexion (fermeture JDBC).
+ * <p>
+ * Non thread-safe : une connexion empruntée n'est utilisée que par un thread à la fois.
+ */
+final class StatementCache {
+
+    private record Key(String sql, int autoGeneratedKeys) {}
+
+    private static final class Entry {
+        final PreparedStatement ps;
+        final boolean jetable; // hors registre : fermé au close
+        boolean inUse;
+
+        Entry(PreparedStatement ps, boolean jetable) {
+            this.ps = ps;
+            this.jetable = jetable;
+        }
+    }
+
+    // méthodes qui changent durablement la configuration du statement
+    private static final Set<String> RECONFIGURE = Set.of(
+            "setFetchSize", "setFetchDirection", "setMaxRows", "setLargeMaxRows", "setMaxFieldSize",
+            "setQueryTimeout", "setEscapeProcessing", "setPoolable", "setCursorName", "closeOnCompletion");
+
+    private final Connection raw;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final Map<Key, Entry> entries;
+
+    StatementCache(Connection raw, int maxSize, AtomicLong hits, AtomicLong misses) {
+        this.raw = raw;
+        this.hits = hits;
+        this.misses = misses;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() <= maxSize || eldest.getValue().inUse) return false;
+                closeQuietly(eldest.getValue().ps);
+                return true;
+            }
+        };
+    }
+
+    /** {@code owner} = proxy de connexion rendu par {@code getConnection()} du statement. */
+    PreparedStatement prepare(Connection owner, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        Entry e = entries.get(key);
+
+        if (e != null && !e.inUse) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            PreparedStatement ps = raw.prepareStatement(sql, autoGeneratedKeys);
+            if (e != null) {
+                // même SQL déjà ouvert sur cette connexion (requêtes imbriquées) : statement jetable,
+                // enveloppé lui aussi (getConnection rend le proxy de connexion, pas la connexion physique)
+                e = new Entry(ps, true);
+                e.inUse = true;
+                return proxy(owner, key, e);
+            }
+            e = new Entry(ps, false);
+            entries.put(key, e);
+        }
+        e.inUse = true;
+        return proxy(owner, key, e);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private PreparedStatement proxy(Connection owner, Key key, Entry e) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+                StatementCache.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Handler(owner, key, e)
+        );
+    }
+
+    /** Fin d'un emprunt : statement remis à zéro et gardé, ou fermé s'il a été reconfiguré. */
+    private void giveBack(Key key, Entry e, boolean reconfigured, boolean batched) {
+        e.inUse = false;
+        if (e.jetable) {
+            closeQuietly(e.ps); // la clé désigne l'entrée gardée, toujours empruntée
+            return;
+        }
+        if (!reconfigured) {
+            try {
+                ResultSet rs = e.ps.getResultSet();
+                if (rs != null) rs.close();
+                e.ps.clearParameters();
+                if (batched) e.ps.clearBatch();
+                e.ps.clearWarnings();
+                return;
+            } catch (SQLException ignored) {
+                // statement inutilisable : on le retire
+            }
+        }
+        entries.remove(key);
+        closeQuietly(e.ps);
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try {
+            ps.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private final class Handler implements InvocationHandler {
+        private final Connection owner;
+        private final Key key;
+        private Entry entry;
+        private boolean reconfigured;
+        private boolean batched;
+
+        Handler(Connection owner, Key key, Entry entry) {
+            this.owner = owner;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            switch (name) {
+                case "close" -> {
+                    if (entry != null) {
+                        Entry e = entry;
+                        entry = null; // un proxy ne rend son statement qu'une seule fois
+                        giveBack(key, e, reconfigured, batched);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return entry == null || entry.ps.isClosed();
+                }
+                case "getConnection" -> {
+                    return owner;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> { }
+            }
+
+            if (entry == null) throw new SQLException("Statement déjà fermé");
+            if (RECONFIGURE.contains(name)) reconfigured = true;
+            else if (name.equals("addBatch")) batched = true;
+            try {
+                return m.invoke(entry.ps, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
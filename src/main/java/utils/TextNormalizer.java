@@ -0,0 +1,54 @@
+package utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Normalisation de texte pour la recherche : minuscules + suppression des accents
+ * ("Soirée à Hammamet" -> "soiree a hammamet"), puis découpage en mots.
+ */
+public final class TextNormalizer {
+
+    private TextNormalizer() {}
+
+    public static String fold(String s) {
+        if (s == null || s.isEmpty()) return "";
+
+        // raccourci : texte ASCII (cas le plus fréquent), pas besoin de décomposer
+        boolean ascii = true;
+        for (int i = 0; i < s.length() && ascii; i++) ascii = s.charAt(i) < 128;
+        if (ascii) return s.toLowerCase(Locale.ROOT);
+
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            switch (c) {
+                case 'œ', 'Œ' -> sb.append("oe");
+                case 'æ', 'Æ' -> sb.append("ae");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /** Mots (lettres/chiffres) du texte replié ; les apostrophes séparent ("l'été" -> "l", "ete"). */
+    public static List<String> tokens(String s) {
+        String f = fold(s);
+        List<String> out = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= f.length(); i++) {
+            boolean word = i < f.length() && Character.isLetterOrDigit(f.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                out.add(f.substring(start, i));
+                start = -1;
+            }
+        }
+        return out;
+    }
+}
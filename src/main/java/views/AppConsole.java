@@ -1,12 +1,25 @@
 package views;
 
 import entities.Evenement;
+import entities.TypeEvenement;
+import entities.EvenementAvecProgrammes;
 import entities.Programme;
-import services.EvenementService;
+import interfaces.IEvenementService;
+import services.EvenementCacheService;
+import services.EvenementExporter;
+import services.EvenementGraphLoader;
+import services.EvenementImporter;
+import services.JournalStore;
 import services.ProgrammeService;
+import services.VenueConflictException;
+import services.VenueScheduler;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -18,12 +31,12 @@ public class AppConsole {
 
     private final Scanner sc = new Scanner(System.in);
 
-    private final EvenementService se;
-    private final ProgrammeService sp;
+    private final IEvenementService se;
+    private final EvenementGraphLoader graph;
 
     public AppConsole() throws Exception {
-        se = new EvenementService();
-        sp = new ProgrammeService();
+        se = EvenementCacheService.getInstance();
+        graph = new EvenementGraphLoader(se, JournalStore.wrap(new ProgrammeService()));
     }
 
     public static void main(String[] args) throws Exception {
@@ -42,6 +55,10 @@ public class AppConsole {
             System.out.println("5) Filtrer par lieu");
             System.out.println("6) Trier par date (ASC / DESC)");
             System.out.println("7) Afficher un evenement + ses programmes (par ID)");
+            System.out.println("8) Importer un catalogue (CSV / JSON)");
+            System.out.println("9) Exporter le catalogue (CSV / JSONL / ICS)");
+            System.out.println("10) Audit des lieux (doubles réservations)");
+            System.out.println("11) État du journal local (synchronisation)");
             System.out.println("0) Quitter");
             System.out.print("Choix: ");
 
@@ -54,6 +71,10 @@ public class AppConsole {
                 case "5" -> filtrerLieu();
                 case "6" -> trierDate();
                 case "7" -> afficherEventEtProg();
+                case "8" -> importerCatalogue();
+                case "9" -> exporterCatalogue();
+                case "10" -> auditLieux();
+                case "11" -> etatJournal();
                 case "0" -> {
                     System.out.println("Bye 👋");
                     return;
@@ -71,59 +92,66 @@ public class AppConsole {
         String titre = lireTexte("Titre: ", 3, 150);
         String desc  = lireTexte("Description: ", 3, 500);
         String lieu  = lireTexte("Lieu: ", 2, 150);
-        String type  = lireType();
+        TypeEvenement type = lireType();
 
         LocalDateTime debut = lireDate("Date debut (yyyy-MM-dd HH:mm): ");
         LocalDateTime fin = null;
 
-        if (type.equals("CAMPING") || type.equals("SEJOUR")) {
+        if (type.dateFinRequise()) {
             fin = lireDateApres("Date fin   (yyyy-MM-dd HH:mm): ", debut);
         } else {
             System.out.println("ℹ️ Type " + type + " => date_fin non requise.");
         }
 
-        Evenement e = new Evenement(titre, desc, type, debut, fin, lieu);
-        se.add(e);
+        Evenement e = new Evenement(titre, desc, type.name(), debut, fin, lieu);
 
-        int eventId = e.getIdEvent();
-        System.out.println("✅ Evenement ajouté avec ID = " + eventId);
-
-        // Ajouter programme(s) liés
+        // ✅ programmes saisis d'abord, puis event + programmes écrits en une seule transaction
+        List<Programme> progs = new ArrayList<>();
         while (lireOuiNon("Ajouter un programme pour cet evenement ? (oui/non): ")) {
-            ajouterProgrammePourEvent(e);
+            Programme p = lireProgrammePourEvent(e);
+            if (p != null) progs.add(p);
+        }
+
+        try {
+            se.addAvecProgrammes(e, progs);
+        } catch (VenueConflictException ex) {
+            System.out.println("❌ " + ex.getMessage());
+            return;
         }
 
+        System.out.println("✅ Evenement ajouté avec ID = " + e.getIdEvent());
+        progs.forEach(p -> System.out.println("✅ Programme ajouté (id_prog=" + p.getIdProg() + ")"));
         System.out.println("➡️ Terminé : event + programmes enregistrés.");
     }
 
-    private void ajouterProgrammePourEvent(Evenement e) throws Exception {
-        System.out.println("\n=== AJOUT PROGRAMME (event_id=" + e.getIdEvent() + ") ===");
+    // Retourne null si le programme ne respecte pas les dates de l'événement
+    private Programme lireProgrammePourEvent(Evenement e) throws Exception {
+        System.out.println("\n=== AJOUT PROGRAMME (" + e.getTitre() + ") ===");
 
         String ptitre = lireTexte("Titre programme: ", 2, 150);
         LocalDateTime pdebut = lireDate("Debut programme (yyyy-MM-dd HH:mm): ");
         LocalDateTime pfin   = lireDateApres("Fin programme   (yyyy-MM-dd HH:mm): ", pdebut);
 
         // Contrôles selon type d'événement
-        if (e.getType().equals("CAMPING") || e.getType().equals("SEJOUR")) {
+        TypeEvenement type = e.getTypeEvenement();
+        if (type != null && type.dateFinRequise()) {
             if (e.getDateFin() == null) {
                 System.out.println("❌ Erreur: date_fin de l'événement est NULL alors que type = " + e.getType());
-                return;
+                return null;
             }
             if (pdebut.isBefore(e.getDateDebut()) || pfin.isAfter(e.getDateFin())) {
                 System.out.println("❌ Programme doit être entre " + e.getDateDebut().format(FMT) + " et " + e.getDateFin().format(FMT));
-                return;
+                return null;
             }
         } else {
             if (pdebut.isBefore(e.getDateDebut())) {
                 System.out.println("❌ Programme doit commencer après le début de l'événement: " + e.getDateDebut().format(FMT));
-                return;
+                return null;
             }
         }
 
-        Programme p = new Programme(e.getIdEvent(), ptitre, pdebut, pfin);
-        sp.add(p);
-
-        System.out.println("✅ Programme ajouté (id_prog=" + p.getIdProg() + ")");
+        // event_id renseigné par addAvecProgrammes une fois l'événement inséré
+        return new Programme(0, ptitre, pdebut, pfin);
     }
 
     // ===================== 2) AFFICHAGE =====================
@@ -136,14 +164,14 @@ public class AppConsole {
 
     private void afficherEventEtProg() throws Exception {
         int id = lireInt("ID evenement: ");
-        Evenement e = se.getOneById(id);
-        if (e == null) {
+        EvenementAvecProgrammes g = graph.getOne(id);
+        if (g == null) {
             System.out.println("❌ Evenement introuvable.");
             return;
         }
-        System.out.println("Event: " + e);
+        System.out.println("Event: " + g.evenement());
 
-        List<Programme> progs = sp.getByEventId(id);
+        List<Programme> progs = g.programmes();
         System.out.println("Programmes (" + progs.size() + "):");
         progs.forEach(p -> System.out.println("  - " + p));
     }
@@ -169,12 +197,12 @@ public class AppConsole {
     }
 
     private void filtrerType() throws Exception {
-        System.out.print("Type (SOIREE/RANDONNEE/CAMPING/SEJOUR): ");
-        String t = sc.nextLine().trim().toUpperCase(Locale.ROOT);
+        System.out.print("Type (" + TypeEvenement.noms() + "): ");
+        TypeEvenement t = TypeEvenement.parse(sc.nextLine());
 
         List<Evenement> events = se.getAll();
         List<Evenement> result = events.stream()
-                .filter(e -> safeUpper(e.getType()).equals(t))
+                .filter(e -> t != null && e.getTypeEvenement() == t)
                 .toList();
 
         System.out.println("\nRésultats (" + result.size() + "):");
@@ -213,6 +241,70 @@ public class AppConsole {
         events.forEach(System.out::println);
     }
 
+    // ===================== 4) IMPORT / EXPORT EN MASSE =====================
+
+    private void importerCatalogue() {
+        System.out.print("Chemin du fichier (.csv / .json / .jsonl): ");
+        Path fichier = Paths.get(sc.nextLine().trim());
+        if (!Files.isRegularFile(fichier)) {
+            System.out.println("❌ Fichier introuvable.");
+            return;
+        }
+
+        try {
+            EvenementImporter.Progression fin = new EvenementImporter(se)
+                    .onProgress(p -> System.out.println("⏳ " + p))
+                    .importer(fichier);
+            System.out.println("✅ Import terminé : " + fin);
+            if (fin.rejetes() > 0) {
+                System.out.println("ℹ️ Lignes rejetées : " + fichier.getFileName() + ".rejets");
+            }
+        } catch (Exception ex) {
+            System.out.println("❌ " + ex.getMessage());
+            System.out.println("ℹ️ Relancer l'import du même fichier reprend au dernier lot enregistré.");
+        }
+    }
+
+    private void exporterCatalogue() {
+        System.out.print("Fichier de sortie (.csv / .jsonl / .ics): ");
+        Path fichier = Paths.get(sc.nextLine().trim());
+
+        try {
+            long t0 = System.nanoTime();
+            long n = new EvenementExporter().exporter(fichier, EvenementExporter.Format.of(fichier));
+            System.out.printf("✅ %d evenements exportés en %d ms -> %s%n",
+                    n, (System.nanoTime() - t0) / 1_000_000, fichier.toAbsolutePath());
+        } catch (Exception ex) {
+            System.out.println("❌ Export impossible : " + ex.getMessage());
+        }
+    }
+
+    private void auditLieux() throws Exception {
+        long t0 = System.nanoTime();
+        List<VenueScheduler.Conflit> conflits = EvenementCacheService.getInstance().auditLieux();
+        long ms = (System.nanoTime() - t0) / 1_000_000;
+
+        System.out.println("\n=== AUDIT DES LIEUX (" + conflits.size() + " conflit(s), " + ms + " ms) ===");
+        for (VenueScheduler.Conflit c : conflits) {
+            System.out.println("⚠️ " + c.lieu() + " : #" + c.a().getIdEvent() + " " + c.a().getTitre()
+                    + " (" + c.a().getDateDebut().format(FMT) + ") <-> #" + c.b().getIdEvent() + " "
+                    + c.b().getTitre() + " (" + c.b().getDateDebut().format(FMT) + ")");
+        }
+    }
+
+    private void etatJournal() throws Exception {
+        JournalStore journal = JournalStore.getInstance();
+        if (journal == null) {
+            System.out.println("ℹ️ Journal local désactivé (db.journal) : écritures directes en base.");
+            return;
+        }
+        JournalStore.Stats s = journal.getStats();
+        System.out.println("\n=== JOURNAL LOCAL ===");
+        System.out.println("En attente : " + s.enAttente() + " | synchronisées : " + s.synchronises()
+                + " | conflits : " + s.conflits());
+        if (s.derniereErreur() != null) System.out.println("⚠️ Dernière erreur : " + s.derniereErreur());
+    }
+
     // ===================== HELPERS SAISIE =====================
 
     private int lireInt(String msg) {
@@ -237,11 +329,11 @@ public class AppConsole {
         }
     }
 
-    private String lireType() {
+    private TypeEvenement lireType() {
         while (true) {
-            System.out.print("Type (SOIREE/RANDONNEE/CAMPING/SEJOUR): ");
-            String t = sc.nextLine().trim().toUpperCase(Locale.ROOT);
-            if (t.equals("SOIREE") || t.equals("RANDONNEE") || t.equals("CAMPING") || t.equals("SEJOUR")) return t;
+            System.out.print("Type (" + TypeEvenement.noms() + "): ");
+            TypeEvenement t = TypeEvenement.parse(sc.nextLine());
+            if (t != null) return t;
             System.out.println("❌ Type invalide.");
         }
     }
@@ -278,8 +370,4 @@ public class AppConsole {
     private String safe(String s) {
         return s == null ? "" : s.toLowerCase(Locale.ROOT).trim();
     }
-
-    private String safeUpper(String s) {
-        return s == null ? "" : s.toUpperCase(Locale.ROOT).trim();
-    }
 }
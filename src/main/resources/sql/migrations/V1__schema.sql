@@ -0,0 +1,22 @@
+-- Schéma de base gestion_evenements (MySQL et H2 en mode MySQL)
+
+CREATE TABLE IF NOT EXISTS evenement (
+    id_event    INT AUTO_INCREMENT PRIMARY KEY,
+    titre       VARCHAR(255) NOT NULL,
+    description TEXT,
+    type        VARCHAR(30),
+    date_debut  DATETIME NOT NULL,
+    date_fin    DATETIME NULL,
+    lieu        VARCHAR(255),
+    image       VARCHAR(500) NULL
+);
+
+CREATE TABLE IF NOT EXISTS programme (
+    id_prog    INT AUTO_INCREMENT PRIMARY KEY,
+    event_id   INT NOT NULL,
+    titre      VARCHAR(255) NOT NULL,
+    date_debut DATETIME NOT NULL,
+    date_fin   DATETIME NULL,
+    CONSTRAINT fk_programme_evenement FOREIGN KEY (event_id)
+        REFERENCES evenement (id_event) ON DELETE CASCADE
+);
@@ -0,0 +1,8 @@
+-- Index utilisés par EvenementCriteria (filtres type / période et tri par date)
+-- Appliqué une fois par SchemaMigrator (db.bootstrap=true) ; index déjà créés à la main : ignorés.
+
+CREATE INDEX idx_evenement_type_date ON evenement (type, date_debut);
+CREATE INDEX idx_evenement_date_debut ON evenement (date_debut);
+
+-- ProgrammeService.getByEventId : WHERE event_id = ? ORDER BY date_debut
+CREATE INDEX idx_programme_event_date ON programme (event_id, date_debut);
@@ -0,0 +1,9 @@
+-- Opérations du journal local déjà rejouées (JournalStore) : clé idempotente par opération
+-- id_genere : id attribué par la base à un ajout ; conflit : raison si l'opération a été écartée
+
+CREATE TABLE IF NOT EXISTS journal_applied (
+    op_key     VARCHAR(36) PRIMARY KEY,
+    id_genere  INT NULL,
+    conflit    VARCHAR(500) NULL,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
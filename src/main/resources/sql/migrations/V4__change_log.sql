@@ -0,0 +1,15 @@
+-- Changements du catalogue, lus par les autres instances (ChangeLog) : version croissante
+-- entite : EVENEMENT / PROGRAMME ; op : AJOUT / MODIF / SUPPRESSION ; origine : instance qui a écrit
+
+CREATE TABLE IF NOT EXISTS change_log (
+    version    BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entite     VARCHAR(16) NOT NULL,
+    op         VARCHAR(16) NOT NULL,
+    id         INT NOT NULL,
+    event_id   INT NOT NULL DEFAULT 0,
+    origine    VARCHAR(36) NOT NULL,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- purge des lignes anciennes
+CREATE INDEX idx_change_log_date ON change_log (changed_at);
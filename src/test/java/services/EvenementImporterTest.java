@@ -0,0 +1,65 @@
+package services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.MyDataBase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lecture des fichiers d'import : une entrée illisible est rejetée, pas tout l'import.
+ */
+class EvenementImporterTest {
+
+    private static EvenementService direct;
+
+    @BeforeAll
+    static void base() throws SQLException {
+        System.setProperty("db.mode", "embedded");
+        System.setProperty("db.url", "jdbc:h2:mem:journal;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        MyDataBase.getInstance();
+        direct = new EvenementService();
+    }
+
+    @Test
+    void jsonLinesLigneIllisibleRejetee(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("catalogue.jsonl");
+        Files.writeString(f, String.join("\n",
+                "{\"titre\":\"Jazz\",\"description\":\"Trio\",\"type\":\"SOIREE\",\"date_debut\":\"2027-05-01 20:00\",\"lieu\":\"Salle Jsonl A\"}",
+                "{\"titre\":\"Cassé\",\"description\":",
+                "",
+                "{\"titre\":\"Oud\",\"description\":\"Solo\",\"type\":\"SOIREE\",\"date_debut\":\"2027-05-02 20:00\",\"lieu\":\"Salle Jsonl B\"}"));
+
+        EvenementImporter.Progression p = new EvenementImporter(direct).importer(f);
+        assertEquals(2, p.importes());
+        assertEquals(1, p.rejetes());
+        assertTrue(Files.readString(dir.resolve("catalogue.jsonl.rejets")).startsWith("ligne 2 : JSON invalide"));
+    }
+
+    @Test
+    void tableauIllisibleArreteLaLectureSansEchec(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("catalogue.json");
+        Files.writeString(f, "\uFEFF[{\"titre\":\"Conte\",\"description\":\"Veillée\",\"type\":\"SOIREE\","
+                + "\"date_debut\":\"2027-05-03 20:00\",\"lieu\":\"Salle Json C\"}, {\"titre\": }, {\"titre\":\"x\"}]");
+
+        EvenementImporter.Progression p = new EvenementImporter(direct).importer(f);
+        assertEquals(1, p.importes());
+        assertEquals(1, p.rejetes());
+    }
+
+    @Test
+    void csvEnTeteLongueEtBom(@TempDir Path dir) throws Exception {
+        Path f = dir.resolve("catalogue.csv");
+        Files.writeString(f, "\uFEFFtitre;description;type;date_debut;date_fin;lieu;" + "x".repeat(100_000) + "\n"
+                + "Rando;Sentier;SOIREE;2027-05-04 09:00;;Salle Csv D;\n");
+
+        EvenementImporter.Progression p = new EvenementImporter(direct).importer(f);
+        assertEquals(1, p.importes());
+        assertEquals(0, p.rejetes());
+    }
+}
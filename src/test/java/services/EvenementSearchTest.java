@@ -0,0 +1,63 @@
+package services;
+
+import entities.Evenement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import utils.MyDataBase;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mot-clé : même règle (mots sans accents, par préfixe) en base et dans le cache.
+ */
+class EvenementSearchTest {
+
+    private static final String[] REQUETES = {"soiree", "Soirée", "amp", "camp", "désert", "ham soi", "zzz"};
+
+    private static EvenementService direct;
+
+    @BeforeAll
+    static void base() throws SQLException {
+        System.setProperty("db.mode", "embedded");
+        System.setProperty("db.url", "jdbc:h2:mem:journal;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        MyDataBase.getInstance();
+        direct = new EvenementService();
+
+        LocalDateTime d = LocalDateTime.of(2026, 7, 1, 20, 0);
+        direct.addAll(List.of(
+                new Evenement("Soirée à Hammamet", "Musique live", "SOIREE", d, null, "Hammamet"),
+                new Evenement("Camping Tozeur", "Nuit au désert", "CAMPING", d, d.plusDays(2), "Tozeur"),
+                new Evenement("Rando", "Sentier de la campagne", "RANDONNEE", d, null, "Ain Draham")));
+    }
+
+    @Test
+    void searchIdentiqueEnBaseEtEnCache() throws SQLException {
+        EvenementCacheService cache = new EvenementCacheService(direct);
+        for (String q : REQUETES) {
+            assertEquals(ids(cache.search(q)), ids(direct.search(q)), q);
+        }
+        assertTrue(ids(direct.search("soiree")).size() >= 1);
+        assertTrue(direct.search("amp").isEmpty()); // pas de sous-chaîne au milieu d'un mot
+    }
+
+    @Test
+    void findEtSearchPageSuiventLaMemeRegle() throws SQLException {
+        EvenementCacheService cache = new EvenementCacheService(direct);
+        for (String q : REQUETES) {
+            EvenementCriteria c = new EvenementCriteria().keyword(q);
+            assertEquals(ids(cache.find(c)), ids(direct.find(c)), q);
+
+            List<Integer> attendus = ids(direct.find(c)); // id décroissant (tri RECENT)
+            assertEquals(attendus.subList(0, Math.min(1, attendus.size())), ids(direct.searchPage(q, 0, 1)), q);
+            assertEquals(attendus, ids(direct.searchPage(q, 0, 100)), q);
+        }
+    }
+
+    private static List<Integer> ids(List<Evenement> list) {
+        return list.stream().map(Evenement::getIdEvent).toList();
+    }
+}
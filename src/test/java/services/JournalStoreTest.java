@@ -0,0 +1,90 @@
+package services;
+
+import entities.Evenement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.MyDataBase;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rejeu du journal local sur une base embarquée en mémoire (schéma créé par les migrations).
+ */
+class JournalStoreTest {
+
+    private static MyDataBase db;
+    private static EvenementService direct;
+
+    @BeforeAll
+    static void base() throws SQLException {
+        System.setProperty("db.mode", "embedded");
+        System.setProperty("db.url", "jdbc:h2:mem:journal;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        db = MyDataBase.getInstance();
+        direct = new EvenementService();
+    }
+
+    // ✅ rechargement entre deux saisies encore en attente : la seconde part de la première, pas de la base
+    @Test
+    void modifierRechargerModifierRejouer(@TempDir Path dir) throws Exception {
+        Evenement e = new Evenement("Nuit du désert", "Concert sous les étoiles", "SOIREE",
+                LocalDateTime.of(2026, 6, 1, 20, 0), null, "Tozeur");
+        direct.add(e);
+        int id = e.getIdEvent();
+
+        try (JournalStore journal = new JournalStore(dir.resolve("journal.log"), db)) {
+            journal.superposerEvenements(List.of(direct.getOneById(id)), true); // écran ouvert
+
+            Evenement v1 = JournalStore.copy(e);
+            v1.setTitre("Nuit du désert (v1)");
+            journal.modifierEvenement(v1);
+
+            // détails rouverts avant le rejeu : la base a encore l'ancienne ligne
+            List<Evenement> relus = journal.superposerEvenements(List.of(direct.getOneById(id)), true);
+            assertEquals("Nuit du désert (v1)", relus.get(0).getTitre());
+
+            Evenement v2 = JournalStore.copy(v1);
+            v2.setTitre("Nuit du désert (v2)");
+            journal.modifierEvenement(v2);
+
+            List<JournalStore.Synchro> res = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch rejoues = new CountDownLatch(2);
+            journal.addListener(s -> {
+                res.add(s);
+                rejoues.countDown();
+            });
+            journal.start();
+            assertTrue(rejoues.await(10, TimeUnit.SECONDS), "rejeu non terminé");
+
+            for (JournalStore.Synchro s : res) assertNull(s.conflit(), s.toString());
+            assertEquals("Nuit du désert (v2)", direct.getOneById(id).getTitre());
+            assertEquals(0, journal.getStats().conflits());
+
+            // clés acquittées retirées de journal_applied (après les écouteurs)
+            long fin = System.currentTimeMillis() + 10_000;
+            while (journalApplied() > 0 && System.currentTimeMillis() < fin) Thread.sleep(20);
+            assertEquals(0, journalApplied());
+        }
+    }
+
+    private static int journalApplied() throws SQLException {
+        try (Connection cnx = db.getConnection();
+             Statement st = cnx.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM journal_applied")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package services;
+
+import entities.Evenement;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.MyDataBase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lieu déjà pris : refusé par le service lui-même (sans cache), à l'unité comme en masse.
+ */
+class VenueConflictTest {
+
+    private static final LocalDateTime SOIR = LocalDateTime.of(2027, 3, 12, 20, 0);
+
+    private static EvenementService direct;
+
+    @BeforeAll
+    static void base() throws SQLException {
+        System.setProperty("db.mode", "embedded");
+        System.setProperty("db.url", "jdbc:h2:mem:journal;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        MyDataBase.getInstance();
+        direct = new EvenementService();
+        direct.add(new Evenement("Concert", "Orchestre", "SOIREE", SOIR, SOIR.plusHours(3), "Théâtre de Carthage"));
+    }
+
+    @Test
+    void addEtUpdateVerifientLeLieu() throws SQLException {
+        Evenement e = new Evenement("Ballet", "Danse", "SOIREE", SOIR.plusHours(1), SOIR.plusHours(2), "theatre de  carthage");
+        VenueConflictException ex = assertThrows(VenueConflictException.class, () -> direct.add(e));
+        assertSame(e, ex.getEvenement());
+        assertEquals(SOIR.plusHours(3), ex.getSuggestion());
+        assertEquals(0, e.getIdEvent());
+
+        e.setDateDebut(SOIR.plusHours(3));
+        e.setDateFin(SOIR.plusHours(4));
+        direct.add(e);
+
+        Evenement modifie = direct.getOneById(e.getIdEvent());
+        modifie.setDateFin(SOIR.plusHours(5));
+        direct.update(modifie); // ne se heurte pas à lui-même
+        modifie.setDateDebut(SOIR.plusHours(2));
+        assertThrows(VenueConflictException.class, () -> direct.update(modifie));
+    }
+
+    @Test
+    void addAllVerifieAussiLeLot() throws SQLException {
+        LocalDateTime jour = SOIR.plusDays(10);
+        Evenement a = new Evenement("Expo", "Photo", "SOIREE", jour, null, "Galerie Ifriqiya");
+        Evenement b = new Evenement("Vernissage", "Photo", "SOIREE", jour.plusHours(2), null, "Galerie Ifriqiya");
+        VenueConflictException ex = assertThrows(VenueConflictException.class, () -> direct.addAll(List.of(a, b)));
+        assertSame(b, ex.getEvenement());
+        assertEquals(0, a.getIdEvent()); // rien d'écrit
+
+        direct.addAll(List.of(a));
+        assertNotEquals(0, a.getIdEvent());
+    }
+
+    @Test
+    void importRejetteLaLigneEtGardeLeReste(@TempDir Path dir) throws Exception {
+        Path csv = dir.resolve("catalogue.csv");
+        Files.writeString(csv, String.join("\n",
+                "titre,description,type,date_debut,date_fin,lieu,image",
+                "Jazz,Quartet,SOIREE,2027-04-02 20:00,2027-04-02 23:00,Dar Sebastien,",
+                "Oud,Récital,SOIREE,2027-04-02 21:00,2027-04-02 22:00,Dar Sébastien,",
+                "Conte,Veillée,SOIREE,2027-04-03 20:00,,Dar Sebastien,"));
+
+        EvenementImporter.Progression p = new EvenementImporter(direct).importer(csv);
+        assertEquals(2, p.importes());
+        assertEquals(1, p.rejetes());
+        assertTrue(Files.readString(dir.resolve("catalogue.csv.rejets")).contains("déjà pris par « Jazz »"));
+    }
+}
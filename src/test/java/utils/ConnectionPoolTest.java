@@ -0,0 +1,35 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Retour au pool : l'emprunteur suivant retrouve une connexion dans son état d'origine.
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void reglagesRemisAuRetour() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool(URL, "sa", "", 1, 1_000, 60_000, 600_000)) {
+            int isolation;
+            try (Connection cnx = pool.getConnection()) {
+                isolation = cnx.getTransactionIsolation();
+                cnx.setAutoCommit(false);
+                cnx.setReadOnly(true);
+                cnx.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            }
+            try (Connection cnx = pool.getConnection()) { // même connexion physique (max = 1)
+                assertTrue(cnx.getAutoCommit());
+                assertFalse(cnx.isReadOnly());
+                assertEquals(isolation, cnx.getTransactionIsolation());
+            }
+            assertEquals(1, pool.getStats().created());
+        }
+    }
+}